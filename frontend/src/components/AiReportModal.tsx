@@ -2,6 +2,8 @@ import React, { useState } from 'react';
 import { Button, Dialog, Flex, Text } from '@radix-ui/themes';
 import { toast } from 'react-toastify';
 
+const POLL_INTERVAL_MS = 1000;
+
 interface AiReportModalProps {
   cableId: number;
 }
@@ -17,13 +19,23 @@ const AiReportModal: React.FC<AiReportModalProps> = ({ cableId }) => {
     setSummary(null); 
 
     try {
-      const response = await fetch(`http://localhost:8081/api/report/${cableId}`);
-      if (!response.ok) {
-        throw new Error('Failed to fetch AI report from backend');
+      // Submit a report job, then poll it until Gemini is done
+      const submitted = await fetch(`http://localhost:8081/api/report/${cableId}/jobs`, { method: 'POST' });
+      if (!submitted.ok) {
+        throw new Error('Failed to submit AI report job to backend');
+      }
+
+      let job = await submitted.json();
+      while (job.status === 'PENDING') {
+        await new Promise((resolve) => setTimeout(resolve, POLL_INTERVAL_MS));
+        const response = await fetch(`http://localhost:8081/api/report/jobs/${job.id}`);
+        if (!response.ok) {
+          throw new Error('Failed to fetch AI report job from backend');
+        }
+        job = await response.json();
       }
-      
-      const data = await response.json();
-      setSummary(data.aiExecutiveSummary);
+
+      setSummary(job.aiExecutiveSummary);
       toast.success('AI Post-Mortem generated successfully!');
     } catch (error) {
       console.error('Error fetching AI report:', error);
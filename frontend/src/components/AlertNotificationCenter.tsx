@@ -22,14 +22,7 @@ const AlertNotificationCenter: React.FC = () => {
   };
 
   useEffect(() => {
-    const fetchAlerts = async () => {
-      try {
-        // Polling the backend for unread alerts 
-        const response = await fetch('http://localhost:8081/api/alerts');
-        if (!response.ok) return;
-        
-        const alerts: AlertData[] = await response.json();
-
+    const showAlerts = (alerts: AlertData[]) => {
         alerts.forEach((alert) => {
           const alertKey = `${alert.cableId}-${alert.severity}`;
 
@@ -69,21 +62,43 @@ const AlertNotificationCenter: React.FC = () => {
                 theme: 'dark',
                 style: { borderLeft: '4px solid #F5A623', backgroundColor: '#1a1d2d' }
               });
+            } else if (alert.severity === 'ANOMALY') {
+              toast.info(<ToastContent />, {
+                autoClose: 8000,
+                theme: 'dark',
+                style: { borderLeft: '4px solid #4a90e2', backgroundColor: '#1a1d2d' }
+              });
             }
 
-            // Mark as read in DB so it doesn't appear in the next poll
+            // Mark as read in DB so it doesn't appear in the next catch-up fetch
             fetch(`http://localhost:8081/api/alerts/${alert.id}/read`, {
               method: 'POST',
             }).catch(console.error);
           }
         });
+    };
+
+    const fetchAlerts = async () => {
+      try {
+        // Catch up on unread alerts raised while this page was closed or the stream was down
+        const response = await fetch('http://localhost:8081/api/alerts');
+        if (!response.ok) return;
+        showAlerts(await response.json());
       } catch (error) {
-        console.error('Failed to poll alerts:', error);
+        console.error('Failed to fetch alerts:', error);
       }
     };
 
-    const intervalId = setInterval(fetchAlerts, 3000);
-    return () => clearInterval(intervalId);
+    fetchAlerts();
+
+    // New alerts are pushed by the backend as they are created
+    const events = new EventSource('http://localhost:8081/api/stream?events=alert');
+    events.addEventListener('alert', (event) => {
+      showAlerts([JSON.parse((event as MessageEvent).data)]);
+    });
+    events.addEventListener('open', fetchAlerts); // Resync after a reconnect
+
+    return () => events.close();
   }, []);
 
   return null; 
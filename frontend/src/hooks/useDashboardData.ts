@@ -56,6 +56,22 @@ export interface DashboardData {
 }
 
 const API_BASE_URL = 'http://localhost:8081/api/dashboard';
+const STREAM_URL = 'http://localhost:8081/api/stream';
+const FALLBACK_POLL_MS = 30000;
+// Server downsamples history to TelemetryHistoryService.DEFAULT_POINTS; pushed readings keep it at that size
+const MAX_HISTORY_POINTS = 200;
+
+const byNewestFirst = (a: HistoryRecord, b: HistoryRecord) =>
+  new Date(b.timestamp).getTime() - new Date(a.timestamp).getTime();
+
+// Folds one pushed reading into the newest-first history: skips duplicates, keeps late readings in order
+const mergeReading = (history: HistoryRecord[], reading: HistoryRecord): HistoryRecord[] => {
+  if (history.some((record) => record.timestamp === reading.timestamp)) return history;
+  const merged = history.length > 0 && byNewestFirst(reading, history[0]) <= 0
+    ? [reading, ...history]
+    : [...history, reading].sort(byNewestFirst);
+  return merged.slice(0, MAX_HISTORY_POINTS);
+};
 
 const useDashboardData = (cableId: number) => {
   const [data, setData] = useState<DashboardData>({
@@ -70,6 +86,8 @@ const useDashboardData = (cableId: number) => {
 
   // Track if we have done the initial load to prevent flickering
   const initialLoadDone = useRef(false);
+  // Version of the graph we already hold, so refreshes skip resending it
+  const graphEtag = useRef<string | null>(null);
 
   const fetchData = useCallback(async () => {
     try {
@@ -80,36 +98,27 @@ const useDashboardData = (cableId: number) => {
         setData((prev) => ({ ...prev, error: null }));
       }
 
-      const [graphRes, historyRes, carbonRes, riskRes, recommendationsRes] =
-        await Promise.all([
-          fetch(`${API_BASE_URL}/graph`),
-          fetch(`${API_BASE_URL}/history/${cableId}`),
-          fetch(`${API_BASE_URL}/carbon/${cableId}`),
-          fetch(`${API_BASE_URL}/risk/${cableId}`),
-          fetch(`${API_BASE_URL}/recommendations/${cableId}`),
-        ]);
+      // One request for every panel. The graph is only resent when it changed since graphEtag.
+      const etagParam = graphEtag.current ? `?graphEtag=${encodeURIComponent(graphEtag.current)}` : '';
+      const response = await fetch(`${API_BASE_URL}/cable/${cableId}${etagParam}`);
 
-      if (!graphRes.ok || !historyRes.ok || !carbonRes.ok || !riskRes.ok || !recommendationsRes.ok) {
+      if (!response.ok) {
         throw new Error('Failed to fetch dashboard data');
       }
 
-      const [graph, history, carbon, risk, recommendations] = await Promise.all([
-        graphRes.json(),
-        historyRes.json(),
-        carbonRes.json(),
-        riskRes.json(),
-        recommendationsRes.json(),
-      ]);
-
-      setData({
-        graph,
-        history: Array.isArray(history) ? history.sort((a, b) => new Date(b.timestamp).getTime() - new Date(a.timestamp).getTime()) : [],
-        carbon,
-        risk,
+      const dashboard = await response.json();
+      graphEtag.current = dashboard.graphEtag;
+      const { history, recommendations } = dashboard;
+
+      setData((prev) => ({
+        graph: dashboard.graph ?? prev.graph,
+        history: Array.isArray(history) ? history.sort(byNewestFirst) : [],
+        carbon: dashboard.carbon,
+        risk: dashboard.risk,
         recommendations: Array.isArray(recommendations) ? recommendations : [],
         loading: false, // Turn off loading once data arrives
         error: null,
-      });
+      }));
       
       initialLoadDone.current = true; // Mark initial load as finished
     } catch (err) {
@@ -123,11 +132,30 @@ const useDashboardData = (cableId: number) => {
 
   useEffect(() => {
     // Reset initial load marker if the cable ID changes
-    initialLoadDone.current = false; 
+    initialLoadDone.current = false;
     fetchData();
-    const interval = setInterval(fetchData, 2000);
-    return () => clearInterval(interval);
-  }, [fetchData]);
+
+    // The stream pushes every persisted reading for this cable; it goes straight into the chart and
+    // metric cards. A full refetch only happens on reconnect, to resync whatever was missed.
+    const events = new EventSource(`${STREAM_URL}?cableId=${cableId}&events=telemetry`);
+    events.addEventListener('telemetry', (event) => {
+      const reading: HistoryRecord = JSON.parse((event as MessageEvent).data);
+      setData((prev) => ({ ...prev, history: mergeReading(prev.history, reading) }));
+    });
+    let connectedBefore = false;
+    events.addEventListener('open', () => {
+      if (connectedBefore) fetchData();
+      connectedBefore = true;
+    });
+
+    // Slow refresh of the server-derived panels (carbon, risk, recommendations), and the
+    // safety net while the stream is down (EventSource keeps retrying on its own)
+    const interval = setInterval(fetchData, FALLBACK_POLL_MS);
+    return () => {
+      events.close();
+      clearInterval(interval);
+    };
+  }, [fetchData, cableId]);
 
   return data;
 };
@@ -0,0 +1,106 @@
+package com.belden.topology.benchmark;
+
+import com.belden.topology.model.Alert;
+import com.belden.topology.repository.AlertInsertRepository;
+import com.belden.topology.service.AlertDedupService;
+import com.belden.topology.service.AlertService;
+import com.belden.topology.service.LiveUpdateBroadcaster;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AlertService.checkAndAlert for degraded cables against an alerts table pre-filled with
+ * {@code existingAlerts} rows. Cables that stay degraded repeat their open episode and are
+ * answered in memory; cables that recover between ticks open a new episode on every degraded
+ * tick, so each one reaches the conflict-checked INSERT. Neither should slow down as the table grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlertDedupBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int existingAlerts;
+
+    @Param({"false", "true"})
+    public boolean recovering;
+
+    private LiveUpdateBroadcaster broadcaster;
+    private AlertService alertService;
+    private long tick;
+
+    @Setup(Level.Trial)
+    public void wire() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(BenchmarkDatabase.create());
+
+        // Past episodes only, so they never collide with the alerts raised during the run
+        jdbcTemplate.update("""
+                INSERT INTO alerts (cable_id, severity, message, timestamp, is_read, episode)
+                SELECT MOD("X", 1000), CASE WHEN MOD("X", 2) = 0 THEN 'WARNING' ELSE 'CRITICAL' END,
+                       'seeded', CURRENT_TIMESTAMP, FALSE, -"X"
+                FROM SYSTEM_RANGE(1, ?)
+                """, existingAlerts);
+
+        broadcaster = new LiveUpdateBroadcaster(256, 1_800_000);
+        // Cables 1-3 resolve their asset names without the topology index; no re-arm window,
+        // so every recovery closes the episode and the INSERT path is what gets measured
+        alertService = new AlertService(null, new H2AlertInsertRepository(jdbcTemplate),
+                new AlertDedupService(Duration.ZERO), broadcaster);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        broadcaster.shutdown();
+    }
+
+    @Benchmark
+    public void checkAndAlert() {
+        long n = tick++;
+        long cableId = 1 + n % 3;
+        // Each cable alternates WARNING and CRITICAL, with a healthy reading in between when recovering
+        double health = recovering && (n & 1) == 1 ? 80.0 : (n & 2) == 0 ? 40.0 : 10.0;
+        alertService.checkAndAlert(cableId, health, 12.5);
+    }
+
+    // H2 accepts ON CONFLICT DO NOTHING but not a conflict target or RETURNING
+    static final class H2AlertInsertRepository extends AlertInsertRepository {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        H2AlertInsertRepository(JdbcTemplate jdbcTemplate) {
+            super(jdbcTemplate);
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Override
+        public Optional<Long> insertIfAbsent(Alert alert) {
+            KeyHolder keys = new GeneratedKeyHolder();
+            int inserted = jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement("""
+                        INSERT INTO alerts (cable_id, severity, message, timestamp, is_read, episode)
+                        VALUES (?, ?, ?, ?, ?, ?)
+                        ON CONFLICT DO NOTHING
+                        """, new String[]{"id"});
+                ps.setLong(1, alert.getCableId());
+                ps.setString(2, alert.getSeverity());
+                ps.setString(3, alert.getMessage());
+                ps.setTimestamp(4, Timestamp.valueOf(alert.getTimestamp()));
+                ps.setBoolean(5, alert.isRead());
+                ps.setLong(6, alert.getEpisode());
+                return ps;
+            }, keys);
+            return inserted == 0 ? Optional.empty() : Optional.ofNullable(keys.getKey()).map(Number::longValue);
+        }
+    }
+}
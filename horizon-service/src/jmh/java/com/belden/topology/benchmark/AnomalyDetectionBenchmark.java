@@ -0,0 +1,69 @@
+package com.belden.topology.benchmark;
+
+import com.belden.topology.model.CableTelemetry;
+import com.belden.topology.model.TelemetryAnomaly;
+import com.belden.topology.service.TelemetryAnomalyDetector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TelemetryAnomalyDetector.observe per reading, the cost the consumer adds to every record.
+ * Readings cycle over `cables` cables with gaussian noise around a per-cable baseline;
+ * every spikeEvery-th reading is a large temperature excursion so the flagging path runs too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnomalyDetectionBenchmark {
+
+    private static final int READINGS = 1 << 16; // power of two, see next()
+
+    @Param({"100", "10000"})
+    public int cables;
+
+    @Param({"1000"})
+    public int spikeEvery;
+
+    private TelemetryAnomalyDetector detector;
+    private CableTelemetry[] readings;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void generateReadings() {
+        detector = new TelemetryAnomalyDetector(true, 0.02, 5.0, 50, 0.01);
+        SplittableRandom random = new SplittableRandom(42);
+
+        readings = new CableTelemetry[READINGS];
+        for (int i = 0; i < READINGS; i++) {
+            long cableId = 1 + (i % cables);
+            double temperature = 25 + cableId % 10 + random.nextDouble() * 2;
+            if (i % spikeEvery == 0) temperature += 60;
+            readings[i] = CableTelemetry.builder()
+                    .cableId(cableId)
+                    .temperature(temperature)
+                    .attenuation(1.5 + random.nextDouble() * 0.2)
+                    .snr(30 + random.nextDouble())
+                    .mse(0.01 + random.nextDouble() * 0.002)
+                    .build();
+        }
+
+        // Past warm-up for every cable, as in steady state
+        for (int pass = 0; pass < 60; pass++) {
+            for (int i = 0; i < cables; i++) detector.observe(readings[i]);
+        }
+    }
+
+    private int next() {
+        return cursor = (cursor + 1) & (READINGS - 1);
+    }
+
+    @Benchmark
+    public TelemetryAnomaly observe() {
+        return detector.observe(readings[next()]);
+    }
+}
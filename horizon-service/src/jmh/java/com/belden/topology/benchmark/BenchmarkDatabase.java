@@ -0,0 +1,64 @@
+package com.belden.topology.benchmark;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory H2 database in PostgreSQL mode, standing in for Postgres in the persistence benchmarks.
+ * Only the tables the benchmarked code writes to are created, with the columns Hibernate generates.
+ * Numbers are for spotting regressions between runs, not for predicting production latency.
+ */
+final class BenchmarkDatabase {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private BenchmarkDatabase() {
+    }
+
+    static DataSource create() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:bench" + DATABASES.incrementAndGet()
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("""
+                CREATE TABLE cable_telemetry (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    cable_id BIGINT,
+                    attenuation DOUBLE PRECISION NOT NULL,
+                    temperature DOUBLE PRECISION NOT NULL,
+                    load DOUBLE PRECISION NOT NULL,
+                    snr DOUBLE PRECISION NOT NULL,
+                    mse DOUBLE PRECISION NOT NULL,
+                    health DOUBLE PRECISION NOT NULL,
+                    rul_in_days DOUBLE PRECISION NOT NULL,
+                    timestamp TIMESTAMP,
+                    last_seen TIMESTAMP
+                )
+                """);
+        jdbc.execute("""
+                CREATE TABLE alerts (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    cable_id BIGINT NOT NULL,
+                    severity VARCHAR(255) NOT NULL,
+                    message VARCHAR(500) NOT NULL,
+                    timestamp TIMESTAMP NOT NULL,
+                    is_read BOOLEAN NOT NULL,
+                    episode BIGINT,
+                    CONSTRAINT uk_alerts_episode UNIQUE (cable_id, severity, episode)
+                )
+                """);
+        jdbc.execute("""
+                CREATE TABLE cable_telemetry_offsets (
+                    kafka_partition INTEGER NOT NULL,
+                    cable_id BIGINT NOT NULL,
+                    last_offset BIGINT NOT NULL,
+                    PRIMARY KEY (kafka_partition, cable_id)
+                )
+                """);
+        return dataSource;
+    }
+}
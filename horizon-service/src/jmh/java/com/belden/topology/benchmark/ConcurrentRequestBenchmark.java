@@ -0,0 +1,118 @@
+package com.belden.topology.benchmark;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A burst of concurrent requests against embedded Tomcat, with the connector on its default
+ * 200 platform workers (what the app runs today) or on virtual threads (the `virtual` profile,
+ * same executor Spring Boot installs). Each request blocks for blockingMs, standing in for the
+ * Neo4j/Postgres round trips behind the dashboard endpoints.
+ * Score is the time for the whole burst; requests/s = concurrentRequests / score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(3)
+public class ConcurrentRequestBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"200", "1000"})
+    public int concurrentRequests;
+
+    @Param({"50"})
+    public int blockingMs;
+
+    private Tomcat tomcat;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException, LifecycleException {
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("tomcat-bench").toString());
+
+        Connector connector = new Connector();
+        connector.setPort(0);
+        connector.setProperty("maxKeepAliveRequests", "-1"); // reuse the client's connections across bursts
+        if ("virtual".equals(threads)) {
+            connector.getProtocolHandler().setExecutor(new VirtualThreadExecutor("tomcat-handler-"));
+        } else {
+            connector.setProperty("maxThreads", "200"); // server.tomcat.threads.max default
+        }
+        tomcat.setConnector(connector);
+
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "blocking", new BlockingServlet(blockingMs));
+        context.addServletMappingDecoded("/blocking", "blocking");
+        tomcat.start();
+
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+        request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + connector.getLocalPort() + "/blocking")).build();
+    }
+
+    @Benchmark
+    public int burst() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[concurrentRequests];
+        for (int i = 0; i < concurrentRequests; i++) {
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        }
+        CompletableFuture.allOf(responses).join();
+        return responses.length;
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws LifecycleException {
+        client.close();
+        clientExecutor.shutdownNow();
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    static class BlockingServlet extends HttpServlet {
+
+        private final int blockingMs;
+
+        BlockingServlet(int blockingMs) {
+            this.blockingMs = blockingMs;
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            try {
+                Thread.sleep(blockingMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            resp.setContentType("text/plain");
+            resp.getWriter().write("ok");
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.belden.topology.benchmark;
+
+import com.belden.topology.cache.LatestTelemetryCache;
+import com.belden.topology.cache.LifecycleAggregateStore;
+import com.belden.topology.kafka.EventTimeWatermarks;
+import com.belden.topology.kafka.KeyOrderedExecutor;
+import com.belden.topology.kafka.TelemetryConsumer;
+import com.belden.topology.model.CableTelemetry;
+import com.belden.topology.repository.CableTelemetryBatchRepository;
+import com.belden.topology.repository.TelemetryOffsetRepository;
+import com.belden.topology.service.AlertDedupService;
+import com.belden.topology.service.AlertService;
+import com.belden.topology.service.LiveUpdateBroadcaster;
+import com.belden.topology.service.RulEstimator;
+import com.belden.topology.service.RulService;
+import com.belden.topology.service.TelemetryAnomalyDetector;
+import com.belden.topology.service.TelemetryPersistenceService;
+import com.belden.topology.service.TelemetryRollupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One Kafka poll through TelemetryConsumer.consumeBatch: previous-state lookup, scoring,
+ * multi-row INSERT, anomaly check, commit and the after-commit cache/aggregate/broadcast updates.
+ * workers = 0 runs the poll on the calling thread; otherwise it is split by cableId over that many
+ * key-ordered workers, each committing its share, the way horizon.telemetry.workers.count does.
+ * The services are wired by hand against the H2 stand-in; the latest-state cache is warm
+ * for every cable, as it is in steady state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsumerPipelineBenchmark {
+
+    @Param({"1", "100", "500"})
+    public int recordsPerPoll;
+
+    @Param({"100"})
+    public int cables;
+
+    @Param({"0", "4"})
+    public int workers;
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private LiveUpdateBroadcaster broadcaster;
+    private KeyOrderedExecutor telemetryWorkers;
+    private TelemetryConsumer consumer;
+    private SplittableRandom random;
+    private long nextOffset;
+
+    @Setup(Level.Trial)
+    public void wire() {
+        dataSource = BenchmarkDatabase.create();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // The Spring Data repository is only needed on cache misses and rebuilds, neither happens here
+        LatestTelemetryCache latestCache = new LatestTelemetryCache(null);
+        LifecycleAggregateStore aggregateStore = new LifecycleAggregateStore(jdbcTemplate, null, new DataSourceTransactionManager(dataSource), 10, 100);
+        broadcaster = new LiveUpdateBroadcaster(256, 1_800_000);
+        // Never run here, so its watermarks stay empty and recordWritten returns at once
+        TelemetryRollupService rollupService = new TelemetryRollupService(
+                jdbcTemplate, Duration.ofMinutes(5), Duration.ofDays(7), Duration.ofDays(30), Duration.ofDays(365));
+        TelemetryPersistenceService persistenceService = new TelemetryPersistenceService(
+                null, new CableTelemetryBatchRepository(jdbcTemplate), latestCache, aggregateStore, broadcaster, rollupService);
+
+        for (long cableId = 1; cableId <= cables; cableId++) {
+            latestCache.put(CableTelemetry.builder()
+                    .cableId(cableId).health(100.0).snr(30.0).mse(0.01)
+                    .timestamp(LocalDateTime.now()).lastSeen(LocalDateTime.now())
+                    .build());
+        }
+
+        AlertService alertService = new AlertService(null, new AlertDedupBenchmark.H2AlertInsertRepository(jdbcTemplate),
+                new AlertDedupService(Duration.ofMinutes(5)), broadcaster);
+        TelemetryAnomalyDetector anomalyDetector = new TelemetryAnomalyDetector(true, 0.02, 5.0, 50, 0.01);
+
+        telemetryWorkers = new KeyOrderedExecutor("telemetry-worker-", workers, 64);
+        consumer = new TelemetryConsumer(new RulService(), new RulEstimator(32, 1.0), latestCache, persistenceService,
+                alertService, anomalyDetector, telemetryWorkers, new EventTimeWatermarks(Duration.ofMinutes(10), Duration.ofMinutes(1)),
+                new H2TelemetryOffsetRepository(jdbcTemplate), new DataSourceTransactionManager(dataSource),
+                new SimpleMeterRegistry());
+        random = new SplittableRandom(42);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE cable_telemetry");
+        jdbcTemplate.execute("TRUNCATE TABLE cable_telemetry_offsets");
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        broadcaster.shutdown();
+        telemetryWorkers.close();
+    }
+
+    @Benchmark
+    public void consumeScorePersist() {
+        List<CableTelemetry> poll = new ArrayList<>(recordsPerPoll);
+        List<Integer> partitions = new ArrayList<>(recordsPerPoll);
+        List<Long> offsets = new ArrayList<>(recordsPerPoll);
+        for (int i = 0; i < recordsPerPoll; i++) {
+            partitions.add(0);
+            offsets.add(nextOffset++);
+            poll.add(CableTelemetry.builder()
+                    .cableId(1 + random.nextLong(cables))
+                    .temperature(random.nextDouble(20, 70))
+                    .attenuation(random.nextDouble(0, 8))
+                    .load(random.nextDouble(0, 100))
+                    .build());
+        }
+        consumer.consumeBatch(poll, partitions, offsets);
+    }
+
+    // H2 has no ON CONFLICT ... DO UPDATE; MERGE does the same upsert
+    static final class H2TelemetryOffsetRepository extends TelemetryOffsetRepository {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        H2TelemetryOffsetRepository(JdbcTemplate jdbcTemplate) {
+            super(jdbcTemplate);
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Override
+        public void saveLastOffsets(Map<Key, Long> offsets) {
+            List<Object[]> rows = new ArrayList<>(offsets.size());
+            offsets.forEach((key, offset) -> rows.add(new Object[]{key.partition(), key.cableId(), offset}));
+            jdbcTemplate.batchUpdate("MERGE INTO cable_telemetry_offsets (kafka_partition, cable_id, last_offset) "
+                    + "KEY (kafka_partition, cable_id) VALUES (?, ?, ?)", rows);
+        }
+    }
+}
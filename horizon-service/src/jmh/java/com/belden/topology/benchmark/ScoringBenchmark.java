@@ -0,0 +1,87 @@
+package com.belden.topology.benchmark;
+
+import com.belden.topology.model.CarbonMetrics;
+import com.belden.topology.service.RulService;
+import com.belden.topology.service.SustainabilityService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-record scoring math: health (what the consumer and scheduler do per reading) and the carbon
+ * metrics behind the dashboard. Inputs cycle through pre-generated readings that cover both
+ * temperature branches, so the JIT can't constant-fold a single path.
+ * The *Column benchmarks score all readings per call, through the batch API and through
+ * a loop of scalar calls, to compare the batch kernel (scalar or vector) with per-call scoring.
+ * RUL is RulEstimator's fit; see ConsumerPipelineBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoringBenchmark {
+
+    private static final int READINGS = 4096; // power of two, see next()
+
+    private final RulService rulService = new RulService();
+    private final SustainabilityService sustainabilityService = new SustainabilityService();
+
+    private final double[] attenuation = new double[READINGS];
+    private final double[] temperature = new double[READINGS];
+    private final double[] load = new double[READINGS];
+    private final double[] snr = new double[READINGS];
+    private final double[] mse = new double[READINGS];
+    private final double[] previousHealth = new double[READINGS];
+    private final double[] age = new double[READINGS];
+    private final double[] healthOut = new double[READINGS];
+    private int cursor;
+
+    @Setup
+    public void generateReadings() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < READINGS; i++) {
+            attenuation[i] = random.nextDouble(0, 10);
+            temperature[i] = random.nextDouble(15, 80);
+            load[i] = random.nextDouble(0, 100);
+            snr[i] = random.nextDouble(10, 40);
+            mse[i] = random.nextDouble(0, 1);
+            previousHealth[i] = random.nextDouble(0, 100);
+            age[i] = 2;
+        }
+    }
+
+    private int next() {
+        return cursor = (cursor + 1) & (READINGS - 1);
+    }
+
+    @Benchmark
+    public double health() {
+        int i = next();
+        return rulService.calculateHealth(attenuation[i], temperature[i], load[i], snr[i], mse[i], 2);
+    }
+
+    @Benchmark
+    public CarbonMetrics carbonMetrics() {
+        int i = next();
+        return sustainabilityService.calculateMetrics((long) (i % 4), previousHealth[i]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(READINGS)
+    public double[] healthColumn() {
+        rulService.calculateHealth(attenuation, temperature, load, snr, mse, age, healthOut, READINGS);
+        return healthOut;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(READINGS)
+    public double[] healthColumnScalarLoop() {
+        for (int i = 0; i < READINGS; i++) {
+            healthOut[i] = rulService.calculateHealth(attenuation[i], temperature[i], load[i], snr[i], mse[i], 2);
+        }
+        return healthOut;
+    }
+}
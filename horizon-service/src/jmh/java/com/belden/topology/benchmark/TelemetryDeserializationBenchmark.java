@@ -0,0 +1,102 @@
+package com.belden.topology.benchmark;
+
+import com.belden.topology.kafka.TelemetryBinarySerializer;
+import com.belden.topology.kafka.TelemetryWireDeserializer;
+import com.belden.topology.model.CableTelemetry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kafka value (de)serialization of one CableTelemetry: Spring's JSON pair configured the way
+ * application.yml used to configure the topic (trusted packages, default type, no type headers)
+ * against the binary TelemetryWireFormat, both directly and through the auto-detecting
+ * TelemetryWireDeserializer the consumer now uses.
+ * Sizes of the full reading: JSON FULL_PAYLOAD 204 bytes, binary 79 bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TelemetryDeserializationBenchmark {
+
+    // Shape sent by DegradationSimulator
+    private static final byte[] SIMULATOR_PAYLOAD =
+            "{\"cableId\":1,\"temperature\":42.5,\"attenuation\":3.1,\"load\":75.0}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    // Every field populated, timestamps included
+    private static final byte[] FULL_PAYLOAD = ("{\"id\":123456,\"cableId\":17,\"attenuation\":3.1,\"temperature\":42.5,"
+            + "\"load\":75.0,\"snr\":27.3,\"mse\":0.12,\"health\":64.2,"
+            + "\"timestamp\":\"2024-05-01T10:15:30.123\",\"lastSeen\":\"2024-05-01T10:15:30.123\",\"rulInDays\":181.5}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static final Map<String, Object> CONSUMER_CONFIG = Map.of(
+            JsonDeserializer.TRUSTED_PACKAGES, "*",
+            JsonDeserializer.VALUE_DEFAULT_TYPE, CableTelemetry.class.getName());
+
+    private JsonDeserializer<CableTelemetry> deserializer;
+    private TelemetryWireDeserializer wireDeserializer;
+    private JsonSerializer<CableTelemetry> jsonSerializer;
+    private final TelemetryBinarySerializer binarySerializer = new TelemetryBinarySerializer();
+
+    private CableTelemetry fullReading;
+    private byte[] fullBinary;
+
+    @Setup
+    public void configure() {
+        deserializer = new JsonDeserializer<>();
+        deserializer.configure(CONSUMER_CONFIG, false);
+        wireDeserializer = new TelemetryWireDeserializer();
+        wireDeserializer.configure(CONSUMER_CONFIG, false);
+        jsonSerializer = new JsonSerializer<>();
+        jsonSerializer.configure(Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, false), false);
+
+        fullReading = deserializer.deserialize("cable-telemetry", FULL_PAYLOAD);
+        fullBinary = binarySerializer.serialize("cable-telemetry", fullReading);
+    }
+
+    @TearDown
+    public void close() {
+        deserializer.close();
+        wireDeserializer.close();
+        jsonSerializer.close();
+    }
+
+    @Benchmark
+    public CableTelemetry simulatorPayload() {
+        return deserializer.deserialize("cable-telemetry", SIMULATOR_PAYLOAD);
+    }
+
+    @Benchmark
+    public CableTelemetry fullPayload() {
+        return deserializer.deserialize("cable-telemetry", FULL_PAYLOAD);
+    }
+
+    @Benchmark
+    public CableTelemetry binaryFullPayload() {
+        return wireDeserializer.deserialize("cable-telemetry", fullBinary);
+    }
+
+    // The auto-detecting deserializer on a JSON record: the cost of mixed-format topics
+    @Benchmark
+    public CableTelemetry wireDeserializerJsonPayload() {
+        return wireDeserializer.deserialize("cable-telemetry", FULL_PAYLOAD);
+    }
+
+    @Benchmark
+    public byte[] jsonSerializeFull() {
+        return jsonSerializer.serialize("cable-telemetry", fullReading);
+    }
+
+    @Benchmark
+    public byte[] binarySerializeFull() {
+        return binarySerializer.serialize("cable-telemetry", fullReading);
+    }
+}
@@ -0,0 +1,262 @@
+package com.belden.topology.cache;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Read-only adjacency index of the topology graph in compressed-sparse-row form.
+ * Node i's outgoing edges are targets[offsets[i] .. offsets[i + 1]), with the relationship type
+ * of each edge in edgeTypes at the same position. It answers the downstream-impact questions
+ * the risk, alert and simulation code used to send to Neo4j as variable-length path queries.
+ * Built once per {@link TopologySnapshot}; never mutated afterwards, so it is shared across threads freely.
+ */
+public final class ImpactIndex {
+
+    // Node label bits. A node can carry several labels, Cypher's (m:Machine) matches any of them.
+    static final byte CABLE = 1;
+    static final byte SWITCH = 1 << 1;
+    static final byte MACHINE = 1 << 2;
+    static final byte ASSEMBLY_LINE = 1 << 3;
+
+    // Relationship types used by the topology model
+    static final byte OTHER_REL = 0;
+    static final byte CONNECTS_TO = 1;
+    static final byte FEEDS = 2;
+    static final byte PART_OF = 3;
+
+    private final byte[] labels;
+    private final String[] names;
+    private final int[] offsets;
+    private final int[] targets;
+    private final byte[] edgeTypes;
+    private final Long2ObjectOpenHashMap<int[]> nodesByCableId;
+
+    private ImpactIndex(byte[] labels, String[] names, int[] offsets, int[] targets, byte[] edgeTypes,
+                        Long2ObjectOpenHashMap<int[]> nodesByCableId) {
+        this.labels = labels;
+        this.names = names;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.edgeTypes = edgeTypes;
+        this.nodesByCableId = nodesByCableId;
+    }
+
+    public int nodeCount() {
+        return labels.length;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    public long[] cableIds() {
+        return nodesByCableId.keySet().toLongArray();
+    }
+
+    // (c:Cable {id})-[*1..maxHops]->(m:Machine) RETURN count(DISTINCT m)
+    public long countDownstreamMachines(long cableId, int maxHops) {
+        BitSet reached = reachableWithin(cableId, maxHops);
+        long machines = 0;
+        for (int node = reached.nextSetBit(0); node >= 0; node = reached.nextSetBit(node + 1)) {
+            if (has(node, MACHINE)) machines++;
+        }
+        return machines;
+    }
+
+    // Same count for many cables at once; the traversal scratch space is allocated once and reused
+    public long[] countDownstreamMachines(long[] cableIds, int maxHops) {
+        long[] counts = new long[cableIds.length];
+        BitSet reached = new BitSet(labels.length);
+        BitSet visited = new BitSet(labels.length);
+        for (int i = 0; i < cableIds.length; i++) {
+            reached.clear();
+            visited.clear();
+            reachableWithin(cableIds[i], maxHops, reached, visited);
+            for (int node = reached.nextSetBit(0); node >= 0; node = reached.nextSetBit(node + 1)) {
+                if (has(node, MACHINE)) counts[i]++;
+            }
+        }
+        return counts;
+    }
+
+    // (c)-[*1..maxHops]->(m:Machine)-[:PART_OF]->(a:AssemblyLine) RETURN m.name + '::' + a.name LIMIT 1
+    public Optional<String> findImpactDetails(long cableId, int maxHops) {
+        BitSet reached = reachableWithin(cableId, maxHops);
+        for (int machine = reached.nextSetBit(0); machine >= 0; machine = reached.nextSetBit(machine + 1)) {
+            if (!has(machine, MACHINE)) continue;
+            for (int e = offsets[machine]; e < offsets[machine + 1]; e++) {
+                int line = targets[e];
+                if (edgeTypes[e] == PART_OF && has(line, ASSEMBLY_LINE)
+                        && names[machine] != null && names[line] != null) {
+                    return Optional.of(names[machine] + "::" + names[line]);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    // (c:Cable {id})-[:CONNECTS_TO]->(s:Switch)-[:FEEDS]->(m:Machine)-[:PART_OF]->(a:AssemblyLine) RETURN DISTINCT a.name
+    public List<String> findImpactedAssemblyLines(long cableId) {
+        Set<String> lines = new LinkedHashSet<>();
+        for (int cable : cableNodes(cableId)) {
+            for (int e1 = offsets[cable]; e1 < offsets[cable + 1]; e1++) {
+                int sw = targets[e1];
+                if (edgeTypes[e1] != CONNECTS_TO || !has(sw, SWITCH)) continue;
+                for (int e2 = offsets[sw]; e2 < offsets[sw + 1]; e2++) {
+                    int machine = targets[e2];
+                    if (edgeTypes[e2] != FEEDS || !has(machine, MACHINE)) continue;
+                    for (int e3 = offsets[machine]; e3 < offsets[machine + 1]; e3++) {
+                        int line = targets[e3];
+                        if (edgeTypes[e3] == PART_OF && has(line, ASSEMBLY_LINE) && names[line] != null) {
+                            lines.add(names[line]);
+                        }
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(lines);
+    }
+
+    // Nodes at distance 1..maxHops from any Cable node with this id (breadth-first, so each node once)
+    private BitSet reachableWithin(long cableId, int maxHops) {
+        BitSet reached = new BitSet(labels.length);
+        reachableWithin(cableId, maxHops, reached, new BitSet(labels.length));
+        return reached;
+    }
+
+    private void reachableWithin(long cableId, int maxHops, BitSet reached, BitSet visited) {
+        int[] starts = cableNodes(cableId);
+        if (starts.length == 0) return;
+
+        IntArrayList frontier = new IntArrayList(starts);
+        for (int start : starts) visited.set(start);
+
+        for (int hop = 1; hop <= maxHops && !frontier.isEmpty(); hop++) {
+            IntArrayList next = new IntArrayList();
+            for (int i = 0; i < frontier.size(); i++) {
+                int node = frontier.getInt(i);
+                for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                    int target = targets[e];
+                    reached.set(target);
+                    if (!visited.get(target)) {
+                        visited.set(target);
+                        next.add(target);
+                    }
+                }
+            }
+            frontier = next;
+        }
+    }
+
+    private int[] cableNodes(long cableId) {
+        int[] nodes = nodesByCableId.get(cableId);
+        return nodes == null ? new int[0] : nodes;
+    }
+
+    private boolean has(int node, byte label) {
+        return (labels[node] & label) != 0;
+    }
+
+    /**
+     * Collects nodes and edges from the bulk export, then lays the edges out in CSR order
+     * with a counting sort over their source node.
+     */
+    static final class Builder {
+
+        private final Map<String, Integer> indexByElementId = new HashMap<>();
+        private final List<Byte> nodeLabels = new ArrayList<>();
+        private final List<String> nodeNames = new ArrayList<>();
+        private final Long2ObjectOpenHashMap<IntArrayList> cables = new Long2ObjectOpenHashMap<>();
+
+        private final IntArrayList edgeSources = new IntArrayList();
+        private final IntArrayList edgeTargets = new IntArrayList();
+        private final List<Byte> edgeTypeList = new ArrayList<>();
+
+        void addNode(String elementId, Collection<?> nodeLabelNames, String name, Object cableId) {
+            if (indexByElementId.containsKey(elementId)) return;
+            int index = nodeLabels.size();
+            indexByElementId.put(elementId, index);
+
+            byte bits = 0;
+            if (nodeLabelNames != null) {
+                for (Object label : nodeLabelNames) bits |= labelBit(String.valueOf(label));
+            }
+            nodeLabels.add(bits);
+            nodeNames.add(name);
+
+            if ((bits & CABLE) != 0 && cableId instanceof Number number) {
+                cables.computeIfAbsent(number.longValue(), k -> new IntArrayList()).add(index);
+            }
+        }
+
+        void addEdge(String fromElementId, String toElementId, String type) {
+            Integer from = indexByElementId.get(fromElementId);
+            Integer to = indexByElementId.get(toElementId);
+            if (from == null || to == null) return; // Node vanished between the two export queries
+            edgeSources.add(from.intValue());
+            edgeTargets.add(to.intValue());
+            edgeTypeList.add(relationshipType(type));
+        }
+
+        ImpactIndex build() {
+            int nodeCount = nodeLabels.size();
+            int edgeCount = edgeSources.size();
+
+            byte[] labels = new byte[nodeCount];
+            String[] names = new String[nodeCount];
+            for (int i = 0; i < nodeCount; i++) {
+                labels[i] = nodeLabels.get(i);
+                names[i] = nodeNames.get(i);
+            }
+
+            int[] offsets = new int[nodeCount + 1];
+            for (int e = 0; e < edgeCount; e++) offsets[edgeSources.getInt(e) + 1]++;
+            for (int i = 0; i < nodeCount; i++) offsets[i + 1] += offsets[i];
+
+            int[] cursor = Arrays.copyOf(offsets, nodeCount);
+            int[] targets = new int[edgeCount];
+            byte[] types = new byte[edgeCount];
+            for (int e = 0; e < edgeCount; e++) {
+                int slot = cursor[edgeSources.getInt(e)]++;
+                targets[slot] = edgeTargets.getInt(e);
+                types[slot] = edgeTypeList.get(e);
+            }
+
+            Long2ObjectOpenHashMap<int[]> nodesByCableId = new Long2ObjectOpenHashMap<>(cables.size());
+            cables.forEach((cableId, nodes) -> nodesByCableId.put(cableId.longValue(), nodes.toIntArray()));
+
+            return new ImpactIndex(labels, names, offsets, targets, types, nodesByCableId);
+        }
+
+        private static byte labelBit(String label) {
+            return switch (label) {
+                case "Cable" -> CABLE;
+                case "Switch" -> SWITCH;
+                case "Machine" -> MACHINE;
+                case "AssemblyLine" -> ASSEMBLY_LINE;
+                default -> 0;
+            };
+        }
+
+        private static byte relationshipType(String type) {
+            if (type == null) return OTHER_REL;
+            return switch (type) {
+                case "CONNECTS_TO" -> CONNECTS_TO;
+                case "FEEDS" -> FEEDS;
+                case "PART_OF" -> PART_OF;
+                default -> OTHER_REL;
+            };
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.belden.topology.cache;
+
+import com.belden.topology.model.CableTelemetry;
+import com.belden.topology.repository.CableTelemetryRepository;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-through store of the newest telemetry record per cable.
+ * Every writer (consumer, audit scheduler) puts what it saved, so the dashboard, risk and
+ * recommendation readers never need the ORDER BY timestamp DESC LIMIT 1 query on the hot path.
+ * A miss falls back to Postgres and fills the entry; a cable with no readings is remembered as
+ * absent until its first write, so asking again does not query again.
+ * Entries are private copies: callers get their own copy of the record and may modify it freely.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LatestTelemetryCache {
+
+    // Bounds the absent entries, which any request for an unknown cable id would otherwise add
+    private static final int MAX_ABSENT = 100_000;
+
+    // Stored for cables known to have no readings; never handed out
+    private static final CableTelemetry ABSENT = new CableTelemetry();
+
+    private final CableTelemetryRepository repository;
+
+    private final Long2ObjectOpenHashMap<CableTelemetry> latestByCable = new Long2ObjectOpenHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private int absentCount; // guarded by lock
+
+    // Runs after the CommandLineRunners, so it sees the table after DatabaseCleanupConfig
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<CableTelemetry> latest = repository.findLatestPerCable();
+        latest.forEach(this::put);
+        log.info(">>> [CACHE] Latest-telemetry cache warmed with {} cables", latest.size());
+    }
+
+    public Optional<CableTelemetry> get(Long cableId) {
+        CableTelemetry cached = read(cableId);
+        if (cached != null) {
+            hits.increment();
+            return cached == ABSENT ? Optional.empty() : Optional.of(copy(cached));
+        }
+
+        misses.increment();
+        Optional<CableTelemetry> loaded = repository.findTopByCableIdOrderByTimestampDescIdDesc(cableId);
+        if (loaded.isPresent()) put(loaded.get());
+        else putAbsent(List.of(cableId));
+        return loaded;
+    }
+
+    // Batch lookup: cached cables are served from memory, the rest with one query
+    public Map<Long, CableTelemetry> getAll(Collection<Long> cableIds) {
+        Map<Long, CableTelemetry> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (Long cableId : cableIds) {
+                CableTelemetry cached = latestByCable.get(cableId.longValue());
+                if (cached == null) missing.add(cableId);
+                else if (cached != ABSENT) result.put(cableId, copy(cached));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.add(cableIds.size() - missing.size());
+        misses.add(missing.size());
+
+        if (!missing.isEmpty()) {
+            for (CableTelemetry loaded : repository.findLatestByCableIdIn(missing)) {
+                put(loaded);
+                result.put(loaded.getCableId(), loaded);
+            }
+            putAbsent(missing.stream().filter(cableId -> !result.containsKey(cableId)).toList());
+        }
+        return result;
+    }
+
+    // Keeps whichever record is newer, so a late writer can't roll a cable back in time.
+    // Stores a copy, so the caller's later changes to its record never reach other readers.
+    public void put(CableTelemetry telemetry) {
+        long cableId = telemetry.getCableId();
+        lock.writeLock().lock();
+        try {
+            CableTelemetry existing = latestByCable.get(cableId);
+            if (existing == ABSENT) absentCount--;
+            if (existing == null || existing.getTimestamp() == null || telemetry.getTimestamp() == null
+                    || !telemetry.getTimestamp().isBefore(existing.getTimestamp())) {
+                latestByCable.put(cableId, copy(telemetry));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putAll(Collection<CableTelemetry> records) {
+        records.forEach(this::put);
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        int size;
+        int absent;
+        lock.readLock().lock();
+        try {
+            size = latestByCable.size();
+            absent = absentCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cables", size - absent);
+        stats.put("absentCables", absent);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        return stats;
+    }
+
+    // Remembers cables the database had no reading for; a later put replaces the entry
+    private void putAbsent(List<Long> cableIds) {
+        if (cableIds.isEmpty()) return;
+        lock.writeLock().lock();
+        try {
+            for (Long cableId : cableIds) {
+                if (absentCount >= MAX_ABSENT) return;
+                if (latestByCable.putIfAbsent(cableId.longValue(), ABSENT) == null) absentCount++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static CableTelemetry copy(CableTelemetry telemetry) {
+        return telemetry.toBuilder().build();
+    }
+
+    private CableTelemetry read(Long cableId) {
+        lock.readLock().lock();
+        try {
+            return latestByCable.get(cableId.longValue());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
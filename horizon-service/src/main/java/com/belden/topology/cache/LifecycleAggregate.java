@@ -0,0 +1,164 @@
+package com.belden.topology.cache;
+
+import com.belden.topology.model.CableTelemetry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Running lifecycle statistics for one cable, updated once per persisted record.
+ * Everything the lifecycle and AI reports need is kept here so they never re-scan history.
+ * Instances handed out by {@link LifecycleAggregateStore} are copies and safe to read freely.
+ */
+public class LifecycleAggregate {
+
+    public enum Metric { TEMPERATURE, ATTENUATION, HEALTH, SNR, MSE, LOAD }
+
+    private static final int METRICS = Metric.values().length;
+
+    private long count;
+    private final double[] sum = new double[METRICS];
+    private final double[] min = new double[METRICS];
+    private final double[] max = new double[METRICS];
+
+    private CableTelemetry first;
+    private CableTelemetry last;
+
+    // Highest cable_telemetry id folded in; ids grow in arrival order per cable
+    private long lastId;
+
+    // Record ordinal (1-based, arrival order) -> record, every `milestoneInterval`-th record
+    private final LinkedHashMap<Long, CableTelemetry> milestones = new LinkedHashMap<>();
+    private long milestoneInterval;
+    private final int maxMilestones;
+
+    LifecycleAggregate(long milestoneInterval, int maxMilestones) {
+        this.milestoneInterval = milestoneInterval;
+        this.maxMilestones = maxMilestones;
+        Arrays.fill(min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+    }
+
+    synchronized void record(CableTelemetry telemetry) {
+        count++;
+        accumulate(Metric.TEMPERATURE, telemetry.getTemperature());
+        accumulate(Metric.ATTENUATION, telemetry.getAttenuation());
+        accumulate(Metric.HEALTH, telemetry.getHealth());
+        accumulate(Metric.SNR, telemetry.getSnr());
+        accumulate(Metric.MSE, telemetry.getMse());
+        accumulate(Metric.LOAD, telemetry.getLoad());
+
+        offerBounds(telemetry);
+        if (telemetry.getId() != null) lastId = Math.max(lastId, telemetry.getId());
+
+        addMilestone(count, telemetry);
+    }
+
+    // Used by the rebuild, which computes the sums in SQL: adds `count` records with these totals
+    synchronized void merge(long count, double[] sum, double[] min, double[] max) {
+        this.count += count;
+        for (int i = 0; i < METRICS; i++) {
+            this.sum[i] += sum[i];
+            this.min[i] = Math.min(this.min[i], min[i]);
+            this.max[i] = Math.max(this.max[i], max[i]);
+        }
+    }
+
+    // First and last by event time: a backfilled or late reading can arrive after newer ones
+    synchronized void offerBounds(CableTelemetry telemetry) {
+        if (first == null || isBefore(telemetry, first)) first = telemetry;
+        if (last == null || !isBefore(telemetry, last)) last = telemetry;
+    }
+
+    synchronized void advanceLastId(long id) {
+        lastId = Math.max(lastId, id);
+    }
+
+    synchronized void addMilestone(long ordinal, CableTelemetry telemetry) {
+        if (ordinal % milestoneInterval != 0) return;
+        milestones.put(ordinal, telemetry);
+
+        // Keep memory per cable bounded: once the list is full, drop every other
+        // milestone and double the spacing. Long-lived cables get a coarser timeline.
+        if (milestones.size() > maxMilestones) {
+            milestoneInterval *= 2;
+            Iterator<Long> it = milestones.keySet().iterator();
+            while (it.hasNext()) {
+                if (it.next() % milestoneInterval != 0) it.remove();
+            }
+        }
+    }
+
+    synchronized LifecycleAggregate copy() {
+        LifecycleAggregate copy = new LifecycleAggregate(milestoneInterval, maxMilestones);
+        copy.merge(count, sum, min, max);
+        copy.first = first;
+        copy.last = last;
+        copy.lastId = lastId;
+        copy.milestones.putAll(milestones);
+        return copy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getAverage(Metric metric) {
+        return count == 0 ? 0.0 : sum[metric.ordinal()] / count;
+    }
+
+    public double getMin(Metric metric) {
+        return count == 0 ? 0.0 : min[metric.ordinal()];
+    }
+
+    public double getMax(Metric metric) {
+        return count == 0 ? 0.0 : max[metric.ordinal()];
+    }
+
+    // Raw totals for the checkpoint; only read from copies
+    double[] getSums() {
+        return sum.clone();
+    }
+
+    double[] getMins() {
+        return min.clone();
+    }
+
+    double[] getMaxes() {
+        return max.clone();
+    }
+
+    long getMilestoneInterval() {
+        return milestoneInterval;
+    }
+
+    synchronized long getLastId() {
+        return lastId;
+    }
+
+    public CableTelemetry getFirst() {
+        return first;
+    }
+
+    public CableTelemetry getLast() {
+        return last;
+    }
+
+    public Map<Long, CableTelemetry> getMilestones() {
+        return Collections.unmodifiableMap(milestones);
+    }
+
+    private static boolean isBefore(CableTelemetry a, CableTelemetry b) {
+        return a.getTimestamp() != null && b.getTimestamp() != null && a.getTimestamp().isBefore(b.getTimestamp());
+    }
+
+    private void accumulate(Metric metric, double value) {
+        int i = metric.ordinal();
+        sum[i] += value;
+        if (value < min[i]) min[i] = value;
+        if (value > max[i]) max[i] = value;
+    }
+}
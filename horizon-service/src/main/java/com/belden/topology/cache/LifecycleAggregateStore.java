@@ -0,0 +1,405 @@
+package com.belden.topology.cache;
+
+import com.belden.topology.cache.LifecycleAggregate.Metric;
+import com.belden.topology.model.CableTelemetry;
+import com.belden.topology.repository.CableTelemetryRepository;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-cable {@link LifecycleAggregate}s, fed by TelemetryPersistenceService on every save.
+ * The report endpoints read a cable's aggregate in O(1) instead of loading its full history.
+ * {@link #rebuild()} recomputes everything from Postgres (startup and POST /api/report/aggregates/rebuild).
+ *
+ * Records are counted in arrival order, which is cable_telemetry id order per cable, both here and
+ * in the rebuild, so milestones land on the same records either way. {@link #checkpoint()} writes
+ * the aggregates to cable_lifecycle_aggregate / cable_lifecycle_record, which outlive raw retention:
+ * a rebuild starts from the checkpoint and folds in only the raw rows with a higher id.
+ *
+ * Saves keep flowing while a rebuild runs. They still update the live map and are also queued;
+ * before the rebuilt map is swapped in, the queued records its database snapshot doesn't contain
+ * are applied to it, so nothing saved during the rebuild is lost or counted twice.
+ */
+@Slf4j
+@Component
+public class LifecycleAggregateStore {
+
+    private static final BeanPropertyRowMapper<CableTelemetry> ROW_MAPPER = new BeanPropertyRowMapper<>(CableTelemetry.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CableTelemetryRepository repository;
+    private final long milestoneInterval;
+    private final int maxMilestones;
+
+    private final TransactionTemplate snapshotTransaction;
+    private final TransactionTemplate checkpointTransaction;
+
+    private Long2ObjectOpenHashMap<LifecycleAggregate> aggregates = new Long2ObjectOpenHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Records saved while a rebuild runs; null when none is running. Guarded by lock.
+    private Queue<CableTelemetry> savedDuringRebuild;
+
+    // cableId -> lastId of its stored checkpoint. Only touched by the synchronized methods.
+    private final Long2LongOpenHashMap checkpointed = new Long2LongOpenHashMap();
+
+    public LifecycleAggregateStore(JdbcTemplate jdbcTemplate,
+                                   CableTelemetryRepository repository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${horizon.lifecycle.milestone-interval}") long milestoneInterval,
+                                   @Value("${horizon.lifecycle.max-milestones}") int maxMilestones) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.repository = repository;
+        this.milestoneInterval = milestoneInterval;
+        this.maxMilestones = maxMilestones;
+        // Every rebuild query reads the same snapshot, so "is this record in it" has one answer
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+        this.checkpointTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS cable_lifecycle_aggregate (
+                    cable_id bigint PRIMARY KEY,
+                    last_id bigint NOT NULL,
+                    record_count bigint NOT NULL,
+                    milestone_interval bigint NOT NULL,
+                    sums double precision[] NOT NULL,
+                    mins double precision[] NOT NULL,
+                    maxes double precision[] NOT NULL
+                )
+                """);
+        // The first, last and milestone records of each checkpointed aggregate, with their ordinals
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS cable_lifecycle_record (
+                    cable_id bigint NOT NULL,
+                    role varchar(16) NOT NULL,
+                    ordinal bigint NOT NULL,
+                    id bigint,
+                    attenuation double precision NOT NULL,
+                    temperature double precision NOT NULL,
+                    load double precision NOT NULL,
+                    snr double precision NOT NULL,
+                    mse double precision NOT NULL,
+                    health double precision NOT NULL,
+                    rul_in_days double precision NOT NULL,
+                    timestamp timestamp(6),
+                    last_seen timestamp(6),
+                    PRIMARY KEY (cable_id, role, ordinal)
+                )
+                """);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        int cables = rebuild();
+        log.info(">>> [AGGREGATES] Lifecycle aggregates built for {} cables", cables);
+    }
+
+    public Optional<LifecycleAggregate> get(Long cableId) {
+        lock.readLock().lock();
+        try {
+            LifecycleAggregate aggregate = aggregates.get(cableId.longValue());
+            return aggregate == null ? Optional.empty() : Optional.of(aggregate.copy());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Applying to the live map and queueing for a running rebuild happen under the same lock,
+    // so a record is either queued before the swap or applied to the rebuilt map after it, never both
+    public void record(CableTelemetry telemetry) {
+        long key = telemetry.getCableId();
+        lock.readLock().lock();
+        try {
+            LifecycleAggregate existing = aggregates.get(key);
+            if (existing != null) {
+                existing.record(telemetry);
+                if (savedDuringRebuild != null) savedDuringRebuild.add(telemetry);
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            aggregateFor(aggregates, key).record(telemetry);
+            if (savedDuringRebuild != null) savedDuringRebuild.add(telemetry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void recordAll(Collection<CableTelemetry> records) {
+        records.forEach(this::record);
+    }
+
+    // Recomputes every cable's aggregate from Postgres and swaps the result in. Returns the cable count.
+    public synchronized int rebuild() {
+        Queue<CableTelemetry> pending = new ConcurrentLinkedQueue<>();
+        lock.writeLock().lock();
+        try {
+            savedDuringRebuild = pending;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            Integer cables = snapshotTransaction.execute(status -> rebuildFromSnapshot(pending));
+            return cables == null ? 0 : cables;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                savedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private int rebuildFromSnapshot(Queue<CableTelemetry> pending) {
+        Long2ObjectOpenHashMap<LifecycleAggregate> rebuilt = new Long2ObjectOpenHashMap<>();
+        Long2LongOpenHashMap loadedCheckpoints = new Long2LongOpenHashMap();
+
+        // 1. The checkpoint: everything up to each cable's last_id, including rows already past retention
+        jdbcTemplate.query("SELECT * FROM cable_lifecycle_aggregate", (RowCallbackHandler) rs -> {
+            long cableId = rs.getLong("cable_id");
+            LifecycleAggregate aggregate = new LifecycleAggregate(rs.getLong("milestone_interval"), maxMilestones);
+            aggregate.merge(rs.getLong("record_count"), doubles(rs.getArray("sums")),
+                    doubles(rs.getArray("mins")), doubles(rs.getArray("maxes")));
+            aggregate.advanceLastId(rs.getLong("last_id"));
+            rebuilt.put(cableId, aggregate);
+            loadedCheckpoints.put(cableId, rs.getLong("last_id"));
+        });
+        jdbcTemplate.query("SELECT * FROM cable_lifecycle_record ORDER BY cable_id, role, ordinal", (RowCallbackHandler) rs -> {
+            LifecycleAggregate aggregate = rebuilt.get(rs.getLong("cable_id"));
+            if (aggregate == null) return;
+            CableTelemetry record = ROW_MAPPER.mapRow(rs, rs.getRow());
+            if ("milestone".equals(rs.getString("role"))) aggregate.addMilestone(rs.getLong("ordinal"), record);
+            else aggregate.offerBounds(record);
+        });
+
+        // 2. count / sum / min / max per metric of the newer raw rows, in one GROUP BY
+        StringBuilder sql = new StringBuilder("SELECT t.cable_id, count(*) AS n, max(t.id) AS max_id");
+        for (Metric metric : Metric.values()) {
+            String column = "t." + metric.name().toLowerCase();
+            sql.append(", sum(").append(column).append("), min(").append(column).append("), max(").append(column).append(")");
+        }
+        sql.append(" FROM cable_telemetry t LEFT JOIN cable_lifecycle_aggregate a ON a.cable_id = t.cable_id")
+                .append(" WHERE t.id > coalesce(a.last_id, 0) GROUP BY t.cable_id");
+
+        int metrics = Metric.values().length;
+        jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> {
+            double[] sum = new double[metrics];
+            double[] min = new double[metrics];
+            double[] max = new double[metrics];
+            for (int i = 0; i < metrics; i++) {
+                sum[i] = rs.getDouble(4 + i * 3);
+                min[i] = rs.getDouble(5 + i * 3);
+                max[i] = rs.getDouble(6 + i * 3);
+            }
+            LifecycleAggregate aggregate = aggregateFor(rebuilt, rs.getLong("cable_id"));
+            aggregate.merge(rs.getLong("n"), sum, min, max);
+            aggregate.advanceLastId(rs.getLong("max_id"));
+        });
+
+        // 3. first and last record per cable, against the checkpoint's
+        for (CableTelemetry first : repository.findFirstPerCable()) {
+            LifecycleAggregate aggregate = rebuilt.get(first.getCableId().longValue());
+            if (aggregate != null) aggregate.offerBounds(first);
+        }
+        for (CableTelemetry last : repository.findLatestPerCable()) {
+            LifecycleAggregate aggregate = rebuilt.get(last.getCableId().longValue());
+            if (aggregate != null) aggregate.offerBounds(last);
+        }
+
+        // 4. every N-th newer record per cable, numbered on from the checkpoint in arrival (id) order like record()
+        jdbcTemplate.query("""
+                SELECT * FROM (
+                    SELECT t.*, coalesce(a.record_count, 0)
+                               + row_number() OVER (PARTITION BY t.cable_id ORDER BY t.id) AS ordinal
+                    FROM cable_telemetry t LEFT JOIN cable_lifecycle_aggregate a ON a.cable_id = t.cable_id
+                    WHERE t.id > coalesce(a.last_id, 0)
+                ) numbered
+                WHERE ordinal % ? = 0
+                ORDER BY cable_id, ordinal
+                """, (RowCallbackHandler) rs -> {
+            LifecycleAggregate aggregate = rebuilt.get(rs.getLong("cable_id"));
+            if (aggregate != null) aggregate.addMilestone(rs.getLong("ordinal"), ROW_MAPPER.mapRow(rs, rs.getRow()));
+        }, milestoneInterval);
+
+        // 5. Catch up on what was saved meanwhile: most of the queue outside the lock, the tail under it
+        applyMissing(rebuilt, drain(pending));
+        lock.writeLock().lock();
+        try {
+            applyMissing(rebuilt, drain(pending));
+            aggregates = rebuilt;
+            savedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        checkpointed.clear();
+        checkpointed.putAll(loadedCheckpoints);
+        return rebuilt.size();
+    }
+
+    // Scheduled: stores every aggregate that took new records since its last checkpoint. Returns the cable count.
+    public synchronized int checkpoint() {
+        List<Long> cableIds = new ArrayList<>();
+        List<LifecycleAggregate> changed = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long2ObjectMap.Entry<LifecycleAggregate> entry : aggregates.long2ObjectEntrySet()) {
+                LifecycleAggregate aggregate = entry.getValue();
+                if (aggregate.getLastId() > checkpointed.get(entry.getLongKey())) {
+                    cableIds.add(entry.getLongKey());
+                    changed.add(aggregate.copy());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (changed.isEmpty()) return 0;
+
+        checkpointTransaction.executeWithoutResult(status -> {
+            for (int i = 0; i < changed.size(); i++) writeCheckpoint(cableIds.get(i), changed.get(i));
+        });
+        for (int i = 0; i < changed.size(); i++) checkpointed.put(cableIds.get(i).longValue(), changed.get(i).getLastId());
+        return changed.size();
+    }
+
+    // Called when the raw table is wiped (DatabaseCleanupConfig): ids restart, so the checkpoints go too
+    public synchronized void reset() {
+        jdbcTemplate.execute("TRUNCATE TABLE cable_lifecycle_aggregate, cable_lifecycle_record");
+        checkpointed.clear();
+        lock.writeLock().lock();
+        try {
+            aggregates = new Long2ObjectOpenHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void writeCheckpoint(long cableId, LifecycleAggregate aggregate) {
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement("""
+                    INSERT INTO cable_lifecycle_aggregate (cable_id, last_id, record_count, milestone_interval, sums, mins, maxes)
+                    VALUES (?, ?, ?, ?, ?, ?, ?)
+                    ON CONFLICT (cable_id) DO UPDATE SET
+                        last_id = EXCLUDED.last_id,
+                        record_count = EXCLUDED.record_count,
+                        milestone_interval = EXCLUDED.milestone_interval,
+                        sums = EXCLUDED.sums,
+                        mins = EXCLUDED.mins,
+                        maxes = EXCLUDED.maxes
+                    """);
+            ps.setLong(1, cableId);
+            ps.setLong(2, aggregate.getLastId());
+            ps.setLong(3, aggregate.getCount());
+            ps.setLong(4, aggregate.getMilestoneInterval());
+            ps.setArray(5, connection.createArrayOf("float8", boxed(aggregate.getSums())));
+            ps.setArray(6, connection.createArrayOf("float8", boxed(aggregate.getMins())));
+            ps.setArray(7, connection.createArrayOf("float8", boxed(aggregate.getMaxes())));
+            return ps;
+        });
+
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(recordRow(cableId, "first", 0, aggregate.getFirst()));
+        rows.add(recordRow(cableId, "last", 0, aggregate.getLast()));
+        aggregate.getMilestones().forEach((ordinal, record) -> rows.add(recordRow(cableId, "milestone", ordinal, record)));
+        jdbcTemplate.update("DELETE FROM cable_lifecycle_record WHERE cable_id = ?", cableId);
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO cable_lifecycle_record (cable_id, role, ordinal, id, attenuation, temperature, load, snr, mse,
+                                                    health, rul_in_days, timestamp, last_seen)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, rows);
+    }
+
+    private static Object[] recordRow(long cableId, String role, long ordinal, CableTelemetry t) {
+        return new Object[]{cableId, role, ordinal, t.getId(), t.getAttenuation(), t.getTemperature(), t.getLoad(),
+                t.getSnr(), t.getMse(), t.getHealth(), t.getRulInDays(), toTimestamp(t.getTimestamp()), toTimestamp(t.getLastSeen())};
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime time) {
+        return time == null ? null : Timestamp.valueOf(time);
+    }
+
+    private static Double[] boxed(double[] values) {
+        Double[] boxed = new Double[values.length];
+        for (int i = 0; i < values.length; i++) boxed[i] = values[i];
+        return boxed;
+    }
+
+    private static double[] doubles(Array array) throws SQLException {
+        Object[] values = (Object[]) array.getArray();
+        double[] unboxed = new double[values.length];
+        for (int i = 0; i < values.length; i++) unboxed[i] = ((Number) values[i]).doubleValue();
+        return unboxed;
+    }
+
+    // Applies the records the rebuild's snapshot doesn't already contain
+    private void applyMissing(Long2ObjectOpenHashMap<LifecycleAggregate> rebuilt, List<CableTelemetry> records) {
+        if (records.isEmpty()) return;
+        Set<Long> inSnapshot = idsInSnapshot(records);
+        for (CableTelemetry record : records) {
+            if (record.getId() != null && inSnapshot.contains(record.getId())) continue;
+            aggregateFor(rebuilt, record.getCableId()).record(record);
+        }
+    }
+
+    private Set<Long> idsInSnapshot(List<CableTelemetry> records) {
+        Long[] ids = records.stream().map(CableTelemetry::getId).filter(id -> id != null).toArray(Long[]::new);
+        if (ids.length == 0) return Set.of();
+        return new HashSet<>(jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement("SELECT id FROM cable_telemetry WHERE id = ANY(?)");
+            ps.setArray(1, connection.createArrayOf("bigint", ids));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1)));
+    }
+
+    private static List<CableTelemetry> drain(Queue<CableTelemetry> queue) {
+        List<CableTelemetry> records = new ArrayList<>();
+        for (CableTelemetry record; (record = queue.poll()) != null; ) records.add(record);
+        return records;
+    }
+
+    private LifecycleAggregate aggregateFor(Long2ObjectOpenHashMap<LifecycleAggregate> map, long key) {
+        LifecycleAggregate aggregate = map.get(key);
+        if (aggregate == null) {
+            aggregate = new LifecycleAggregate(milestoneInterval, maxMilestones);
+            map.put(key, aggregate);
+        }
+        return aggregate;
+    }
+}
@@ -0,0 +1,21 @@
+package com.belden.topology.cache;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+// Immutable copy of the Neo4j graph: the dashboard view plus the impact index built from the same export.
+// Replaced wholesale, never mutated.
+@Value
+public class TopologySnapshot {
+    long version;
+    String etag;
+    List<Map<String, Object>> nodes;
+    List<Map<String, Object>> edges;
+    ImpactIndex impactIndex;
+
+    public Map<String, Object> toBody() {
+        return Map.of("nodes", nodes, "edges", edges);
+    }
+}
@@ -0,0 +1,123 @@
+package com.belden.topology.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the current {@link TopologySnapshot} and its {@link ImpactIndex}.
+ * The graph only changes through TopologyService, which calls {@link #invalidate()} after its
+ * transaction commits; until then every /api/dashboard/graph poll and every impact lookup
+ * is served from memory without touching Neo4j.
+ */
+@Component
+@RequiredArgsConstructor
+public class TopologySnapshotCache {
+
+    private final Neo4jClient neo4jClient;
+    private final MeterRegistry meterRegistry;
+
+    // Bumped on every invalidation. A load that started before a bump is not published.
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile TopologySnapshot current;
+
+    public TopologySnapshot get() {
+        TopologySnapshot snapshot = current;
+        if (snapshot != null) return snapshot;
+
+        // Only one caller rebuilds; the others wait and reuse its result
+        loadLock.lock();
+        try {
+            snapshot = current;
+            if (snapshot != null) return snapshot;
+
+            long loadingGeneration = generation.get();
+            snapshot = load(loadingGeneration);
+            if (generation.get() == loadingGeneration) current = snapshot;
+            return snapshot;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        current = null;
+    }
+
+    // Convenience for the risk, alert and simulation services
+    public ImpactIndex impactIndex() {
+        return get().getImpactIndex();
+    }
+
+    // One bulk export (all nodes, all relationships) feeds both the dashboard view and the ImpactIndex
+    private TopologySnapshot load(long version) {
+        Collection<Map<String, Object>> nodesRaw = meterRegistry.timer("horizon.neo4j.query", "query", "export-nodes")
+                .record(() -> neo4jClient.query(
+                        "MATCH (n) " +
+                                "RETURN toString(elementId(n)) as id, labels(n) as labels, " +
+                                "n.name as name, n.id as cableId"
+                ).fetch().all());
+
+        Collection<Map<String, Object>> edgesRaw = meterRegistry.timer("horizon.neo4j.query", "query", "export-edges")
+                .record(() -> neo4jClient.query(
+                        "MATCH (n)-[r]->(m) " +
+                                "RETURN toString(elementId(n)) as from, " +
+                                "toString(elementId(m)) as to, type(r) as type"
+                ).fetch().all());
+
+        ImpactIndex.Builder index = new ImpactIndex.Builder();
+        List<Map<String, Object>> nodes = new ArrayList<>(nodesRaw.size());
+        for (Map<String, Object> row : nodesRaw) {
+            List<?> labels = (List<?>) row.get("labels");
+            index.addNode((String) row.get("id"), labels, (String) row.get("name"), row.get("cableId"));
+
+            // The dashboard uses the first label as the vis.js group
+            Map<String, Object> node = new LinkedHashMap<>();
+            node.put("id", row.get("id"));
+            node.put("group", (labels == null || labels.isEmpty()) ? null : labels.get(0));
+            node.put("label", row.get("name"));
+            nodes.add(node);
+        }
+
+        Set<List<Object>> seenEdges = new HashSet<>();
+        List<Map<String, Object>> edges = new ArrayList<>(edgesRaw.size());
+        for (Map<String, Object> row : edgesRaw) {
+            index.addEdge((String) row.get("from"), (String) row.get("to"), (String) row.get("type"));
+
+            // The view only needs one edge per (from, to) pair
+            if (seenEdges.add(List.of(row.get("from"), row.get("to")))) {
+                Map<String, Object> edge = new LinkedHashMap<>();
+                edge.put("from", row.get("from"));
+                edge.put("to", row.get("to"));
+                edges.add(edge);
+            }
+        }
+
+        nodes = freeze(nodes);
+        edges = freeze(edges);
+
+        // Content hash keeps ETags from colliding across restarts, when the version starts over
+        String etag = "\"" + version + "-" + Integer.toHexString(Objects.hash(nodes, edges)) + "\"";
+        return new TopologySnapshot(version, etag, nodes, edges, index.build());
+    }
+
+    private static List<Map<String, Object>> freeze(Collection<Map<String, Object>> rows) {
+        // Map.copyOf rejects nulls (n.name can be null), so wrap instead of copying
+        return rows.stream().map(Collections::unmodifiableMap).toList();
+    }
+}
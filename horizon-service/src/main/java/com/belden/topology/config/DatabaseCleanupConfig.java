@@ -1,10 +1,14 @@
 package com.belden.topology.config;
 
+import com.belden.topology.cache.LifecycleAggregateStore;
+import com.belden.topology.service.TelemetryRollupService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+@Slf4j
 @Configuration
 public class DatabaseCleanupConfig {
 
@@ -12,19 +16,25 @@ public class DatabaseCleanupConfig {
     // MATCH (n) DETACH DELETE n
 
     @Bean
-    public CommandLineRunner cleanDatabase(JdbcTemplate jdbcTemplate) {
+    public CommandLineRunner cleanDatabase(JdbcTemplate jdbcTemplate, TelemetryRollupService rollupService,
+                                           LifecycleAggregateStore aggregateStore) {
         return args -> {
-            System.out.println(">>> [INIT] Wiping old telemetry data for a fresh demo...");
+            log.info(">>> [INIT] Wiping old telemetry data for a fresh demo...");
             // TRUNCATE wipes the data but keeps the table structure.
             // RESTART IDENTITY resets the ID counter back to 1.
             try {
+                // On the partitioned table this truncates every partition
                 jdbcTemplate.execute("TRUNCATE TABLE cable_telemetry RESTART IDENTITY CASCADE");
+                rollupService.reset();
+                aggregateStore.reset();
+                // Offsets written by the batch workers describe the rows just wiped
+                try { jdbcTemplate.execute("TRUNCATE TABLE cable_telemetry_offsets"); } catch (Exception ignored) {}
 
                 try { jdbcTemplate.execute("TRUNCATE TABLE alert RESTART IDENTITY CASCADE"); } catch (Exception ignored) {}
                 try { jdbcTemplate.execute("TRUNCATE TABLE alerts RESTART IDENTITY CASCADE"); } catch (Exception ignored) {}
-                System.out.println(">>> [INIT] Database Cleaned. Ready for baseline.");
+                log.info(">>> [INIT] Database Cleaned. Ready for baseline.");
             } catch (Exception e) {
-                System.out.println(">>> [INIT] Table might not exist yet, skipping cleanup.");
+                log.info(">>> [INIT] Table might not exist yet, skipping cleanup.");
             }
         };
     }
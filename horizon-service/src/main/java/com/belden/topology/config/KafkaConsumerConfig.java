@@ -0,0 +1,56 @@
+package com.belden.topology.config;
+
+import com.belden.topology.kafka.KeyOrderedExecutor;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    // Batch listener factory used by TelemetryConsumer.consumeBatch when horizon.telemetry.batch.enabled=true.
+    // It starts from the same consumer settings as application.yml (deserializers, group, offsets)
+    // and only overrides the poll sizing, so both modes read the topic the same way.
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> telemetryBatchFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${horizon.telemetry.batch.max-records}") int maxRecords,
+            @Value("${horizon.telemetry.batch.max-wait-ms}") int maxWaitMs,
+            @Value("${horizon.telemetry.batch.fetch-min-bytes}") int fetchMinBytes,
+            @Value("${horizon.telemetry.batch.concurrency}") int concurrency) {
+
+        Map<String, Object> props = new HashMap<>(consumerFactory.getConfigurationProperties());
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxRecords);
+        // The broker holds the fetch until fetch-min-bytes are available or max-wait expires,
+        // so a quiet topic still delivers within max-wait-ms.
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, maxWaitMs);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, new DefaultKafkaConsumerFactory<>(props));
+        factory.setBatchListener(true);
+        // Records are keyed by cableId, so each cable lives on one partition and therefore on one
+        // consumer thread. Raising concurrency never reorders a single cable's readings.
+        factory.setConcurrency(concurrency);
+        return factory;
+    }
+
+    // Workers behind the batch listener: a poll is split by cableId and each worker scores and
+    // persists its share, so scoring and inserts use more cores than there are listener threads.
+    // A cable always maps to one worker, so its readings are still processed in offset order.
+    @Bean(destroyMethod = "close")
+    public KeyOrderedExecutor telemetryWorkers(
+            @Value("${horizon.telemetry.workers.count}") int workers,
+            @Value("${horizon.telemetry.workers.queue-capacity}") int queueCapacity) {
+        return new KeyOrderedExecutor("telemetry-worker-", workers, queueCapacity);
+    }
+}
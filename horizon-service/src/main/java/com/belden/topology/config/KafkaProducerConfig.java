@@ -0,0 +1,27 @@
+package com.belden.topology.config;
+
+import com.belden.topology.kafka.TelemetryBinarySerializer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+@Configuration
+public class KafkaProducerConfig {
+
+    // horizon.telemetry.wire-format picks the value encoding on the cable-telemetry topic.
+    // json keeps the serializer from application.yml; binary swaps in the compact TelemetryWireFormat.
+    // The consumer's TelemetryWireDeserializer reads both, so producers can switch one at a time.
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer telemetryWireFormatCustomizer(
+            @Value("${horizon.telemetry.wire-format}") String wireFormat) {
+        return factory -> {
+            if ("binary".equalsIgnoreCase(wireFormat)) {
+                factory.updateConfigs(Map.of(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, TelemetryBinarySerializer.class));
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.belden.topology.config;
+
+import com.belden.topology.kafka.TelemetryProducer;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    // KafkaAdmin creates the topic at startup, or adds partitions if it has fewer than configured.
+    // The partition count caps useful listener concurrency. Adding partitions re-maps some cableIds,
+    // so readings already queued on the old partition can overtake ones sent right after the change.
+    @Bean
+    public NewTopic cableTelemetryTopic(@Value("${horizon.telemetry.topic.partitions}") int partitions,
+                                        @Value("${horizon.telemetry.topic.replicas}") short replicas) {
+        return TopicBuilder.name(TelemetryProducer.TOPIC)
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.belden.topology.config;
+
+import com.belden.topology.kafka.TelemetryProducer;
+import com.belden.topology.service.AlertDedupService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // The services already keep these counts for /api/ops; Micrometer reads them on scrape,
+    // so the alert and ingest paths pay nothing extra per call.
+    @Bean
+    public MeterBinder alertMetrics(AlertDedupService alertDedup) {
+        return registry -> {
+            FunctionCounter.builder("horizon.alerts.created", alertDedup, AlertDedupService::getCreatedCount)
+                    .description("Alerts inserted")
+                    .register(registry);
+            FunctionCounter.builder("horizon.alerts.deduplicated", alertDedup, AlertDedupService::getDedupedCount)
+                    .description("Alert attempts suppressed because the episode already alerted")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder ingestMetrics(TelemetryProducer telemetryProducer) {
+        return registry -> Gauge.builder("horizon.ingest.buffer.usage", telemetryProducer, TelemetryProducer::getBufferUsage)
+                .description("Fill ratio of the Kafka producer's send buffer; ingest answers 429 above horizon.ingest.max-buffer-usage")
+                .register(registry);
+    }
+}
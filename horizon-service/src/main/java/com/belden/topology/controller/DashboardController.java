@@ -1,14 +1,28 @@
 package com.belden.topology.controller;
 
+import com.belden.topology.cache.LatestTelemetryCache;
+import com.belden.topology.cache.LifecycleAggregate;
+import com.belden.topology.cache.LifecycleAggregateStore;
+import com.belden.topology.cache.TopologySnapshot;
+import com.belden.topology.cache.TopologySnapshotCache;
 import com.belden.topology.model.*;
-import com.belden.topology.repository.CableTelemetryRepository;
+import com.belden.topology.service.CableDashboardService;
 import com.belden.topology.service.RecommendationEngine;
+import com.belden.topology.service.RulEstimator;
 import com.belden.topology.service.SustainabilityService;
+import com.belden.topology.service.TelemetryHistoryService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.belden.topology.service.RiskScoringService;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 @RestController
@@ -16,43 +30,79 @@ import java.util.*;
 @RequiredArgsConstructor
 public class DashboardController {
 
-    private final Neo4jClient neo4jClient;
-    private final CableTelemetryRepository telemetryRepository;
+    private final TopologySnapshotCache topologySnapshots;
+    private final LatestTelemetryCache latestCache;
+    private final LifecycleAggregateStore aggregateStore;
     private final SustainabilityService sustainabilityService;
     private final RiskScoringService riskService;
     private final RecommendationEngine recommendationEngine;
+    private final TelemetryHistoryService historyService;
+    private final CableDashboardService cableDashboardService;
+    private final RulEstimator rulEstimator;
+
+    // Every panel for one cable in a single response. Send the graphEtag from the previous
+    // response back and the (unchanged) graph is left out.
+    @GetMapping("/cable/{cableId}")
+    public CableDashboard getCableDashboard(@PathVariable Long cableId,
+                                            @RequestParam(required = false) String graphEtag) {
+        return cableDashboardService.build(cableId, graphEtag);
+    }
 
     // 1. Fetch Topology for Vis.js
+    // Served from an in-memory snapshot; clients that send If-None-Match get a 304 when nothing changed
     @GetMapping("/graph")
-    public Map<String, Object> getGraph() {
-        // We extract the first label from the array to use as the group
-        Collection<Map<String, Object>> nodesRaw = neo4jClient.query(
-                "MATCH (n) " +
-                        "RETURN DISTINCT toString(elementId(n)) as id, " +
-                        "head(labels(n)) as group, " + // Head gets the first label as a string
-                        "n.name as label"
-        ).fetch().all();
-
-        Collection<Map<String, Object>> edgesRaw = neo4jClient.query(
-                "MATCH (n)-[r]->(m) " +
-                        "RETURN DISTINCT toString(elementId(n)) as from, " +
-                        "toString(elementId(m)) as to"
-        ).fetch().all();
-
-        return Map.of("nodes", nodesRaw, "edges", edgesRaw);
+    public ResponseEntity<Map<String, Object>> getGraph(WebRequest request) {
+        TopologySnapshot snapshot = topologySnapshots.get();
+
+        if (request.checkNotModified(snapshot.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getEtag()).build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache()) // Browsers keep it but revalidate every poll
+                .body(snapshot.toBody());
     }
 
     // 2. Fetch History for Chart.js
+    // Downsampled to at most `points` buckets over [from, to] (defaults to the cable's whole life)
     @GetMapping("/history/{cableId}")
-    public List<CableTelemetry> getHistory(@PathVariable Long cableId) {
-        // Return last 20 records for the graph
-        return telemetryRepository.findByCableIdOrderByTimestampDesc(cableId);
+    public List<TelemetryPoint> getHistory(
+            @PathVariable Long cableId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "" + TelemetryHistoryService.DEFAULT_POINTS) int points) {
+        return historyService.getDownsampledHistory(cableId, from, to, points);
+    }
+
+    // Raw rows one keyset page at a time; pass nextTimestamp/nextId from the previous page as cursor
+    @GetMapping("/history/{cableId}/raw")
+    public TelemetryPage getRawHistoryPage(
+            @PathVariable Long cableId,
+            @RequestParam(defaultValue = "desc") String order,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorTimestamp,
+            @RequestParam(required = false) Long cursorId,
+            @RequestParam(defaultValue = "" + TelemetryHistoryService.DEFAULT_PAGE_SIZE) int limit) {
+        return historyService.getRawPage(cableId, !"asc".equalsIgnoreCase(order), cursorTimestamp, cursorId, limit);
+    }
+
+    // Raw rows as NDJSON, streamed from a DB cursor so heap use doesn't grow with history length
+    @GetMapping("/history/{cableId}/export")
+    public ResponseEntity<StreamingResponseBody> exportHistory(
+            @PathVariable Long cableId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        StreamingResponseBody body = out -> historyService.exportRaw(cableId, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header("Content-Disposition", "attachment; filename=cable-" + cableId + "-telemetry.ndjson")
+                .body(body);
     }
 
     @GetMapping("/carbon/{cableId}")
     public CarbonMetrics getCarbonMetrics(@PathVariable Long cableId) {
         // Fetch latest health to calculate efficiency loss
-        return telemetryRepository.findTopByCableIdOrderByTimestampDesc(cableId)
+        return latestCache.get(cableId)
                 .map(t -> sustainabilityService.calculateMetrics(cableId, t.getHealth()))
                 .orElse(CarbonMetrics.builder().build()); // Return empty if no data
     }
@@ -62,6 +112,13 @@ public class DashboardController {
         return riskService.calculateFacilityRisk(cableId);
     }
 
+    // Fleet heatmap: every cable (or just cableIds), riskiest first
+    @GetMapping("/risk")
+    public List<RiskAssessment> getFleetRisk(@RequestParam(required = false) List<Long> cableIds,
+                                             @RequestParam(defaultValue = "100") int limit) {
+        return riskService.calculateFleetRisk(cableIds, Math.max(1, limit));
+    }
+
     @GetMapping("/recommendations/{cableId}")
     public List<Recommendation> getRecommendations(@PathVariable Long cableId) {
         return recommendationEngine.generateRecommendations(cableId);
@@ -70,23 +127,23 @@ public class DashboardController {
     @GetMapping("/report/{cableId}")
     public CableLifecycleReport getCableLifecycleReport(@PathVariable Long cableId) {
 
-        // 1. Fetch entire history sorted from birth to death
-        List<CableTelemetry> history = telemetryRepository.findByCableIdOrderByTimestampAsc(cableId);
+        // 1. Read the running lifecycle aggregate (kept up to date on every save)
+        LifecycleAggregate lifecycle = aggregateStore.get(cableId).orElse(null);
 
-        if (history.isEmpty()) {
+        if (lifecycle == null || lifecycle.getCount() == 0) {
             return CableLifecycleReport.builder().cableId(cableId).build();
         }
 
         // 2. Extract key lifecycle events
-        CableTelemetry firstRecord = history.get(0);
-        CableTelemetry lastRecord = history.get(history.size() - 1);
+        CableTelemetry firstRecord = lifecycle.getFirst();
+        CableTelemetry lastRecord = lifecycle.getLast();
 
-        // Calculate total days survived (Assuming your simulator jumps 6 days per tick)
-        int virtualDaysSurvived = history.size() * 6;
+        // Calculate total days survived from the readings' own timestamps
+        long virtualDaysSurvived = Math.round(rulEstimator.elapsedDays(cableId, firstRecord.getTimestamp(), lastRecord.getTimestamp()));
 
         // 3. Calculate Environmental Averages
-        double avgTemp = history.stream().mapToDouble(CableTelemetry::getTemperature).average().orElse(0.0);
-        double avgAttn = history.stream().mapToDouble(CableTelemetry::getAttenuation).average().orElse(0.0);
+        double avgTemp = lifecycle.getAverage(LifecycleAggregate.Metric.TEMPERATURE);
+        double avgAttn = lifecycle.getAverage(LifecycleAggregate.Metric.ATTENUATION);
 
         // 4. AI "Root Cause" Diagnosis Logic
         String cause = "Standard Wear & Tear";
@@ -105,7 +162,8 @@ public class DashboardController {
                 .averageAttenuation(avgAttn)
                 .primaryFailureCause(cause)
                 .avoidedCarbonKg(virtualDaysSurvived * 0.04) // Small ESG metric
-                .historicalTimeline(history) // The raw data for your React chart
+                .historicalTimeline(historyService.getDownsampledHistory( // Downsampled data for your React chart
+                        cableId, firstRecord.getTimestamp(), lastRecord.getTimestamp(), TelemetryHistoryService.DEFAULT_POINTS))
                 .build();
     }
 }
\ No newline at end of file
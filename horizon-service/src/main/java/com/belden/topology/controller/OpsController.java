@@ -0,0 +1,129 @@
+package com.belden.topology.controller;
+
+import com.belden.topology.cache.ImpactIndex;
+import com.belden.topology.cache.LatestTelemetryCache;
+import com.belden.topology.cache.TopologySnapshot;
+import com.belden.topology.cache.TopologySnapshotCache;
+import com.belden.topology.kafka.ConsumerLagMonitor;
+import com.belden.topology.kafka.TelemetryProducer;
+import com.belden.topology.scheduler.HealthAuditScheduler;
+import com.belden.topology.service.AlertDedupService;
+import com.belden.topology.service.GeminiService;
+import com.belden.topology.service.LiveUpdateBroadcaster;
+import com.belden.topology.service.RulEstimator;
+import com.belden.topology.service.TelemetryAnomalyDetector;
+import com.belden.topology.service.TelemetryPartitionService;
+import com.belden.topology.service.TelemetryRollupService;
+import com.belden.topology.service.VirtualThreadPinningMonitor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Operational counters for the in-memory stores behind the dashboard
+@RestController
+@RequestMapping("/api/ops")
+@RequiredArgsConstructor
+public class OpsController {
+
+    private final LatestTelemetryCache latestCache;
+    private final TopologySnapshotCache topologySnapshots;
+    private final LiveUpdateBroadcaster broadcaster;
+    private final AlertDedupService alertDedup;
+    private final HealthAuditScheduler healthAudit;
+    private final TelemetryPartitionService partitionService;
+    private final TelemetryRollupService rollupService;
+    private final GeminiService geminiService;
+    private final VirtualThreadPinningMonitor pinningMonitor;
+    private final TelemetryAnomalyDetector anomalyDetector;
+    private final RulEstimator rulEstimator;
+    private final TelemetryProducer telemetryProducer;
+    private final ConsumerLagMonitor consumerLagMonitor;
+
+    @GetMapping("/cache/latest")
+    public Map<String, Object> getLatestCacheStats() {
+        return latestCache.getStats();
+    }
+
+    @GetMapping("/topology")
+    public Map<String, Object> getTopologySnapshotStats() {
+        TopologySnapshot snapshot = topologySnapshots.get();
+        ImpactIndex index = snapshot.getImpactIndex();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("version", snapshot.getVersion());
+        stats.put("etag", snapshot.getEtag());
+        stats.put("nodes", index.nodeCount());
+        stats.put("edges", index.edgeCount());
+        stats.put("cables", index.cableIds().length);
+        return stats;
+    }
+
+    @GetMapping("/stream")
+    public Map<String, Object> getStreamStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", broadcaster.getSubscriberCount());
+        stats.put("eventsPublished", broadcaster.getPublishedCount());
+        stats.put("slowSubscribersDropped", broadcaster.getDroppedSubscriberCount());
+        return stats;
+    }
+
+    @GetMapping("/alerts")
+    public Map<String, Object> getAlertDedupStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("created", alertDedup.getCreatedCount());
+        stats.put("deduplicated", alertDedup.getDedupedCount());
+        stats.put("openEpisodes", alertDedup.getOpenEpisodeCount());
+        stats.put("resolvedEpisodes", alertDedup.getResolvedCount());
+        return stats;
+    }
+
+    @GetMapping("/audit")
+    public Map<String, Object> getHealthAuditStats() {
+        return healthAudit.getStats();
+    }
+
+    @GetMapping("/storage")
+    public Map<String, Object> getTelemetryStorageStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("partitionInterval", partitionService.getInterval());
+        stats.put("rawRetention", partitionService.getRawRetention().toString());
+        stats.put("partitions", partitionService.getPartitions());
+        stats.put("rollups", rollupService.getStats());
+        return stats;
+    }
+
+    @GetMapping("/reports")
+    public Map<String, Object> getReportStats() {
+        return geminiService.getStats();
+    }
+
+    @GetMapping("/threads")
+    public Map<String, Object> getVirtualThreadStats() {
+        return pinningMonitor.getStats();
+    }
+
+    @GetMapping("/anomalies")
+    public Map<String, Object> getAnomalyStats() {
+        return anomalyDetector.getStats();
+    }
+
+    @GetMapping("/rul")
+    public Map<String, Object> getRulEstimatorStats() {
+        return rulEstimator.getStats();
+    }
+
+    @GetMapping("/ingest")
+    public Map<String, Object> getIngestStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("producerBufferUsage", telemetryProducer.getBufferUsage());
+        stats.put("saturated", telemetryProducer.isSaturated());
+        return stats;
+    }
+
+    @GetMapping("/consumer")
+    public Map<String, Object> getConsumerStats() {
+        return consumerLagMonitor.getStats();
+    }
+}
@@ -1,17 +1,15 @@
 package com.belden.topology.controller;
 
-import com.belden.topology.model.CableLifecycleReport;
-import com.belden.topology.model.CableTelemetry;
-import com.belden.topology.model.CarbonMetrics;
-import com.belden.topology.repository.CableTelemetryRepository;
-import com.belden.topology.service.GeminiService;
-import com.belden.topology.service.SustainabilityService;
+import com.belden.topology.cache.LifecycleAggregateStore;
+import com.belden.topology.model.ReportJob;
+import com.belden.topology.service.ReportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/report")
@@ -19,59 +17,33 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class ReportController {
 
-    private final CableTelemetryRepository telemetryRepository;
-    private final GeminiService geminiService;
-    private final SustainabilityService sustainabilityService;
+    private final LifecycleAggregateStore aggregateStore;
+    private final ReportService reportService;
 
+    // Served asynchronously: the Tomcat thread is released while Gemini works
     @GetMapping("/{cableId}")
-    public Map<String, String> getAiPoweredReport(@PathVariable Long cableId) {
-
-        List<CableTelemetry> history = telemetryRepository.findByCableIdOrderByTimestampAsc(cableId);
-
-        if (history.isEmpty()) {
-            return Map.of("aiExecutiveSummary", "No data found for Cable ID: " + cableId);
-        }
-
-        CableTelemetry firstRecord = history.get(0);
-        CableTelemetry lastRecord = history.get(history.size() - 1);
-
-        // Since the first record is Day 0, we subtract 1 from the size and multiply by the 5-day step.
-        int finalDay = history.size() * 6;
-
-        Map<String, CableTelemetry> milestones = new LinkedHashMap<>();
-        for (int i = 0; i < history.size(); i++) {
-            int virtualDay = (i + 1) * 6;
-
-            if (i > 0 && (i + 1) % 10 == 0) {
-                milestones.put("Day " + virtualDay, history.get(i));
-            }
-        }
-
-        milestones.put("Final Status (Day " + finalDay + ")", lastRecord);
-
-        double finalSnr = lastRecord.getSnr();
-        double finalMse = lastRecord.getMse();
-        double avgTemp = history.stream().mapToDouble(CableTelemetry::getTemperature).average().orElse(0.0);
-        double avgAttn = history.stream().mapToDouble(CableTelemetry::getAttenuation).average().orElse(0.0);
-
-        CarbonMetrics exactMetrics = sustainabilityService.calculateMetrics(cableId, lastRecord.getHealth());
-        double exactAvoidedCarbon = Math.round(exactMetrics.getAvoidedCarbonKg() * 100.0) / 100.0;
+    public CompletableFuture<Map<String, String>> getAiPoweredReport(@PathVariable Long cableId) {
+        return reportService.summarize(cableId)
+                .thenApply(aiSummary -> Map.of("aiExecutiveSummary", aiSummary));
+    }
 
-        CableLifecycleReport rawReport = CableLifecycleReport.builder()
-                .cableId(cableId)
-                .startingHealth(firstRecord.getHealth())
-                .finalHealth(lastRecord.getHealth())
-                .averageOperatingTemp(avgTemp)
-                .averageAttenuation(avgAttn)
-                .finalSnr(finalSnr)
-                .finalMse(finalMse)
-                .avoidedCarbonKg(exactAvoidedCarbon)
-                .historicalTimeline(null)
-                .degradationMilestones(milestones)
-                .build();
+    // Submit-then-poll flow used by the dashboard
+    @PostMapping("/{cableId}/jobs")
+    public ResponseEntity<ReportJob> submitReportJob(@PathVariable Long cableId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportService.submit(cableId));
+    }
 
-        String aiSummary = geminiService.generateExecutiveSummary(rawReport);
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ReportJob> getReportJob(@PathVariable String jobId) {
+        return reportService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 
-        return Map.of("aiExecutiveSummary", aiSummary);
+    // Recomputes every cable's lifecycle aggregate from Postgres: the last checkpoint plus the newer raw rows
+    @PostMapping("/aggregates/rebuild")
+    public Map<String, Object> rebuildAggregates() {
+        int cables = aggregateStore.rebuild();
+        return Map.of("status", "REBUILT", "cables", cables);
     }
-}
\ No newline at end of file
+}
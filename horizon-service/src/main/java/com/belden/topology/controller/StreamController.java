@@ -0,0 +1,26 @@
+package com.belden.topology.controller;
+
+import com.belden.topology.service.LiveUpdateBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/stream")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class StreamController {
+
+    private final LiveUpdateBroadcaster broadcaster;
+
+    // Server-Sent Events: "telemetry" for every persisted record, "alert" for every new alert.
+    // Pass ?cableId= to only receive one cable's events and ?events=alert,telemetry to pick event types.
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) Long cableId,
+                             @RequestParam(required = false) Set<String> events) {
+        return broadcaster.subscribe(cableId, events);
+    }
+}
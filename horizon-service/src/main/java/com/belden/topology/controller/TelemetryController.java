@@ -2,22 +2,84 @@ package com.belden.topology.controller;
 
 import com.belden.topology.kafka.TelemetryProducer;
 import com.belden.topology.model.CableTelemetry;
+import com.belden.topology.model.IngestAck;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/telemetry")
 public class TelemetryController {
 
     private final TelemetryProducer producer;
+    private final ObjectReader telemetryReader;
+    private final int maxBatchRecords;
 
-    public TelemetryController(TelemetryProducer producer) {
+    public TelemetryController(TelemetryProducer producer,
+                               ObjectMapper objectMapper,
+                               @Value("${horizon.ingest.max-batch-records}") int maxBatchRecords) {
         this.producer = producer;
+        this.telemetryReader = objectMapper.readerFor(CableTelemetry.class);
+        this.maxBatchRecords = maxBatchRecords;
     }
 
+    // Answers once the broker has acked the reading
     @PostMapping
-    public String sendTelemetry(@RequestBody CableTelemetry telemetry) {
-        System.out.println("Controller hit");
-        producer.sendTelemetry(telemetry);
-        return "Telemetry sent to Kafka successfully";
+    public CompletableFuture<ResponseEntity<String>> sendTelemetry(@RequestBody CableTelemetry telemetry) {
+        if (producer.isSaturated()) {
+            return CompletableFuture.completedFuture(tooManyRequests("Ingest buffer full, retry shortly"));
+        }
+        return producer.sendTelemetry(telemetry).thenApply(ack -> ack.getFailed() == 0
+                ? ResponseEntity.ok("Telemetry sent to Kafka successfully")
+                : ResponseEntity.status(HttpStatus.BAD_GATEWAY).body("Kafka rejected the reading: " + ack.getFirstError()));
+    }
+
+    // Bulk ingest: a JSON array or NDJSON (one reading per line) of readings, acked as one batch.
+    // 200 when every reading was acked, 502 with the counts if any failed, 429 while the producer is backed up.
+    // Malformed input is 400 and nothing is sent; received is the number of readings parsed before the bad one.
+    @PostMapping(value = "/bulk", consumes = {"application/json", "application/x-ndjson"})
+    public CompletableFuture<ResponseEntity<IngestAck>> sendBulk(InputStream body) throws IOException {
+        if (producer.isSaturated()) {
+            return CompletableFuture.completedFuture(tooManyRequests(null));
+        }
+
+        // A root-level array is unwrapped and whitespace-separated values are read one by one,
+        // so the same reader handles both formats
+        List<CableTelemetry> readings = new ArrayList<>();
+        try (MappingIterator<CableTelemetry> it = telemetryReader.readValues(body)) {
+            while (it.hasNextValue()) {
+                if (readings.size() == maxBatchRecords) {
+                    return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build());
+                }
+                readings.add(it.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(IngestAck.builder()
+                    .received(readings.size())
+                    .firstError("Malformed reading #" + (readings.size() + 1) + ": " + e.getOriginalMessage())
+                    .build()));
+        }
+        if (readings.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+
+        return producer.sendAll(readings).thenApply(ack -> ResponseEntity
+                .status(ack.getFailed() == 0 ? HttpStatus.OK : HttpStatus.BAD_GATEWAY)
+                .body(ack));
+    }
+
+    private static <T> ResponseEntity<T> tooManyRequests(T body) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "1").body(body);
     }
 }
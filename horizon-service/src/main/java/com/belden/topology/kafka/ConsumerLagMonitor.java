@@ -0,0 +1,77 @@
+package com.belden.topology.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumer lag of every telemetry listener, read from the Kafka client's own fetch metrics
+ * (records-lag per assigned partition), plus the key-ordered worker queues behind the batch listener
+ * how many readings arrived late against their cable's event-time watermark, and the end-to-end
+ * latency from a reading's device timestamp to its committed row (Micrometer's rolling window).
+ */
+@Component
+@RequiredArgsConstructor
+public class ConsumerLagMonitor {
+
+    private static final String FETCH_METRICS = "consumer-fetch-manager-metrics";
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final KeyOrderedExecutor telemetryWorkers;
+    private final EventTimeWatermarks watermarks;
+    private final MeterRegistry meterRegistry;
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> listeners = new LinkedHashMap<>();
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            // Partition -> lag; a partition shows up once the consumer has fetched from it
+            Map<String, Long> lag = new TreeMap<>();
+            for (Map<MetricName, ? extends Metric> clientMetrics : container.metrics().values()) {
+                clientMetrics.forEach((name, metric) -> {
+                    if (!FETCH_METRICS.equals(name.group()) || !"records-lag".equals(name.name())) return;
+                    if (!(metric.metricValue() instanceof Double value) || value.isNaN()) return;
+                    lag.put(name.tags().get("topic") + "-" + name.tags().get("partition"), value.longValue());
+                });
+            }
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("running", container.isRunning());
+            stats.put("totalLag", lag.values().stream().mapToLong(Long::longValue).sum());
+            stats.put("partitionLag", lag);
+            listeners.put(container.getListenerId(), stats);
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("listeners", listeners);
+        stats.put("workers", telemetryWorkers.getStats());
+        stats.put("eventTime", watermarks.getStats());
+        stats.put("endToEnd", endToEndStats());
+        return stats;
+    }
+
+    private Map<String, Object> endToEndStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Timer timer = meterRegistry.find(TelemetryConsumer.END_TO_END_TIMER).timer();
+        if (timer == null) return stats;
+
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        stats.put("count", snapshot.count());
+        for (ValueAtPercentile p : snapshot.percentileValues()) {
+            stats.put("p" + Math.round(p.percentile() * 100) + "Ms", p.value(TimeUnit.MILLISECONDS));
+        }
+        stats.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+        return stats;
+    }
+}
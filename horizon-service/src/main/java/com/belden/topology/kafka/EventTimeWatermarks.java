@@ -0,0 +1,143 @@
+package com.belden.topology.kafka;
+
+import com.belden.topology.model.CableTelemetry;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-cable event-time watermark for the consumer: the newest device timestamp processed so far.
+ * A reading at or after its cable's watermark is on time and advances it. One behind it by at most
+ * allowed-lateness is late but still feeds the live state (the RUL fit does not care about order).
+ * Anything older only goes to history, so a replayed backlog can't drag a cable's trend back in time.
+ * Readings without a timestamp, or stamped too far in the future, get the arrival time instead.
+ */
+@Component
+public class EventTimeWatermarks {
+
+    public enum Lateness { ON_TIME, LATE, TOO_LATE }
+
+    private final Duration allowedLateness;
+    private final Duration maxFutureSkew;
+
+    private final Long2ObjectOpenHashMap<Watermark> watermarks = new Long2ObjectOpenHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongAdder onTime = new LongAdder();
+    private final LongAdder late = new LongAdder();
+    private final LongAdder tooLate = new LongAdder();
+    private final LongAdder stamped = new LongAdder();
+    private final LongAdder clamped = new LongAdder();
+
+    public EventTimeWatermarks(@Value("${horizon.telemetry.event-time.allowed-lateness}") Duration allowedLateness,
+                               @Value("${horizon.telemetry.event-time.max-future-skew}") Duration maxFutureSkew) {
+        this.allowedLateness = allowedLateness;
+        this.maxFutureSkew = maxFutureSkew;
+    }
+
+    // Device timestamps are kept; a missing one becomes the arrival time, one from the far future too
+    public void normalize(CableTelemetry telemetry, LocalDateTime now) {
+        LocalDateTime timestamp = telemetry.getTimestamp();
+        if (timestamp == null) {
+            telemetry.setTimestamp(now);
+            stamped.increment();
+        } else if (timestamp.isAfter(now.plus(maxFutureSkew))) {
+            // A device clock far ahead would push the watermark past every honest reading after it
+            telemetry.setTimestamp(now);
+            clamped.increment();
+        }
+    }
+
+    // Classifies the (normalized) reading against its cable's watermark and advances the watermark.
+    // `previous` is the cable's last persisted reading; it seeds the watermark after a restart.
+    public Lateness admit(CableTelemetry telemetry, CableTelemetry previous) {
+        Watermark watermark = watermarkFor(telemetry.getCableId());
+        LocalDateTime timestamp = telemetry.getTimestamp();
+        synchronized (watermark) {
+            if (watermark.at == null && previous != null) watermark.at = previous.getTimestamp();
+            if (watermark.at == null || !timestamp.isBefore(watermark.at)) {
+                watermark.at = timestamp;
+                onTime.increment();
+                return Lateness.ON_TIME;
+            }
+            if (!timestamp.isBefore(watermark.at.minus(allowedLateness))) {
+                late.increment();
+                return Lateness.LATE;
+            }
+            tooLate.increment();
+            return Lateness.TOO_LATE;
+        }
+    }
+
+    // Remembers these cables' watermarks; running the returned action moves them back, for readings that were rolled back
+    public Runnable checkpoint(Collection<Long> cableIds) {
+        Map<Watermark, LocalDateTime> saved = new HashMap<>();
+        for (Long cableId : cableIds) {
+            Watermark watermark = watermarkFor(cableId);
+            synchronized (watermark) {
+                saved.put(watermark, watermark.at);
+            }
+        }
+        return () -> saved.forEach((watermark, at) -> {
+            synchronized (watermark) {
+                watermark.at = at;
+            }
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        int cables;
+        lock.readLock().lock();
+        try {
+            cables = watermarks.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("allowedLateness", allowedLateness.toString());
+        stats.put("cablesTracked", cables);
+        stats.put("onTime", onTime.sum());
+        stats.put("late", late.sum());
+        stats.put("tooLateHistoryOnly", tooLate.sum());
+        stats.put("stampedOnArrival", stamped.sum());
+        stats.put("futureClamped", clamped.sum());
+        return stats;
+    }
+
+    private Watermark watermarkFor(Long cableId) {
+        long key = cableId;
+        lock.readLock().lock();
+        try {
+            Watermark existing = watermarks.get(key);
+            if (existing != null) return existing;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            Watermark watermark = watermarks.get(key);
+            if (watermark == null) {
+                watermark = new Watermark();
+                watermarks.put(key, watermark);
+            }
+            return watermark;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static final class Watermark {
+        private LocalDateTime at;
+    }
+}
@@ -0,0 +1,115 @@
+package com.belden.topology.kafka;
+
+import it.unimi.dsi.fastutil.HashCommon;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Fixed set of single-threaded workers, each draining its own bounded queue in FIFO order.
+ * A key always maps to the same worker, so work for one key runs strictly in submission order
+ * while different keys spread over all workers. Submitting to a full queue blocks the caller,
+ * which is how a fast Kafka listener is slowed down to the pace of its workers.
+ */
+public final class KeyOrderedExecutor implements AutoCloseable {
+
+    private final Worker[] workers;
+    private final int queueCapacity;
+
+    public KeyOrderedExecutor(String threadNamePrefix, int workerCount, int queueCapacity) {
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.workers = new Worker[Math.max(0, workerCount)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(threadNamePrefix + i, this.queueCapacity);
+        }
+    }
+
+    // 0 means disabled: callers do the work on their own thread
+    public int size() {
+        return workers.length;
+    }
+
+    public int workerFor(long key) {
+        // Mix first: cable ids are small sequential numbers and would otherwise stripe unevenly
+        return (int) Math.floorMod(HashCommon.mix(key), (long) workers.length);
+    }
+
+    // Splits items into one list per worker, keeping their relative order inside each list
+    public <T> List<List<T>> partition(List<T> items, ToLongFunction<T> keyOf) {
+        List<List<T>> groups = new ArrayList<>(workers.length);
+        for (int i = 0; i < workers.length; i++) groups.add(new ArrayList<>());
+        for (T item : items) groups.get(workerFor(keyOf.applyAsLong(item))).add(item);
+        return groups;
+    }
+
+    public CompletableFuture<Void> submit(int worker, Runnable task) {
+        if (workers.length == 0) throw new IllegalStateException("No workers configured");
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        try {
+            workers[worker].queue.put(() -> {
+                try {
+                    task.run();
+                    done.complete(null);
+                } catch (Throwable ex) {
+                    done.completeExceptionally(ex);
+                }
+            });
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            done.completeExceptionally(ex);
+        }
+        return done;
+    }
+
+    public Map<String, Object> getStats() {
+        List<Integer> queueDepths = new ArrayList<>(workers.length);
+        List<Long> completed = new ArrayList<>(workers.length);
+        for (Worker worker : workers) {
+            queueDepths.add(worker.queue.size());
+            completed.add(worker.completed.get());
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", workers.length);
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("queueDepths", queueDepths);
+        stats.put("tasksCompleted", completed);
+        return stats;
+    }
+
+    // Listener containers stop before this runs at shutdown, so the queues are already drained
+    @Override
+    public void close() {
+        for (Worker worker : workers) worker.thread.interrupt();
+    }
+
+    private static final class Worker implements Runnable {
+
+        private final BlockingQueue<Runnable> queue;
+        private final AtomicLong completed = new AtomicLong();
+        private final Thread thread;
+
+        Worker(String name, int queueCapacity) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = Thread.ofPlatform().name(name).daemon().start(this);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    queue.take().run();
+                    completed.incrementAndGet();
+                }
+            } catch (InterruptedException ex) {
+                // Shutting down
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.belden.topology.kafka;
+
+import com.belden.topology.model.CableTelemetry;
+import org.apache.kafka.common.serialization.Serializer;
+
+// Value serializer for horizon.telemetry.wire-format=binary, see TelemetryWireFormat
+public class TelemetryBinarySerializer implements Serializer<CableTelemetry> {
+
+    @Override
+    public byte[] serialize(String topic, CableTelemetry telemetry) {
+        return telemetry == null ? null : TelemetryWireFormat.encode(telemetry);
+    }
+}
@@ -1,36 +1,246 @@
 package com.belden.topology.kafka;
 
+import com.belden.topology.cache.LatestTelemetryCache;
+import com.belden.topology.kafka.EventTimeWatermarks.Lateness;
 import com.belden.topology.model.CableTelemetry;
-import com.belden.topology.repository.CableTelemetryRepository;
+import com.belden.topology.model.TelemetryAnomaly;
+import com.belden.topology.repository.TelemetryOffsetRepository;
+import com.belden.topology.repository.TelemetryOffsetRepository.Key;
 import com.belden.topology.service.AlertService;
+import com.belden.topology.service.RulEstimator;
 import com.belden.topology.service.RulService;
-import lombok.AllArgsConstructor;
+import com.belden.topology.service.TelemetryAnomalyDetector;
+import com.belden.topology.service.TelemetryPersistenceService;
+import com.belden.topology.service.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @Service
-@AllArgsConstructor
 public class TelemetryConsumer {
 
+    static final String END_TO_END_TIMER = "horizon.telemetry.end_to_end";
+
     private final RulService rulService;
-    private final CableTelemetryRepository repository;
+    private final RulEstimator rulEstimator;
+    private final LatestTelemetryCache latestCache;
+    private final TelemetryPersistenceService persistenceService;
     private final AlertService alertService;
+    private final TelemetryAnomalyDetector anomalyDetector;
+    private final KeyOrderedExecutor workers;
+    private final EventTimeWatermarks watermarks;
+    private final TelemetryOffsetRepository offsetRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Listener entry to committed write, per call (one reading, or one whole poll in batch mode)
+    private final Timer singleTimer;
+    private final Timer batchTimer;
+    private final Counter singleRecords;
+    private final Counter batchRecords;
+    private final Counter redelivered;
+
+    // Device timestamp to committed row, per reading that is not too late
+    private final Timer endToEnd;
 
-    @KafkaListener(topics = "cable-telemetry", groupId = "rul-group-2")
+    public TelemetryConsumer(RulService rulService,
+                             RulEstimator rulEstimator,
+                             LatestTelemetryCache latestCache,
+                             TelemetryPersistenceService persistenceService,
+                             AlertService alertService,
+                             TelemetryAnomalyDetector anomalyDetector,
+                             KeyOrderedExecutor telemetryWorkers,
+                             EventTimeWatermarks watermarks,
+                             TelemetryOffsetRepository offsetRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.rulService = rulService;
+        this.rulEstimator = rulEstimator;
+        this.latestCache = latestCache;
+        this.persistenceService = persistenceService;
+        this.alertService = alertService;
+        this.anomalyDetector = anomalyDetector;
+        this.workers = telemetryWorkers;
+        this.watermarks = watermarks;
+        this.offsetRepository = offsetRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.singleTimer = consumeTimer(meterRegistry, "single");
+        this.batchTimer = consumeTimer(meterRegistry, "batch");
+        this.singleRecords = recordCounter(meterRegistry, "single");
+        this.batchRecords = recordCounter(meterRegistry, "batch");
+        this.redelivered = Counter.builder("horizon.telemetry.redelivered")
+                .description("Readings of a redelivered poll skipped because their worker share had already committed them")
+                .register(meterRegistry);
+        this.endToEnd = Timer.builder(END_TO_END_TIMER)
+                .description("Event timestamp to committed row, readings within the watermark only")
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(meterRegistry);
+    }
+
+    // Single-record mode (default). Disabled when horizon.telemetry.batch.enabled=true.
+    // Each listener thread owns whole partitions and producers key by cableId, so any
+    // concurrency up to the partition count keeps every cable's readings in order.
+    @KafkaListener(id = "telemetry-single", idIsGroup = false, topics = TelemetryProducer.TOPIC, groupId = "rul-group-2",
+            concurrency = "${horizon.telemetry.concurrency}",
+            autoStartup = "#{!${horizon.telemetry.batch.enabled}}")
     public void consume(CableTelemetry telemetry) {
+        long start = System.nanoTime();
+        log.debug(">>> [KAFKA] Received Telemetry for Cable-{}", telemetry.getCableId());
 
-        System.out.println(">>> [KAFKA] Received Telemetry for Cable-" + telemetry.getCableId());
+        // 1. Fetch the previous state, it seeds the RUL trend and the watermark after a restart
+        CableTelemetry lastRecord = latestCache.get(telemetry.getCableId()).orElse(null);
 
-        // 1. Fetch the previous state to calculate the drop
-        var lastRecord = repository.findTopByCableIdOrderByTimestampDesc(telemetry.getCableId());
-        double prevHealth = lastRecord.map(CableTelemetry::getHealth).orElse(100.0);
+        // 2. Event time: keep the device timestamp and check it against the cable's watermark
+        LocalDateTime now = LocalDateTime.now();
+        watermarks.normalize(telemetry, now);
+        Lateness lateness = watermarks.admit(telemetry, lastRecord);
 
-        // 2. Demo Polish: If Postman didn't send SNR or MSE, set them to healthy defaults
-        // so the math doesn't crash to 0 immediately.
-        if (telemetry.getSnr() == 0.0) telemetry.setSnr(30.0);
-        if (telemetry.getMse() == 0.0) telemetry.setMse(0.01);
+        // 3-5. Score the reading and save it to DB
+        score(telemetry, lastRecord, lateness, now);
+        persistenceService.save(telemetry);
+        if (lateness != Lateness.TOO_LATE) recordEndToEnd(List.of(telemetry));
+
+        // 6. Compare against the cable's own recent behaviour (history-only readings are out of date for that)
+        if (lateness != Lateness.TOO_LATE) checkForAnomaly(telemetry);
+
+        singleTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        singleRecords.increment();
+        log.debug("<<< [KAFKA SAVED] Health: {}% | RUL: {} Days",
+                Math.round(telemetry.getHealth()), Math.round(telemetry.getRulInDays()));
+    }
+
+    // Batch mode: one call per poll, one cache lookup for all cables in it and multi-row INSERTs.
+    // Producers key by cableId, so each cable's readings arrive on one partition in offset order;
+    // the poll is then re-sorted by event time, which also repairs devices that sent out of order.
+    // With telemetry workers configured the poll is split by cableId, each worker handles its share
+    // in its own transaction, and the listener waits for all of them before the offsets are committed.
+    // A failed share fails the poll, which is redelivered; each share stores the highest offset it wrote
+    // per (partition, cable) with its rows, so on redelivery the shares that had committed skip them.
+    @KafkaListener(id = "telemetry-batch", idIsGroup = false, topics = TelemetryProducer.TOPIC, groupId = "rul-group-2",
+            containerFactory = "telemetryBatchFactory",
+            autoStartup = "${horizon.telemetry.batch.enabled}")
+    public void consumeBatch(List<CableTelemetry> batch,
+                             @Header(KafkaHeaders.RECEIVED_PARTITION) List<Integer> partitions,
+                             @Header(KafkaHeaders.OFFSET) List<Long> offsets) {
+        if (batch.isEmpty()) return;
+        long start = System.nanoTime();
+
+        if (workers.size() == 0) {
+            transactionTemplate.executeWithoutResult(status -> processBatch(batch));
+        } else {
+            List<Delivery> deliveries = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                deliveries.add(new Delivery(batch.get(i), partitions.get(i), offsets.get(i)));
+            }
+            processOnWorkers(deliveries);
+        }
+
+        batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchRecords.increment(batch.size());
+    }
+
+    private void processOnWorkers(List<Delivery> batch) {
+        List<List<Delivery>> shares = workers.partition(batch, d -> d.telemetry().getCableId());
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (int worker = 0; worker < shares.size(); worker++) {
+            List<Delivery> share = shares.get(worker);
+            if (share.isEmpty()) continue;
+            pending.add(workers.submit(worker, () -> transactionTemplate.executeWithoutResult(status -> processShare(share))));
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+    }
+
+    // Skips readings this share already committed before a redelivery, then stores the rest with their offsets
+    private void processShare(List<Delivery> share) {
+        Set<Long> cableIds = new LinkedHashSet<>();
+        share.forEach(d -> cableIds.add(d.telemetry().getCableId()));
+        Map<Key, Long> written = offsetRepository.findLastOffsets(cableIds);
+
+        List<CableTelemetry> fresh = new ArrayList<>(share.size());
+        Map<Key, Long> highest = new HashMap<>();
+        for (Delivery delivery : share) {
+            Key key = new Key(delivery.partition(), delivery.telemetry().getCableId());
+            Long last = written.get(key);
+            if (last != null && delivery.offset() <= last) {
+                redelivered.increment();
+                continue;
+            }
+            fresh.add(delivery.telemetry());
+            highest.merge(key, delivery.offset(), Math::max);
+        }
+        if (fresh.isEmpty()) return;
+
+        offsetRepository.saveLastOffsets(highest);
+        processBatch(fresh);
+    }
+
+    private void processBatch(List<CableTelemetry> batch) {
+        // 1. Fetch the previous state of every cable in this poll at once
+        Set<Long> cableIds = new LinkedHashSet<>();
+        batch.forEach(t -> cableIds.add(t.getCableId()));
+        Map<Long, CableTelemetry> previous = latestCache.getAll(cableIds);
+
+        // The watermarks, trends and anomaly statistics move ahead of the INSERT; if the rows don't
+        // commit they are put back, so the redelivered poll meets them as they were
+        TransactionHooks.afterRollback(watermarks.checkpoint(cableIds));
+        TransactionHooks.afterRollback(rulEstimator.checkpoint(cableIds));
+        TransactionHooks.afterRollback(anomalyDetector.checkpoint(cableIds));
+
+        // 2. Event time: the poll is the reorder buffer. A stable sort by device timestamp puts each
+        // cable's readings in event order (ties keep offset order), then each one meets its watermark.
+        LocalDateTime now = LocalDateTime.now();
+        batch.forEach(t -> watermarks.normalize(t, now));
+        List<CableTelemetry> ordered = new ArrayList<>(batch);
+        ordered.sort(Comparator.comparing(CableTelemetry::getTimestamp));
+
+        List<CableTelemetry> live = new ArrayList<>(ordered.size());
+        List<CableTelemetry> historyOnly = new ArrayList<>();
+        for (CableTelemetry telemetry : ordered) {
+            telemetry.setLastSeen(now);
+            Lateness lateness = watermarks.admit(telemetry, previous.get(telemetry.getCableId()));
+            (lateness == Lateness.TOO_LATE ? historyOnly : live).add(telemetry);
+        }
+
+        // 3. Score health for the whole poll column-wise
+        ordered.forEach(this::applyDefaults);
+        rulService.scoreHealth(ordered, 2);
+
+        // RUL from each cable's fitted trend; a cable seen twice in this poll adds both readings in order.
+        // Readings too old for the trend are stored with the cable's current estimate.
+        rulEstimator.estimateAll(live, previous);
+        historyOnly.forEach(t -> t.setRulInDays(rulEstimator.current(t.getCableId(), t.getHealth())));
+
+        // 4. Persist the whole poll
+        int saved = persistenceService.saveAll(ordered);
+        recordEndToEnd(live);
+
+        // 5. Anomaly check in event order, so each cable's statistics see its readings in sequence
+        live.forEach(this::checkForAnomaly);
+
+        log.debug("<<< [KAFKA BATCH SAVED] {} records for {} cables", saved, cableIds.size());
+    }
+
+    private void score(CableTelemetry telemetry, CableTelemetry previous, Lateness lateness, LocalDateTime now) {
+        applyDefaults(telemetry);
 
         // 3. Calculate Enriched Health using your MVP math
         double currentHealth = rulService.calculateHealth(
@@ -42,18 +252,54 @@ public class TelemetryConsumer {
                 2 // Default age
         );
 
-        // 4. Calculate Correct RUL (Using the same 5-day step as the Scheduler)
-        double rulDays = rulService.calculateRulDays(currentHealth, prevHealth, 5);
-
-        // 5. Update the object and Save to DB
+        // 4. Update the object; timestamp is event time, lastSeen is when we processed it
         telemetry.setHealth(currentHealth);
-        telemetry.setRulInDays(rulDays);
-        telemetry.setTimestamp(LocalDateTime.now());
-        telemetry.setLastSeen(LocalDateTime.now());
+        telemetry.setLastSeen(now);
+
+        // 5. RUL from the cable's health trend over its recent readings
+        telemetry.setRulInDays(lateness == Lateness.TOO_LATE
+                ? rulEstimator.current(telemetry.getCableId(), currentHealth)
+                : rulEstimator.estimate(telemetry, previous));
+    }
 
-        repository.save(telemetry);
+    // Measured once the rows are committed, so it covers the whole path from the device to the database
+    private void recordEndToEnd(List<CableTelemetry> readings) {
+        TransactionHooks.afterCommit(() -> {
+            LocalDateTime committed = LocalDateTime.now();
+            for (CableTelemetry reading : readings) {
+                Duration age = Duration.between(reading.getTimestamp(), committed);
+                endToEnd.record(age.isNegative() ? Duration.ZERO : age); // Device clock slightly ahead
+            }
+        });
+    }
+
+    private void checkForAnomaly(CableTelemetry telemetry) {
+        TelemetryAnomaly anomaly = anomalyDetector.observe(telemetry);
+        if (anomaly != null) alertService.raiseAnomaly(anomaly);
+        else alertService.anomalyCleared(telemetry.getCableId());
+    }
 
-        System.out.println("<<< [KAFKA SAVED] Health: " + Math.round(currentHealth) +
-                "% | RUL: " + Math.round(rulDays) + " Days");
+    private record Delivery(CableTelemetry telemetry, int partition, long offset) {
+    }
+
+    private static Timer consumeTimer(MeterRegistry registry, String mode) {
+        return Timer.builder("horizon.telemetry.consume")
+                .description("Kafka listener call to persisted reading(s)")
+                .tag("mode", mode)
+                .register(registry);
+    }
+
+    private static Counter recordCounter(MeterRegistry registry, String mode) {
+        return Counter.builder("horizon.telemetry.records")
+                .description("Readings consumed and persisted")
+                .tag("mode", mode)
+                .register(registry);
+    }
+
+    // 2. Demo Polish: If Postman didn't send SNR or MSE, set them to healthy defaults
+    // so the math doesn't crash to 0 immediately.
+    private void applyDefaults(CableTelemetry telemetry) {
+        if (telemetry.getSnr() == 0.0) telemetry.setSnr(30.0);
+        if (telemetry.getMse() == 0.0) telemetry.setMse(0.01);
     }
-}
\ No newline at end of file
+}
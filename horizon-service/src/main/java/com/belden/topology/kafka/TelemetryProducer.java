@@ -1,20 +1,117 @@
 package com.belden.topology.kafka;
 
 import com.belden.topology.model.CableTelemetry;
-import lombok.RequiredArgsConstructor;
+import com.belden.topology.model.IngestAck;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 @Service
-@RequiredArgsConstructor
 public class TelemetryProducer {
 
+    public static final String TOPIC = "cable-telemetry";
+
     private final KafkaTemplate<String, CableTelemetry> kafkaTemplate;
-    private static final String TOPIC = "cable-telemetry";
+    private final double maxBufferUsage;
+    private final Duration ackTimeout;
+
+    // Looked up once from the producer's metrics, then read on every request
+    private volatile Metric bufferAvailable;
+    private volatile Metric bufferTotal;
+
+    public TelemetryProducer(KafkaTemplate<String, CableTelemetry> kafkaTemplate,
+                             @Value("${horizon.ingest.max-buffer-usage}") double maxBufferUsage,
+                             @Value("${horizon.ingest.ack-timeout}") Duration ackTimeout) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.maxBufferUsage = maxBufferUsage;
+        this.ackTimeout = ackTimeout;
+    }
+
+    public CompletableFuture<IngestAck> sendTelemetry(CableTelemetry telemetry) {
+        return sendAll(List.of(telemetry));
+    }
+
+    // Hands every reading to the producer (which batches, compresses and retries idempotently)
+    // and completes once the broker has acked or rejected each one. Never completes exceptionally.
+    public CompletableFuture<IngestAck> sendAll(List<CableTelemetry> readings) {
+        long start = System.nanoTime();
+        AtomicInteger acked = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicReference<String> firstError = new AtomicReference<>();
+
+        LocalDateTime receivedAt = LocalDateTime.now();
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[readings.size()];
+        for (int i = 0; i < sends.length; i++) {
+            CableTelemetry telemetry = readings.get(i);
+            // Event time: the device's timestamp if it sent one, otherwise when we received it,
+            // so a backlog that waits in Kafka keeps its real spacing
+            if (telemetry.getTimestamp() == null) telemetry.setTimestamp(receivedAt);
+            CompletableFuture<?> send;
+            try {
+                // We use the cableId as the key so all messages for one cable stay in order
+                send = kafkaTemplate.send(TOPIC, String.valueOf(telemetry.getCableId()), telemetry);
+            } catch (RuntimeException e) {
+                send = CompletableFuture.failedFuture(e); // e.g. buffer full for longer than max.block.ms
+            }
+            sends[i] = send.orTimeout(ackTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .whenComplete((result, error) -> {
+                        if (error == null) {
+                            acked.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                            firstError.compareAndSet(null, rootMessage(error));
+                        }
+                    });
+        }
+
+        return CompletableFuture.allOf(sends)
+                .handle((ignored, error) -> IngestAck.builder()
+                        .received(readings.size())
+                        .acked(acked.get())
+                        .failed(failed.get())
+                        .firstError(firstError.get())
+                        .elapsedMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                        .build());
+    }
+
+    // Share of the producer's buffer.memory holding records not yet sent to the broker
+    public double getBufferUsage() {
+        if (bufferAvailable == null || bufferTotal == null) lookUpBufferMetrics();
+        if (bufferAvailable == null || bufferTotal == null) return 0.0; // No producer yet, nothing buffered
+
+        double total = ((Number) bufferTotal.metricValue()).doubleValue();
+        double available = ((Number) bufferAvailable.metricValue()).doubleValue();
+        return total <= 0 ? 0.0 : 1.0 - available / total;
+    }
+
+    // True when ingest should push back instead of queueing more
+    public boolean isSaturated() {
+        return getBufferUsage() >= maxBufferUsage;
+    }
+
+    private void lookUpBufferMetrics() {
+        for (Map.Entry<MetricName, ? extends Metric> entry : kafkaTemplate.metrics().entrySet()) {
+            MetricName name = entry.getKey();
+            if (!"producer-metrics".equals(name.group())) continue;
+            if ("buffer-available-bytes".equals(name.name())) bufferAvailable = entry.getValue();
+            if ("buffer-total-bytes".equals(name.name())) bufferTotal = entry.getValue();
+        }
+    }
 
-    public void sendTelemetry(CableTelemetry telemetry) {
-        // We use the cableId as the key so all messages for one cable stay in order
-        kafkaTemplate.send(TOPIC, String.valueOf(telemetry.getCableId()), telemetry);
-        System.out.println("Sent telemetry for Cable ID: " + telemetry.getCableId());
+    private static String rootMessage(Throwable error) {
+        Throwable root = error;
+        while (root.getCause() != null) root = root.getCause();
+        return root.getClass().getSimpleName() + ": " + root.getMessage();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package com.belden.topology.kafka;
+
+import com.belden.topology.model.CableTelemetry;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Value deserializer for the cable-telemetry topic that reads both wire formats: binary records
+ * (first byte is the TelemetryWireFormat magic) are decoded directly, anything else goes to the
+ * JsonDeserializer configured from the usual spring.json.* properties. Switching the producers'
+ * format therefore needs no consumer change and no topic migration.
+ */
+public class TelemetryWireDeserializer implements Deserializer<CableTelemetry> {
+
+    private final JsonDeserializer<CableTelemetry> json = new JsonDeserializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public CableTelemetry deserialize(String topic, byte[] data) {
+        if (data == null) return null;
+        return TelemetryWireFormat.isBinary(data) ? TelemetryWireFormat.decode(data) : json.deserialize(topic, data);
+    }
+
+    @Override
+    public CableTelemetry deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) return null;
+        return TelemetryWireFormat.isBinary(data) ? TelemetryWireFormat.decode(data) : json.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
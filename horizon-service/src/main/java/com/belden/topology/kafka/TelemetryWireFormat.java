@@ -0,0 +1,142 @@
+package com.belden.topology.kafka;
+
+import com.belden.topology.model.CableTelemetry;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Compact binary encoding of one CableTelemetry for the cable-telemetry topic.
+ *
+ * <pre>
+ * byte    magic   0xB7 (never the first byte of JSON, so both formats can share the topic)
+ * byte    version 1
+ * byte    flags   bit 0 cableId, bit 1 id, bit 2 timestamp, bit 3 lastSeen present
+ * varint  cableId                                     (if flagged, zigzag)
+ * varint  id                                          (if flagged, zigzag)
+ * double  attenuation, temperature, load, snr, mse, health, rulInDays
+ * long    timestamp, lastSeen as UTC epoch nanos      (if flagged)
+ * </pre>
+ *
+ * A producer-side reading (no id, no timestamps, small cableId) is 60 bytes; doubles are kept
+ * at full width so values round-trip bit for bit.
+ */
+public final class TelemetryWireFormat {
+
+    static final byte MAGIC = (byte) 0xB7;
+    static final byte VERSION = 1;
+
+    private static final int HAS_CABLE_ID = 1;
+    private static final int HAS_ID = 1 << 1;
+    private static final int HAS_TIMESTAMP = 1 << 2;
+    private static final int HAS_LAST_SEEN = 1 << 3;
+
+    private static final int DOUBLES = 7;
+
+    private TelemetryWireFormat() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(CableTelemetry t) {
+        int flags = (t.getCableId() != null ? HAS_CABLE_ID : 0)
+                | (t.getId() != null ? HAS_ID : 0)
+                | (t.getTimestamp() != null ? HAS_TIMESTAMP : 0)
+                | (t.getLastSeen() != null ? HAS_LAST_SEEN : 0);
+
+        int size = 3 + DOUBLES * Double.BYTES;
+        if (t.getCableId() != null) size += varintSize(zigzag(t.getCableId()));
+        if (t.getId() != null) size += varintSize(zigzag(t.getId()));
+        if (t.getTimestamp() != null) size += Long.BYTES;
+        if (t.getLastSeen() != null) size += Long.BYTES;
+
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.put(MAGIC).put(VERSION).put((byte) flags);
+        if (t.getCableId() != null) putVarint(out, zigzag(t.getCableId()));
+        if (t.getId() != null) putVarint(out, zigzag(t.getId()));
+        out.putDouble(t.getAttenuation())
+                .putDouble(t.getTemperature())
+                .putDouble(t.getLoad())
+                .putDouble(t.getSnr())
+                .putDouble(t.getMse())
+                .putDouble(t.getHealth())
+                .putDouble(t.getRulInDays());
+        if (t.getTimestamp() != null) out.putLong(epochNanos(t.getTimestamp()));
+        if (t.getLastSeen() != null) out.putLong(epochNanos(t.getLastSeen()));
+        return out.array();
+    }
+
+    public static CableTelemetry decode(byte[] data) {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        try {
+            if (in.get() != MAGIC) throw new IllegalArgumentException("Not a binary telemetry record");
+            byte version = in.get();
+            if (version != VERSION) throw new IllegalArgumentException("Unsupported telemetry wire version " + version);
+            int flags = in.get();
+
+            CableTelemetry t = new CableTelemetry();
+            if ((flags & HAS_CABLE_ID) != 0) t.setCableId(unzigzag(getVarint(in)));
+            if ((flags & HAS_ID) != 0) t.setId(unzigzag(getVarint(in)));
+            t.setAttenuation(in.getDouble());
+            t.setTemperature(in.getDouble());
+            t.setLoad(in.getDouble());
+            t.setSnr(in.getDouble());
+            t.setMse(in.getDouble());
+            t.setHealth(in.getDouble());
+            t.setRulInDays(in.getDouble());
+            if ((flags & HAS_TIMESTAMP) != 0) t.setTimestamp(fromEpochNanos(in.getLong()));
+            if ((flags & HAS_LAST_SEEN) != 0) t.setLastSeen(fromEpochNanos(in.getLong()));
+            return t;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated binary telemetry record", e);
+        }
+    }
+
+    private static long epochNanos(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    private static LocalDateTime fromEpochNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static void putVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static long getVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IllegalArgumentException("Malformed varint in telemetry record");
+    }
+}
@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "alerts")
+@Table(name = "alerts", uniqueConstraints = @UniqueConstraint(
+        name = "uk_alerts_episode", columnNames = {"cableId", "severity", "episode"}))
 public class Alert {
 
     @Id
@@ -33,4 +34,7 @@ public class Alert {
 
     @Column(nullable = false)
     private boolean isRead = false;
+
+    // Degradation episode this alert belongs to (its open time in epoch millis), see AlertDedupService
+    private Long episode;
 }
\ No newline at end of file
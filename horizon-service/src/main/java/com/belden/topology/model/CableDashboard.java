@@ -0,0 +1,23 @@
+package com.belden.topology.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+// Every dashboard panel for one cable, built from the same latest reading and topology snapshot.
+@Data
+@Builder
+public class CableDashboard {
+    private Long cableId;
+    private CableTelemetry latest;
+
+    private String graphEtag;
+    private Map<String, Object> graph; // null when the caller's graphEtag is still current
+
+    private List<TelemetryPoint> history;
+    private CarbonMetrics carbon;
+    private RiskAssessment risk;
+    private List<Recommendation> recommendations;
+}
@@ -1,9 +1,9 @@
 package com.belden.topology.model;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import java.util.List;
-import java.util.Map;
 
 @Data
 @Builder
@@ -15,9 +15,17 @@ public class CableLifecycleReport {
     private double averageAttenuation;
     private String primaryFailureCause;
     private double avoidedCarbonKg;
-    private List<CableTelemetry> historicalTimeline;
+    private List<TelemetryPoint> historicalTimeline;
     private double finalSnr;
     private double finalMse;
 
-    private Map<String, CableTelemetry> degradationMilestones;
+    private List<Milestone> degradationMilestones; // oldest first; several can share a day
+
+    @Data
+    @AllArgsConstructor
+    public static class Milestone {
+        private String label;         // "Day 60", or "Final Status (Day 300)" for the last reading
+        private long day;             // elapsed days since the first reading
+        private CableTelemetry reading;
+    }
 }
\ No newline at end of file
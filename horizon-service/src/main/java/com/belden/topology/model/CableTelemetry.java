@@ -12,8 +12,11 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
-@Table(name = "cable_telemetry")
+@Builder(toBuilder = true)
+// Every per-cable read (latest, keyset pages, history ranges) is a range scan on this index.
+// TelemetryPartitionService creates the same index on the partitioned table.
+@Table(name = "cable_telemetry", indexes = @Index(
+        name = "idx_cable_telemetry_cable_ts", columnList = "cableId, timestamp, id"))
 public class CableTelemetry {
 
     @Id
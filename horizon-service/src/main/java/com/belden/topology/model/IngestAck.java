@@ -0,0 +1,15 @@
+package com.belden.topology.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Broker acknowledgement for one ingest request: every reading is either acked or failed
+@Data
+@Builder
+public class IngestAck {
+    private int received;
+    private int acked;
+    private int failed;
+    private String firstError; // null when everything was acked
+    private long elapsedMs;
+}
@@ -0,0 +1,21 @@
+package com.belden.topology.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// An AI report being generated in the background. Poll GET /api/report/jobs/{id} until it is no longer PENDING.
+@Data
+@Builder
+public class ReportJob {
+
+    public enum Status { PENDING, DONE, FAILED }
+
+    private String id;
+    private Long cableId;
+    private volatile Status status;
+    private volatile String aiExecutiveSummary;
+    private LocalDateTime submittedAt;
+    private volatile LocalDateTime completedAt;
+}
@@ -6,6 +6,8 @@ import lombok.Data;
 @Data
 @Builder
 public class RiskAssessment {
+    private Long cableId;
+
     private int overallRiskScore;       // 0 (Safe) to 100 (Critical)
 
     // Risk Factors
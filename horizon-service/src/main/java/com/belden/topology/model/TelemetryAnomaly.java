@@ -0,0 +1,26 @@
+package com.belden.topology.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// A reading that sits far outside its cable's recent behaviour, pushed as the SSE "anomaly" event
+@Data
+@Builder
+public class TelemetryAnomaly {
+    private Long cableId;
+    private LocalDateTime timestamp;
+    private List<Deviation> deviations; // only the metrics that tripped
+
+    @Data
+    @AllArgsConstructor
+    public static class Deviation {
+        private String metric;
+        private double value;
+        private double expected; // EWMA mean before this reading
+        private double zScore;
+    }
+}
@@ -0,0 +1,17 @@
+package com.belden.topology.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// One keyset page of raw readings. Pass nextTimestamp/nextId back to get the following page.
+@Data
+@Builder
+public class TelemetryPage {
+    private List<CableTelemetry> records;
+    private boolean hasMore;
+    private LocalDateTime nextTimestamp; // (timestamp, id) of the last record, null on the last page
+    private Long nextId;
+}
@@ -0,0 +1,25 @@
+package com.belden.topology.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// One downsampled point of a cable's history: a time bucket summarised server-side
+@Data
+@Builder
+public class TelemetryPoint {
+    private LocalDateTime timestamp;   // Newest reading in the bucket
+    private long samples;              // Raw rows folded into this point
+
+    private double health;             // Last health value in the bucket
+    private double minHealth;          // Envelope, so short dips survive downsampling
+    private double maxHealth;
+    private double rulInDays;          // Last RUL value in the bucket
+
+    private double temperature;        // Bucket averages
+    private double attenuation;
+    private double snr;
+    private double mse;
+    private double load;
+}
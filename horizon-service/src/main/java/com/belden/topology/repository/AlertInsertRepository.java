@@ -0,0 +1,32 @@
+package com.belden.topology.repository;
+
+import com.belden.topology.model.Alert;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class AlertInsertRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Relies on the (cable_id, severity, episode) unique constraint declared on Alert.
+    // Returns the new id, or empty when the alert already exists.
+    public Optional<Long> insertIfAbsent(Alert alert) {
+        List<Long> ids = jdbcTemplate.query("""
+                INSERT INTO alerts (cable_id, severity, message, timestamp, is_read, episode)
+                VALUES (?, ?, ?, ?, ?, ?)
+                ON CONFLICT (cable_id, severity, episode) DO NOTHING
+                RETURNING id
+                """,
+                (rs, rowNum) -> rs.getLong(1),
+                alert.getCableId(), alert.getSeverity(), alert.getMessage(),
+                Timestamp.valueOf(alert.getTimestamp()), alert.isRead(), alert.getEpisode());
+        return ids.stream().findFirst();
+    }
+}
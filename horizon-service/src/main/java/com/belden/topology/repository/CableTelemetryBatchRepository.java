@@ -0,0 +1,85 @@
+package com.belden.topology.repository;
+
+import com.belden.topology.model.CableTelemetry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class CableTelemetryBatchRepository {
+
+    // CableTelemetry uses IDENTITY ids, so Hibernate sends one INSERT per entity.
+    // This writes a whole batch as multi-row INSERTs, lets Postgres assign the ids and sets them on the records.
+    private static final String INSERT_PREFIX =
+            "INSERT INTO cable_telemetry " +
+            "(cable_id, attenuation, temperature, load, snr, mse, health, rul_in_days, timestamp, last_seen) VALUES ";
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Postgres allows at most 32767 bind parameters per statement (10 per row here)
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int insertAll(List<CableTelemetry> records) {
+        int inserted = 0;
+        for (int from = 0; from < records.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<CableTelemetry> chunk = records.subList(from, Math.min(records.size(), from + MAX_ROWS_PER_STATEMENT));
+            inserted += insertChunk(chunk);
+        }
+        return inserted;
+    }
+
+    private int insertChunk(List<CableTelemetry> chunk) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + chunk.size() * (ROW_PLACEHOLDER.length() + 2));
+        sql.append(INSERT_PREFIX);
+
+        List<Object> args = new ArrayList<>(chunk.size() * 10);
+        for (int i = 0; i < chunk.size(); i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(ROW_PLACEHOLDER);
+
+            // Rows keep their list order, so ids stay ascending per cable within the batch
+            CableTelemetry t = chunk.get(i);
+            args.add(t.getCableId());
+            args.add(t.getAttenuation());
+            args.add(t.getTemperature());
+            args.add(t.getLoad());
+            args.add(t.getSnr());
+            args.add(t.getMse());
+            args.add(t.getHealth());
+            args.add(t.getRulInDays());
+            args.add(toTimestamp(t.getTimestamp()));
+            args.add(toTimestamp(t.getLastSeen()));
+        }
+
+        KeyHolder keys = new GeneratedKeyHolder();
+        int inserted = jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(), new String[]{"id"});
+            new ArgumentPreparedStatementSetter(args.toArray()).setValues(ps);
+            return ps;
+        }, keys);
+
+        // Generated keys come back in row order
+        List<Map<String, Object>> ids = keys.getKeyList();
+        for (int i = 0; i < ids.size() && i < chunk.size(); i++) {
+            Object id = ids.get(i).values().iterator().next();
+            chunk.get(i).setId(((Number) id).longValue());
+        }
+        return inserted;
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime time) {
+        return time == null ? null : Timestamp.valueOf(time);
+    }
+}
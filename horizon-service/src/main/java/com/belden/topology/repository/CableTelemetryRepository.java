@@ -2,17 +2,50 @@ package com.belden.topology.repository;
 
 import com.belden.topology.model.CableTelemetry;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface CableTelemetryRepository
         extends JpaRepository<CableTelemetry, Long> {
 
+    Optional<CableTelemetry> findTopByCableIdOrderByTimestampDescIdDesc(Long cableId);
 
-    Optional<CableTelemetry> findTopByCableIdOrderByTimestampDesc(Long cableId);
+    // Keyset pages over one cable's history, served by idx_cable_telemetry_cable_ts.
+    // Each page starts strictly after the (timestamp, id) of the last row of the previous one,
+    // so page N costs the same as page 1 no matter how long the history is.
+    @Query(value = "SELECT * FROM cable_telemetry WHERE cable_id = :cableId " +
+            "AND (timestamp, id) > (:afterTimestamp, :afterId) " +
+            "ORDER BY timestamp ASC, id ASC LIMIT :limit", nativeQuery = true)
+    List<CableTelemetry> findPageAfter(@Param("cableId") Long cableId,
+                                       @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                       @Param("afterId") long afterId,
+                                       @Param("limit") int limit);
 
-    List<CableTelemetry> findByCableIdOrderByTimestampAsc(Long cableId);
+    @Query(value = "SELECT * FROM cable_telemetry WHERE cable_id = :cableId " +
+            "AND (timestamp, id) < (:beforeTimestamp, :beforeId) " +
+            "ORDER BY timestamp DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<CableTelemetry> findPageBefore(@Param("cableId") Long cableId,
+                                        @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                        @Param("beforeId") long beforeId,
+                                        @Param("limit") int limit);
 
-    List<CableTelemetry> findByCableIdOrderByTimestampDesc(Long cableId);
-}
\ No newline at end of file
+    // Latest record for each of the given cables in one round-trip (cache misses from the batch consumer)
+    @Query(value = "SELECT DISTINCT ON (cable_id) * FROM cable_telemetry " +
+            "WHERE cable_id IN (:cableIds) ORDER BY cable_id, timestamp DESC, id DESC", nativeQuery = true)
+    List<CableTelemetry> findLatestByCableIdIn(@Param("cableIds") Collection<Long> cableIds);
+
+    // Latest record of every cable, used to warm the LatestTelemetryCache at startup
+    @Query(value = "SELECT DISTINCT ON (cable_id) * FROM cable_telemetry " +
+            "ORDER BY cable_id, timestamp DESC, id DESC", nativeQuery = true)
+    List<CableTelemetry> findLatestPerCable();
+
+    // Oldest record of every cable, used when rebuilding the lifecycle aggregates
+    @Query(value = "SELECT DISTINCT ON (cable_id) * FROM cable_telemetry " +
+            "ORDER BY cable_id, timestamp ASC, id ASC", nativeQuery = true)
+    List<CableTelemetry> findFirstPerCable();
+}
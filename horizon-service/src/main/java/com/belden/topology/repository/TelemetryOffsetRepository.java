@@ -0,0 +1,59 @@
+package com.belden.topology.repository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class TelemetryOffsetRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record Key(int partition, long cableId) {
+    }
+
+    // Highest Kafka offset whose reading is in cable_telemetry, per (topic partition, cable). Written in the
+    // same transaction as the readings, so it never claims a row that rolled back. Keyed by cable as well
+    // because the consumer splits a poll over its workers by cableId and each share commits on its own.
+    @PostConstruct
+    public void init() {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS cable_telemetry_offsets (
+                    kafka_partition integer NOT NULL,
+                    cable_id bigint NOT NULL,
+                    last_offset bigint NOT NULL,
+                    PRIMARY KEY (kafka_partition, cable_id)
+                )
+                """);
+    }
+
+    public Map<Key, Long> findLastOffsets(Collection<Long> cableIds) {
+        if (cableIds.isEmpty()) return Collections.emptyMap();
+        Map<Key, Long> offsets = new HashMap<>();
+        jdbcTemplate.query("SELECT kafka_partition, cable_id, last_offset FROM cable_telemetry_offsets WHERE cable_id IN ("
+                        + String.join(", ", Collections.nCopies(cableIds.size(), "?")) + ")",
+                rs -> {
+                    offsets.put(new Key(rs.getInt(1), rs.getLong(2)), rs.getLong(3));
+                }, cableIds.toArray());
+        return offsets;
+    }
+
+    public void saveLastOffsets(Map<Key, Long> offsets) {
+        List<Object[]> rows = new ArrayList<>(offsets.size());
+        offsets.forEach((key, offset) -> rows.add(new Object[]{key.partition(), key.cableId(), offset}));
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO cable_telemetry_offsets (kafka_partition, cable_id, last_offset) VALUES (?, ?, ?)
+                ON CONFLICT (kafka_partition, cable_id) DO UPDATE
+                SET last_offset = greatest(cable_telemetry_offsets.last_offset, EXCLUDED.last_offset)
+                """, rows);
+    }
+}
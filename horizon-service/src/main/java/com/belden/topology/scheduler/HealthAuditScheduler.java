@@ -1,80 +1,232 @@
 package com.belden.topology.scheduler;
 
+import com.belden.topology.cache.LatestTelemetryCache;
+import com.belden.topology.cache.TopologySnapshotCache;
 import com.belden.topology.model.CableTelemetry;
-import com.belden.topology.repository.CableTelemetryRepository;
-import com.belden.topology.repository.TopologyRepository;
 import com.belden.topology.service.AlertService;
+import com.belden.topology.service.RulEstimator;
 import com.belden.topology.service.RulService;
-import lombok.RequiredArgsConstructor;
+import com.belden.topology.service.TelemetryPersistenceService;
+import com.belden.topology.service.TransactionHooks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulated decay for every cable, one pass per period.
+ * A pass splits the cable ids into fixed-size shards and runs them on a bounded pool of virtual
+ * threads; each shard reads its cables' latest state in one lookup, inserts its new records in one
+ * batch and commits on its own, then runs the alert checks for them. A cable always lands in the
+ * same shard, so its records stay in order.
+ * If a pass is still running when the next one is due, the new one is skipped rather than queued.
+ */
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class HealthAuditScheduler {
 
-    private final TopologyRepository topologyRepository;
+    private final TopologySnapshotCache topologySnapshots;
     private final RulService rulService;
+    private final RulEstimator rulEstimator;
     private final AlertService alertService;
-    private final CableTelemetryRepository telemetryRepository;
+    private final LatestTelemetryCache latestCache;
+    private final TelemetryPersistenceService persistenceService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int shardSize;
+    private final long periodMs;
+    private final double simulatedTimeScale;
+    private final ExecutorService shardExecutor;
+    private final Timer passTimer;
 
     private int virtualDaysPassed = 0;
     private final int SIMULATION_STEP_DAYS = 5;
 
-    @Scheduled(fixedRate = 2000)
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong passes = new AtomicLong();
+    private final AtomicLong skippedPasses = new AtomicLong();
+    private final AtomicLong failedShards = new AtomicLong();
+    private final AtomicLong failedAlerts = new AtomicLong();
+    private volatile long lastPassStartedAt;
+    private volatile long lastPassDurationMs;
+    private volatile long maxPassDurationMs;
+    private volatile long lastLagMs;
+    private volatile int lastPassCables;
+
+    public HealthAuditScheduler(TopologySnapshotCache topologySnapshots,
+                                RulService rulService,
+                                RulEstimator rulEstimator,
+                                AlertService alertService,
+                                LatestTelemetryCache latestCache,
+                                TelemetryPersistenceService persistenceService,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${horizon.audit.parallelism}") int parallelism,
+                                @Value("${horizon.audit.shard-size}") int shardSize,
+                                @Value("${horizon.audit.period-ms}") long periodMs,
+                                MeterRegistry meterRegistry) {
+        this.topologySnapshots = topologySnapshots;
+        this.rulService = rulService;
+        this.rulEstimator = rulEstimator;
+        this.alertService = alertService;
+        this.latestCache = latestCache;
+        this.persistenceService = persistenceService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardSize = Math.max(1, shardSize);
+        this.periodMs = periodMs;
+        // Days of wear per real day: SIMULATION_STEP_DAYS every period. Only the audit's own readings use it.
+        this.simulatedTimeScale = SIMULATION_STEP_DAYS * 86_400_000.0 / Math.max(1, periodMs);
+        // Shards block on JDBC; the pool size caps how many DB connections one pass can hold
+        this.shardExecutor = Executors.newFixedThreadPool(Math.max(1, parallelism),
+                Thread.ofVirtual().name("health-audit-", 0).factory());
+        this.passTimer = Timer.builder("horizon.audit.pass")
+                .description("Duration of one health audit pass over every cable")
+                .register(meterRegistry);
+        meterRegistry.more().counter("horizon.audit.shards.failed", Tags.empty(), failedShards);
+        meterRegistry.more().counter("horizon.audit.alerts.failed", Tags.empty(), failedAlerts);
+        meterRegistry.more().counter("horizon.audit.passes.skipped", Tags.empty(), skippedPasses);
+    }
+
+    @Scheduled(fixedRateString = "${horizon.audit.period-ms}")
     public void performGlobalHealthAudit() {
-        virtualDaysPassed += SIMULATION_STEP_DAYS;
-
-        topologyRepository.findAll().forEach(cable -> {
-            telemetryRepository.findTopByCableIdOrderByTimestampDesc(cable.getCableId())
-                    .ifPresent(lastData -> {
-
-                        if (lastData.getHealth() <= 0.0) return;
-
-                        System.out.println(">>> [AUTO-AUDIT] Simulating Decay for Cable-" + cable.getCableId());
-
-                        // TUNED FOR EXACTLY 300 DAYS LINEAR DECAY
-                        // By dropping SNR by 0.5 instead of 1.0, SNR will not hit zero before the cable dies.
-                        // This prevents the decay line from bending.
-                        double newTemp = lastData.getTemperature() + 0.5;     // Causes -0.075 Health
-                        double newAttn = lastData.getAttenuation() + 0.1;     // Causes -0.250 Health
-                        double newSnr = Math.max(0, lastData.getSnr() - 0.5); // Causes -0.200 Health
-                        double newMse = lastData.getMse() + 0.0545;           // Causes -1.090 Health
-
-                        double currentLoad = lastData.getLoad();
-
-                        double currentHealth = rulService.calculateHealth(
-                                newAttn, newTemp, currentLoad, newSnr, newMse, 2
-                        );
-
-                        double rulDays = rulService.calculateRulDays(
-                                currentHealth, lastData.getHealth(), SIMULATION_STEP_DAYS
-                        );
-
-                        CableTelemetry newRecord = CableTelemetry.builder()
-                                .cableId(cable.getCableId())
-                                .temperature(newTemp)
-                                .attenuation(newAttn)
-                                .snr(newSnr)
-                                .mse(newMse)
-                                .load(currentLoad)
-                                .health(currentHealth)
-                                .rulInDays(rulDays)
-                                .timestamp(LocalDateTime.now())
-                                .lastSeen(LocalDateTime.now())
-                                .build();
-
-                        telemetryRepository.save(newRecord);
-
-                        System.out.println("STATUS: Cable-" + cable.getCableId() +
-                                " | Health: " + Math.round(currentHealth) + "%" +
-                                " | Day: " + virtualDaysPassed +
-                                " | RUL: " + Math.round(rulDays) + " Days");
-
-                        alertService.checkAndAlert(cable.getCableId(), currentHealth, rulDays);
-                    });
+        if (!running.compareAndSet(false, true)) {
+            skippedPasses.incrementAndGet();
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            // Lag: how much later than one period after the previous pass this one actually started
+            if (lastPassStartedAt > 0) lastLagMs = Math.max(0, start - lastPassStartedAt - periodMs);
+            lastPassStartedAt = start;
+
+            virtualDaysPassed += SIMULATION_STEP_DAYS;
+            int day = virtualDaysPassed;
+
+            // 1. Cable ids come from the cached topology snapshot, not a Neo4j scan per pass
+            long[] cableIds = topologySnapshots.impactIndex().cableIds();
+            Arrays.sort(cableIds);
+
+            // 2. Fan the shards out and wait for all of them
+            List<CompletableFuture<Void>> shards = new ArrayList<>();
+            for (int from = 0; from < cableIds.length; from += shardSize) {
+                long[] shard = Arrays.copyOfRange(cableIds, from, Math.min(from + shardSize, cableIds.length));
+                shards.add(CompletableFuture.runAsync(() -> auditShard(shard, day), shardExecutor)
+                        .exceptionally(ex -> {
+                            failedShards.incrementAndGet();
+                            log.warn(">>> [AUTO-AUDIT] Shard failed: {}", ex.getMessage());
+                            return null;
+                        }));
+            }
+            CompletableFuture.allOf(shards.toArray(new CompletableFuture[0])).join();
+
+            lastPassCables = cableIds.length;
+            passes.incrementAndGet();
+        } finally {
+            long duration = System.currentTimeMillis() - start;
+            lastPassDurationMs = duration;
+            passTimer.record(duration, TimeUnit.MILLISECONDS);
+            if (duration > maxPassDurationMs) maxPassDurationMs = duration;
+            running.set(false);
+        }
+    }
+
+    // One transaction per shard for the batched read and insert; the alert checks run once it has
+    // committed, each in its own transaction, so a failed alert never rolls back the shard's telemetry
+    private void auditShard(long[] shard, int day) {
+        List<Long> ids = new ArrayList<>(shard.length);
+        for (long cableId : shard) ids.add(cableId);
+
+        List<CableTelemetry> records = transactionTemplate.execute(status -> {
+            Map<Long, CableTelemetry> latest = latestCache.getAll(ids);
+
+            List<CableTelemetry> decayed = new ArrayList<>();
+            for (Long cableId : ids) {
+                CableTelemetry lastData = latest.get(cableId);
+                if (lastData == null || lastData.getHealth() <= 0.0) continue;
+                decayed.add(decay(cableId, lastData));
+            }
+            if (decayed.isEmpty()) return decayed;
+
+            // Score the whole shard through the batch kernel, RUL from each cable's fitted trend.
+            // If the insert rolls back, the fits forget these readings again.
+            rulService.scoreHealth(decayed, 2);
+            TransactionHooks.afterRollback(rulEstimator.checkpoint(decayed.stream().map(CableTelemetry::getCableId).toList()));
+            rulEstimator.estimateAll(decayed, latest, simulatedTimeScale);
+
+            persistenceService.saveAll(decayed);
+            return decayed;
         });
+
+        for (CableTelemetry record : records) {
+            log.debug("STATUS: Cable-{} | Health: {}% | Day: {} | RUL: {} Days",
+                    record.getCableId(), Math.round(record.getHealth()), day, Math.round(record.getRulInDays()));
+            try {
+                alertService.checkAndAlert(record.getCableId(), record.getHealth(), record.getRulInDays());
+            } catch (RuntimeException e) {
+                // The episode stays unsettled, so the next pass retries this cable's alert
+                failedAlerts.incrementAndGet();
+                log.warn(">>> [AUTO-AUDIT] Alert check failed for Cable-{}: {}", record.getCableId(), e.getMessage());
+            }
+        }
+    }
+
+    private CableTelemetry decay(Long cableId, CableTelemetry lastData) {
+        // TUNED FOR EXACTLY 300 DAYS LINEAR DECAY
+        // By dropping SNR by 0.5 instead of 1.0, SNR will not hit zero before the cable dies.
+        // This prevents the decay line from bending.
+        double newTemp = lastData.getTemperature() + 0.5;     // Causes -0.075 Health
+        double newAttn = lastData.getAttenuation() + 0.1;     // Causes -0.250 Health
+        double newSnr = Math.max(0, lastData.getSnr() - 0.5); // Causes -0.200 Health
+        double newMse = lastData.getMse() + 0.0545;           // Causes -1.090 Health
+
+        // Health and RUL are filled in for the whole shard afterwards
+        return CableTelemetry.builder()
+                .cableId(cableId)
+                .temperature(newTemp)
+                .attenuation(newAttn)
+                .snr(newSnr)
+                .mse(newMse)
+                .load(lastData.getLoad())
+                .timestamp(LocalDateTime.now())
+                .lastSeen(LocalDateTime.now())
+                .build();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("passes", passes.get());
+        stats.put("skippedOverlappingPasses", skippedPasses.get());
+        stats.put("failedShards", failedShards.get());
+        stats.put("failedAlertChecks", failedAlerts.get());
+        stats.put("lastPassCables", lastPassCables);
+        stats.put("lastPassDurationMs", lastPassDurationMs);
+        stats.put("maxPassDurationMs", maxPassDurationMs);
+        stats.put("lastLagMs", lastLagMs);
+        stats.put("periodMs", periodMs);
+        stats.put("simulatedTimeScale", simulatedTimeScale);
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        shardExecutor.shutdownNow();
     }
-}
\ No newline at end of file
+}
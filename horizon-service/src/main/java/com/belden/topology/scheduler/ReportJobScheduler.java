@@ -0,0 +1,22 @@
+package com.belden.topology.scheduler;
+
+import com.belden.topology.service.ReportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Evicts finished AI report jobs once their retention is up, whether or not new jobs are submitted
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportJobScheduler {
+
+    private final ReportService reportService;
+
+    @Scheduled(fixedDelayString = "${horizon.report.job-sweep-ms}")
+    public void evictExpiredJobs() {
+        int evicted = reportService.evictExpiredJobs();
+        if (evicted > 0) log.debug(">>> [REPORT JOBS] Evicted {} expired jobs", evicted);
+    }
+}
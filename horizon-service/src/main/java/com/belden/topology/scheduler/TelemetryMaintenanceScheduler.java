@@ -0,0 +1,49 @@
+package com.belden.topology.scheduler;
+
+import com.belden.topology.cache.LifecycleAggregateStore;
+import com.belden.topology.service.TelemetryPartitionService;
+import com.belden.topology.service.TelemetryRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Storage housekeeping for cable_telemetry: rollups and lifecycle checkpoints every minute, partitions and retention hourly
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TelemetryMaintenanceScheduler {
+
+    private final TelemetryPartitionService partitionService;
+    private final TelemetryRollupService rollupService;
+    private final LifecycleAggregateStore aggregateStore;
+
+    @Scheduled(fixedDelayString = "${horizon.telemetry.rollup.period-ms}")
+    public void rollUp() {
+        try {
+            rollupService.rollUp();
+        } catch (Exception e) {
+            log.warn(">>> [ROLLUP] Pass failed, retrying next period: {}", e.getMessage());
+        }
+    }
+
+    // Raw rows are dropped after retention; the checkpointed aggregates keep counting them
+    @Scheduled(fixedDelayString = "${horizon.lifecycle.checkpoint-period-ms}")
+    public void checkpointAggregates() {
+        try {
+            int cables = aggregateStore.checkpoint();
+            if (cables > 0) log.debug(">>> [AGGREGATES] Checkpointed {} cables", cables);
+        } catch (Exception e) {
+            log.warn(">>> [AGGREGATES] Checkpoint failed, retrying next period: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${horizon.telemetry.partitions.maintenance-cron}")
+    public void maintainPartitions() {
+        try {
+            partitionService.maintain();
+        } catch (Exception e) {
+            log.warn(">>> [PARTITIONS] Maintenance failed, retrying next run: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.belden.topology.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory front of the alert de-duplication: one alert per (cableId, severity) per episode.
+ * An episode opens the first time a cable is seen in a severity and stays open until the cable
+ * has stayed recovered for the re-arm window, however long that takes; the next degradation then
+ * opens a new one and alerts again. A cable flapping around a threshold degrades again inside the
+ * window, which keeps its episode open, so it alerts once instead of on every crossing.
+ * The alerts table carries a unique constraint on (cable_id, severity, episode), so concurrent
+ * attempts for the same episode (consumer and scheduler) still yield a single row. Once an
+ * episode's alert is committed, repeat ticks cost one hash lookup and never reach the database.
+ *
+ * Episode state lives in memory only; the alerts table is wiped on startup (DatabaseCleanupConfig),
+ * so a restart starts every cable without an open episode.
+ */
+@Service
+public class AlertDedupService {
+
+    private static final long NOT_RECOVERING = -1;
+
+    private final long rearmWindowMillis;
+
+    // (cableId, severity) -> the open episode
+    private final ConcurrentHashMap<DedupKey, Episode> episodes = new ConcurrentHashMap<>();
+
+    // Episode ids are the open time in epoch millis, bumped to stay unique within this instance
+    private final AtomicLong lastEpisodeId = new AtomicLong();
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder deduped = new LongAdder();
+    private final LongAdder resolved = new LongAdder();
+
+    public AlertDedupService(@Value("${horizon.alerts.rearm-window}") Duration rearmWindow) {
+        this.rearmWindowMillis = rearmWindow.toMillis();
+    }
+
+    // The open episode to alert for, opening one if needed; empty when its alert is already stored.
+    // Degrading again while recovering keeps the episode, so the flap is not alerted twice.
+    public OptionalLong episodeToAlert(Long cableId, String severity) {
+        DedupKey key = new DedupKey(cableId, severity);
+        Episode episode = episodes.get(key);
+        if (episode == null || episode.recoveringSince() != NOT_RECOVERING) {
+            episode = episodes.compute(key, (k, open) -> open == null
+                    ? new Episode(nextEpisodeId(), false, NOT_RECOVERING)
+                    : new Episode(open.id(), open.settled(), NOT_RECOVERING));
+        }
+        if (episode.settled()) {
+            deduped.increment();
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(episode.id());
+    }
+
+    // Called once the INSERT ... ON CONFLICT DO NOTHING has committed, whether it inserted or not.
+    // A rolled-back insert never gets here, so the episode stays unsettled and the next tick retries it.
+    public void markSettled(Long cableId, String severity, long episode, boolean inserted) {
+        episodes.computeIfPresent(new DedupKey(cableId, severity),
+                (key, open) -> open.id() == episode ? new Episode(episode, true, open.recoveringSince()) : open);
+        if (inserted) created.increment();
+        else deduped.increment();
+    }
+
+    // A recovered reading: closes the cable's open episodes for these severities once it has been
+    // recovered for the whole re-arm window; the next degradation after that alerts again
+    public void resolve(Long cableId, String... severities) {
+        long now = System.currentTimeMillis();
+        for (String severity : severities) {
+            DedupKey key = new DedupKey(cableId, severity);
+            Episode open = episodes.computeIfPresent(key, (k, e) -> e.recoveringSince() == NOT_RECOVERING
+                    ? new Episode(e.id(), e.settled(), now) : e);
+            if (open != null && now - open.recoveringSince() >= rearmWindowMillis && episodes.remove(key, open)) {
+                resolved.increment();
+            }
+        }
+    }
+
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    public long getDedupedCount() {
+        return deduped.sum();
+    }
+
+    public long getResolvedCount() {
+        return resolved.sum();
+    }
+
+    public int getOpenEpisodeCount() {
+        return episodes.size();
+    }
+
+    private long nextEpisodeId() {
+        long now = System.currentTimeMillis();
+        return lastEpisodeId.updateAndGet(last -> Math.max(last + 1, now));
+    }
+
+    private record DedupKey(Long cableId, String severity) {
+    }
+
+    // recoveringSince: epoch millis of the first recovered reading since the cable last degraded
+    private record Episode(long id, boolean settled, long recoveringSince) {
+    }
+}
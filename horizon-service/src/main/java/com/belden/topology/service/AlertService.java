@@ -1,77 +1,134 @@
 package com.belden.topology.service;
 
+import com.belden.topology.cache.TopologySnapshotCache;
 import com.belden.topology.model.Alert;
-import com.belden.topology.repository.AlertRepository;
-import com.belden.topology.repository.TopologyRepository;
+import com.belden.topology.model.TelemetryAnomaly;
+import com.belden.topology.repository.AlertInsertRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AlertService {
 
-    private final TopologyRepository topologyRepository;
-    private final AlertRepository alertRepository;
+    private static final String ANOMALY = "ANOMALY";
+    private static final String WARNING = "WARNING";
+    private static final String CRITICAL = "CRITICAL";
+
+    private final TopologySnapshotCache topologySnapshots;
+    private final AlertInsertRepository alertInsertRepository;
+    private final AlertDedupService dedupService;
+    private final LiveUpdateBroadcaster broadcaster;
 
     @Transactional
     public void checkAndAlert(Long cableId, double currentHealth, double estimatedRulDays) {
         double WARNING_THRESHOLD = 50.0;
         double CRITICAL_THRESHOLD = 20.0;
 
-        if (currentHealth < WARNING_THRESHOLD) {
-
-            String machineName;
-            String lineName;
-
-            // These perfectly match your beautiful Neo4j Topology Graph!
-            switch (cableId.intValue()) {
-                case 1:
-                    machineName = "Robot-Arm";
-                    lineName = "Assembly-Line-3";
-                    break;
-                case 2:
-                    machineName = "Cable 2";
-                    lineName = "Data Link";
-                    break;
-                case 3:
-                    machineName = "HVAC Cooling";
-                    lineName = "Aux Power 1";
-                    break;
-                default:
-                    // Fallback to the database query just in case it's a new unknown cable
-                    String impactData = topologyRepository.findImpactDetails(cableId).orElse("Generic Asset::General Floor");
-                    String[] parts = impactData.split("::");
-                    machineName = parts.length > 0 ? parts[0] : "Generic Asset";
-                    lineName = parts.length > 1 ? parts[1] : "General Floor";
-                    break;
-            }
-
-            String severity = (currentHealth <= CRITICAL_THRESHOLD) ? "CRITICAL" : "WARNING";
-
-            String timeDisplay = (estimatedRulDays <= 0) ? "IMMEDIATE" : String.format("%.1f Days", estimatedRulDays);
-
-            String message = String.format("Asset #%d (%s) on %s health dropped to %d%%. RUL: %s.",
-                    cableId, machineName, lineName, Math.round(currentHealth), timeDisplay);
-
-            // 2. Optimized Anti-Spam Check
-            boolean alreadyExists = alertRepository.findAll().stream()
-                    .anyMatch(a -> a.getCableId().equals(cableId) && a.getSeverity().equals(severity));
-
-            if (!alreadyExists) {
-                Alert alert = Alert.builder()
-                        .cableId(cableId)
-                        .severity(severity)
-                        .message(message)
-                        .timestamp(LocalDateTime.now())
-                        .isRead(false)
-                        .build();
-
-                alertRepository.save(alert);
-                System.err.println(">>> [DATABASE ALERT SAVED] For Cable: " + cableId);
-            }
+        if (currentHealth >= WARNING_THRESHOLD) {
+            // Recovered: once it holds for the re-arm window, the next degradation is a new episode and alerts again
+            dedupService.resolve(cableId, WARNING, CRITICAL);
+            return;
+        }
+
+        // 1. Anti-Spam Check, before any work: one alert per cable, severity and episode
+        String severity = (currentHealth <= CRITICAL_THRESHOLD) ? CRITICAL : WARNING;
+        OptionalLong episode = dedupService.episodeToAlert(cableId, severity);
+        if (episode.isEmpty()) return;
+
+        String machineName;
+        String lineName;
+
+        // These perfectly match your beautiful Neo4j Topology Graph!
+        switch (cableId.intValue()) {
+            case 1:
+                machineName = "Robot-Arm";
+                lineName = "Assembly-Line-3";
+                break;
+            case 2:
+                machineName = "Cable 2";
+                lineName = "Data Link";
+                break;
+            case 3:
+                machineName = "HVAC Cooling";
+                lineName = "Aux Power 1";
+                break;
+            default:
+                // Fallback to the topology index just in case it's a new unknown cable
+                String impactData = topologySnapshots.impactIndex().findImpactDetails(cableId, 3).orElse("Generic Asset::General Floor");
+                String[] parts = impactData.split("::");
+                machineName = parts.length > 0 ? parts[0] : "Generic Asset";
+                lineName = parts.length > 1 ? parts[1] : "General Floor";
+                break;
         }
+
+        String timeDisplay = (estimatedRulDays <= 0) ? "IMMEDIATE" : String.format("%.1f Days", estimatedRulDays);
+
+        String message = String.format("Asset #%d (%s) on %s health dropped to %d%%. RUL: %s.",
+                cableId, machineName, lineName, Math.round(currentHealth), timeDisplay);
+
+        Alert alert = Alert.builder()
+                .cableId(cableId)
+                .severity(severity)
+                .message(message)
+                .timestamp(LocalDateTime.now())
+                .isRead(false)
+                .episode(episode.getAsLong())
+                .build();
+
+        // 2. The unique constraint settles races between the consumer and the scheduler;
+        // the episode only counts as alerted once the row is committed
+        Optional<Long> id = alertInsertRepository.insertIfAbsent(alert);
+        TransactionHooks.afterCommit(() -> dedupService.markSettled(cableId, severity, episode.getAsLong(), id.isPresent()));
+
+        id.ifPresent(newId -> {
+            alert.setId(newId);
+            TransactionHooks.afterCommit(() -> broadcaster.publishAlert(alert));
+            log.info(">>> [DATABASE ALERT SAVED] {} for Cable: {}", severity, cableId);
+        });
+    }
+
+    // Every anomaly goes out live; one ANOMALY alert per cable is stored until its telemetry is normal again
+    @Transactional
+    public void raiseAnomaly(TelemetryAnomaly anomaly) {
+        TransactionHooks.afterCommit(() -> broadcaster.publishAnomaly(anomaly));
+
+        Long cableId = anomaly.getCableId();
+        OptionalLong episode = dedupService.episodeToAlert(cableId, ANOMALY);
+        if (episode.isEmpty()) return;
+
+        String details = anomaly.getDeviations().stream()
+                .map(d -> String.format("%s %.2f (expected %.2f, z=%+.1f)", d.getMetric(), d.getValue(), d.getExpected(), d.getZScore()))
+                .collect(Collectors.joining(", "));
+
+        Alert alert = Alert.builder()
+                .cableId(cableId)
+                .severity(ANOMALY)
+                .message(String.format("Asset #%d telemetry left its normal range: %s.", cableId, details))
+                .timestamp(LocalDateTime.now())
+                .isRead(false)
+                .episode(episode.getAsLong())
+                .build();
+
+        Optional<Long> id = alertInsertRepository.insertIfAbsent(alert);
+        TransactionHooks.afterCommit(() -> dedupService.markSettled(cableId, ANOMALY, episode.getAsLong(), id.isPresent()));
+
+        id.ifPresent(newId -> {
+            alert.setId(newId);
+            TransactionHooks.afterCommit(() -> broadcaster.publishAlert(alert));
+        });
+    }
+
+    // Normal readings end the cable's anomaly episode once they hold for the re-arm window
+    public void anomalyCleared(Long cableId) {
+        dedupService.resolve(cableId, ANOMALY);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,84 @@
+package com.belden.topology.service;
+
+import com.belden.topology.cache.LatestTelemetryCache;
+import com.belden.topology.cache.TopologySnapshot;
+import com.belden.topology.cache.TopologySnapshotCache;
+import com.belden.topology.model.CableDashboard;
+import com.belden.topology.model.CableTelemetry;
+import com.belden.topology.model.CarbonMetrics;
+import com.belden.topology.model.Recommendation;
+import com.belden.topology.model.RiskAssessment;
+import com.belden.topology.model.TelemetryPoint;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Builds all panels of the cable dashboard in one pass. The latest reading and topology snapshot
+ * are read once up front and handed to every panel, so risk is scored once (recommendations reuse
+ * it) and the only database query, the history, runs alongside the in-memory panels.
+ */
+@Service
+@RequiredArgsConstructor
+public class CableDashboardService {
+
+    private final TopologySnapshotCache topologySnapshots;
+    private final LatestTelemetryCache latestCache;
+    private final TelemetryHistoryService historyService;
+    private final SustainabilityService sustainabilityService;
+    private final RiskScoringService riskService;
+    private final RecommendationEngine recommendationEngine;
+
+    private final ExecutorService panelExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public CableDashboard build(Long cableId, String knownGraphEtag) {
+
+        // 1. One shared view of the world for every panel
+        TopologySnapshot snapshot = topologySnapshots.get();
+        CableTelemetry latest = latestCache.get(cableId).orElse(null);
+
+        // 2. Fan out
+        CompletableFuture<List<TelemetryPoint>> history = CompletableFuture.supplyAsync(
+                () -> historyService.getDownsampledHistory(cableId, null, null, TelemetryHistoryService.DEFAULT_POINTS),
+                panelExecutor);
+
+        CompletableFuture<RiskAssessment> risk = CompletableFuture.supplyAsync(
+                () -> riskService.calculateFacilityRisk(snapshot.getImpactIndex(), cableId, latest), panelExecutor);
+
+        CompletableFuture<List<Recommendation>> recommendations = risk.thenApply(
+                assessment -> recommendationEngine.generateRecommendations(cableId, latest, assessment));
+
+        CompletableFuture<CarbonMetrics> carbon = CompletableFuture.supplyAsync(
+                () -> latest == null
+                        ? CarbonMetrics.builder().build() // Same empty panel as GET /carbon/{id}
+                        : sustainabilityService.calculateMetrics(cableId, latest.getHealth()),
+                panelExecutor);
+
+        // The graph is the same for every cable and rarely changes, so it is only sent when the client's copy is stale
+        boolean graphChanged = !snapshot.getEtag().equals(knownGraphEtag);
+        Map<String, Object> graph = graphChanged ? snapshot.toBody() : null;
+
+        // 3. Join
+        return CableDashboard.builder()
+                .cableId(cableId)
+                .latest(latest)
+                .graphEtag(snapshot.getEtag())
+                .graph(graph)
+                .history(history.join())
+                .carbon(carbon.join())
+                .risk(risk.join())
+                .recommendations(recommendations.join())
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        panelExecutor.shutdownNow();
+    }
+}
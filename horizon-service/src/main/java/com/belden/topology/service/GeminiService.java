@@ -1,83 +1,247 @@
 package com.belden.topology.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Talks to the Gemini generateContent API.
+ * {@link #summarize} and {@link #generate} are the non-blocking entry points: summaries are cached by
+ * a SHA-256 of the minified report payload (a finished cable's report never changes, so it is generated
+ * once), and a second request for a payload whose call is still running gets the same future instead of
+ * a second LLM call. Calls run on virtual threads, so a slow model holds no Tomcat thread.
+ *
+ * Coalescing is by payload, not by cable, on purpose: the summary is a function of the report alone,
+ * and a cable that took new readings while its call was running has a different report. Joining that
+ * call would hand the newer request a summary of stale data. Concurrent requests for a cable whose
+ * report has not changed minify to the same payload, so they still share one call.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class GeminiService {
 
-    @Value("${gemini.api.url}")
-    private String geminiApiUrl;
-
-    @Value("${gemini.api.key}")
-    private String geminiApiKey;
+    static final String FALLBACK_SUMMARY =
+            "AI Summary unavailable at this time due to network limits. Please review the raw metrics.";
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final String geminiApiUrl;
+    private final String geminiApiKey;
+    private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper; // Spring auto-injects this
+    private final int cacheSize;
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService callExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // payload hash -> call in progress, shared by everyone asking for that payload meanwhile (same key as the cache)
+    private final ConcurrentHashMap<String, Call> inFlight = new ConcurrentHashMap<>();
+
+    // payload hash -> summary, least recently used evicted first
+    private final LinkedHashMap<String, String> summaries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder apiCalls = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public GeminiService(RestTemplateBuilder restTemplateBuilder,
+                         ObjectMapper objectMapper,
+                         @Value("${gemini.api.url}") String geminiApiUrl,
+                         @Value("${gemini.api.key}") String geminiApiKey,
+                         @Value("${gemini.api.connect-timeout}") Duration connectTimeout,
+                         @Value("${gemini.api.read-timeout}") Duration readTimeout,
+                         @Value("${gemini.cache.max-entries}") int cacheSize,
+                         MeterRegistry meterRegistry) {
+        this.geminiApiUrl = geminiApiUrl;
+        this.geminiApiKey = geminiApiKey;
+        this.objectMapper = objectMapper;
+        this.cacheSize = cacheSize;
+        this.meterRegistry = meterRegistry;
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(connectTimeout)
+                .setReadTimeout(readTimeout)
+                .build();
+    }
+
+    // Completes with the summary, or with FALLBACK_SUMMARY if the call fails (never exceptionally)
+    public CompletableFuture<String> summarize(Object reportData) {
+        return call(reportData).orFallback();
+    }
 
-    public String generateExecutiveSummary(Object reportData) {
+    // Completes with the summary, or exceptionally if the call fails
+    public CompletableFuture<String> generate(Object reportData) {
+        return call(reportData).result();
+    }
+
+    private Call call(Object reportData) {
+        String payload;
         try {
-            // 1. Minify the JSON to save tokens and speed up the API call
-            String minifiedJson = objectMapper.writeValueAsString(reportData);
-
-
-            String prompt = "You are an AI Industrial Reliability Expert for Belden Horizon. " +
-                    "Analyze the following JSON telemetry report of a Hirschmann network cable. " +
-                    "Generate a chronological degradation report. " +
-
-                    "\n\nSTRICT PHYSICAL CONSTRAINTS FOR YOUR ANALYSIS:" +
-                    "\n- BASELINE TEMP: 25°C is normal. Anything above 60°C is CRITICAL and indicates melting insulation." +
-                    "\n- SIGNAL INTEGRITY: SNR below 20 is a catastrophic failure. SNR 30+ is healthy." +
-                    "\n- DISTORTION: MSE above 0.1 indicates severe data packet loss and signal distortion." +
-                    "\n- If you see 85°C or 142°C, you MUST describe it as a severe thermal violation, not 'moderate' or 'average'." +
-
-                    "\n\nRULE 1: Format the output strictly day-by-day using the 'degradationMilestones' provided (e.g., 'Day 60: ...')." +
-                    "\nRULE 2: For each milestone, explicitly state the Temperature, Attenuation, SNR, and MSE metrics, and explain the physical state based on the constraints above." +
-                    "\nRULE 3: Conclude with a 'Final Impact' statement declaring the exact number of days survived and the exact Avoided Carbon in kg CO2e." +
-                    "\nRULE 4: Do not use markdown like asterisks or bold text. Use clean line breaks only." +
-
-                    "\n\nDATA: " + minifiedJson;
-
-            // 3. Build the Gemini Request Payload
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("contents", List.of(
-                    Map.of("parts", List.of(
-                            Map.of("text", prompt)
-                    ))
-            ));
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-
-            // 4. Call the API
-            String fullUrl = geminiApiUrl + geminiApiKey;
-            JsonNode response = restTemplate.postForObject(fullUrl, request, JsonNode.class);
-
-            // 5. Extract the generated text from the JSON response
-            if (response != null && response.has("candidates")) {
-                return response.get("candidates").get(0)
-                        .get("content").get("parts").get(0)
-                        .get("text").asText();
+            payload = minify(reportData);
+        } catch (JsonProcessingException e) {
+            return new Call(CompletableFuture.failedFuture(e), CompletableFuture.completedFuture(FALLBACK_SUMMARY));
+        }
+
+        // 1. Same payload as before: same answer
+        String key = sha256(payload);
+        String cached = cachedSummary(key);
+        if (cached != null) {
+            cacheHits.increment();
+            CompletableFuture<String> done = CompletableFuture.completedFuture(cached);
+            return new Call(done, done);
+        }
+
+        // 2. Join the running call for this payload, or start one
+        CompletableFuture<String> started = new CompletableFuture<>();
+        Call call = new Call(started, started.exceptionally(e -> FALLBACK_SUMMARY));
+        Call running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            coalesced.increment();
+            return running;
+        }
+
+        callExecutor.execute(() -> {
+            String summary = null;
+            Exception failure = null;
+            try {
+                summary = callGemini(payload);
+                cacheSummary(key, summary);
+            } catch (Exception e) {
+                log.warn("AI generation failed: {}", e.getMessage());
+                failure = e; // Not cached, the next request retries
             }
+            // Unregister before completing, so whoever reacts to this result starts fresh
+            inFlight.remove(key, call);
+            if (failure == null) started.complete(summary);
+            else started.completeExceptionally(failure);
+        });
+        return call;
+    }
 
-            return "Report generation successful, but no AI summary was returned.";
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("apiCalls", apiCalls.sum());
+        stats.put("cacheHits", cacheHits.sum());
+        stats.put("coalescedRequests", coalesced.sum());
+        stats.put("inFlight", inFlight.size());
+        synchronized (summaries) {
+            stats.put("cachedSummaries", summaries.size());
+        }
+        return stats;
+    }
+
+    private String callGemini(String minifiedJson) {
+        apiCalls.increment();
+
+        String prompt = "You are an AI Industrial Reliability Expert for Belden Horizon. " +
+                "Analyze the following JSON telemetry report of a Hirschmann network cable. " +
+                "Generate a chronological degradation report. " +
+
+                "\n\nSTRICT PHYSICAL CONSTRAINTS FOR YOUR ANALYSIS:" +
+                "\n- BASELINE TEMP: 25°C is normal. Anything above 60°C is CRITICAL and indicates melting insulation." +
+                "\n- SIGNAL INTEGRITY: SNR below 20 is a catastrophic failure. SNR 30+ is healthy." +
+                "\n- DISTORTION: MSE above 0.1 indicates severe data packet loss and signal distortion." +
+                "\n- If you see 85°C or 142°C, you MUST describe it as a severe thermal violation, not 'moderate' or 'average'." +
+
+                "\n\nRULE 1: Format the output strictly day-by-day using the 'degradationMilestones' provided, in order, each under its label (e.g., 'Day 60: ...'). Milestones sharing a day go under one heading." +
+                "\nRULE 2: For each milestone, explicitly state the Temperature, Attenuation, SNR, and MSE metrics, and explain the physical state based on the constraints above." +
+                "\nRULE 3: Conclude with a 'Final Impact' statement declaring the exact number of days survived and the exact Avoided Carbon in kg CO2e." +
+                "\nRULE 4: Do not use markdown like asterisks or bold text. Use clean line breaks only." +
+
+                "\n\nDATA: " + minifiedJson;
+
+        // 3. Build the Gemini Request Payload
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("contents", List.of(
+                Map.of("parts", List.of(
+                        Map.of("text", prompt)
+                ))
+        ));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
+
+        // 4. Call the API (bounded by the connect/read timeouts), timed by outcome
+        String fullUrl = geminiApiUrl + geminiApiKey;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        JsonNode response;
+        try {
+            response = restTemplate.postForObject(fullUrl, request, JsonNode.class);
+            outcome = "success";
+        } finally {
+            sample.stop(meterRegistry.timer("horizon.gemini.call", "outcome", outcome));
+        }
 
-        } catch (Exception e) {
-            System.err.println("AI Generation Failed: " + e.getMessage());
-            return "AI Summary unavailable at this time due to network limits. Please review the raw metrics.";
+        // 5. Extract the generated text from the JSON response
+        if (response != null && response.has("candidates")) {
+            return response.get("candidates").get(0)
+                    .get("content").get("parts").get(0)
+                    .get("text").asText();
         }
+
+        return "Report generation successful, but no AI summary was returned.";
+    }
+
+    // 1. Minify the JSON to save tokens and speed up the API call
+    private String minify(Object reportData) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(reportData);
+    }
+
+    private String cachedSummary(String key) {
+        synchronized (summaries) {
+            return summaries.get(key);
+        }
+    }
+
+    private void cacheSummary(String key, String summary) {
+        synchronized (summaries) {
+            summaries.put(key, summary);
+            if (summaries.size() > cacheSize) {
+                summaries.remove(summaries.keySet().iterator().next());
+            }
+        }
+    }
+
+    private static String sha256(String payload) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(payload.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JRE ships SHA-256
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        callExecutor.shutdownNow();
+    }
+
+    // One generation: the raw result, and the same result with failures turned into FALLBACK_SUMMARY
+    private record Call(CompletableFuture<String> result, CompletableFuture<String> orFallback) {
     }
-}
\ No newline at end of file
+}
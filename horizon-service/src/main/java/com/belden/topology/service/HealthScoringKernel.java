@@ -0,0 +1,13 @@
+package com.belden.topology.service;
+
+/**
+ * Column-at-a-time form of {@link RulService#calculateHealth}.
+ * Implementations must produce the same values as the scalar method for every element.
+ */
+interface HealthScoringKernel {
+
+    void health(double[] attenuation, double[] temp, double[] load, double[] snr, double[] mse,
+                double[] ageYears, double[] healthOut, int count);
+
+    String name();
+}
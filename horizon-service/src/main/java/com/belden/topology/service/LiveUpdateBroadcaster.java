@@ -0,0 +1,137 @@
+package com.belden.topology.service;
+
+import com.belden.topology.model.Alert;
+import com.belden.topology.model.CableTelemetry;
+import com.belden.topology.model.TelemetryAnomaly;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fan-out of live dashboard events over Server-Sent Events.
+ * Writers (telemetry persistence, alerts) call publish*, which only offers the event to each
+ * subscriber's bounded queue and never blocks. Each subscriber is drained by its own virtual
+ * thread; a client that can't keep up fills its queue and is disconnected instead of slowing ingestion.
+ */
+@Service
+public class LiveUpdateBroadcaster {
+
+    private static final long HEARTBEAT_SECONDS = 15;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final int queueCapacity;
+    private final long emitterTimeoutMs;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public LiveUpdateBroadcaster(@Value("${horizon.stream.queue-capacity}") int queueCapacity,
+                                 @Value("${horizon.stream.timeout-ms}") long emitterTimeoutMs) {
+        this.queueCapacity = queueCapacity;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+    }
+
+    // cableId == null subscribes to every cable, events == null/empty to every event type
+    public SseEmitter subscribe(Long cableId, Set<String> events) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Set<String> eventFilter = (events == null || events.isEmpty()) ? null : Set.copyOf(events);
+        Subscriber subscriber = new Subscriber(emitter, cableId, eventFilter, new ArrayBlockingQueue<>(queueCapacity));
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        subscribers.add(subscriber);
+        senders.execute(() -> drain(subscriber));
+        return emitter;
+    }
+
+    public void publishTelemetry(CableTelemetry telemetry) {
+        publish(new LiveEvent(telemetry.getCableId(), "telemetry", telemetry));
+    }
+
+    public void publishAlert(Alert alert) {
+        publish(new LiveEvent(alert.getCableId(), "alert", alert));
+    }
+
+    public void publishAnomaly(TelemetryAnomaly anomaly) {
+        publish(new LiveEvent(anomaly.getCableId(), "anomaly", anomaly));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    public long getDroppedSubscriberCount() {
+        return dropped.sum();
+    }
+
+    private void publish(LiveEvent event) {
+        if (subscribers.isEmpty()) return;
+        published.increment();
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.cableId != null && !subscriber.cableId.equals(event.cableId)) continue;
+            if (subscriber.events != null && !subscriber.events.contains(event.name)) continue;
+            if (!subscriber.queue.offer(event)) {
+                // Slow consumer: cut it loose, the browser's EventSource will reconnect and resync
+                disconnect(subscriber);
+                dropped.increment();
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (subscribers.contains(subscriber)) {
+                LiveEvent event = subscriber.queue.poll(HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+                if (event == null) {
+                    // Keeps proxies from closing an idle stream and detects dead clients
+                    subscriber.emitter.send(SseEmitter.event().comment("keepalive"));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event().name(event.name).data(event.payload));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            disconnect(subscriber);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            disconnect(subscriber);
+        }
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(this::disconnect);
+        senders.shutdownNow();
+    }
+
+    private record LiveEvent(Long cableId, String name, Object payload) {
+    }
+
+    private record Subscriber(SseEmitter emitter, Long cableId, Set<String> events, BlockingQueue<LiveEvent> queue) {
+    }
+}
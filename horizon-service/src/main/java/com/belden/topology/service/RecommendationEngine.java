@@ -1,9 +1,9 @@
 package com.belden.topology.service;
 
+import com.belden.topology.cache.LatestTelemetryCache;
 import com.belden.topology.model.CableTelemetry;
 import com.belden.topology.model.Recommendation;
 import com.belden.topology.model.RiskAssessment;
-import com.belden.topology.repository.CableTelemetryRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -14,16 +14,21 @@ import java.util.List;
 @RequiredArgsConstructor
 public class RecommendationEngine {
 
-    private final CableTelemetryRepository telemetryRepository;
+    private final LatestTelemetryCache latestCache;
     private final RiskScoringService riskScoringService;
 
     public List<Recommendation> generateRecommendations(Long cableId) {
-        List<Recommendation> recommendations = new ArrayList<>();
+        CableTelemetry telemetry = latestCache.get(cableId).orElse(null);
+        if (telemetry == null) return new ArrayList<>();
+
+        return generateRecommendations(cableId, telemetry, riskScoringService.calculateFacilityRisk(cableId));
+    }
 
-        CableTelemetry telemetry = telemetryRepository.findTopByCableIdOrderByTimestampDesc(cableId).orElse(null);
+    // For callers that already have the latest reading and its risk assessment
+    public List<Recommendation> generateRecommendations(Long cableId, CableTelemetry telemetry, RiskAssessment risk) {
+        List<Recommendation> recommendations = new ArrayList<>();
         if (telemetry == null) return recommendations;
 
-        RiskAssessment risk = riskScoringService.calculateFacilityRisk(cableId);
         double rulDays = telemetry.getRulInDays();
 
         // ---------------------------------------------------------
@@ -0,0 +1,143 @@
+package com.belden.topology.service;
+
+import com.belden.topology.cache.LifecycleAggregate;
+import com.belden.topology.cache.LifecycleAggregateStore;
+import com.belden.topology.model.CableLifecycleReport;
+import com.belden.topology.model.CableTelemetry;
+import com.belden.topology.model.CarbonMetrics;
+import com.belden.topology.model.ReportJob;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds the lifecycle report for a cable and gets its AI summary from {@link GeminiService}.
+ * Callers either hold on to the future (GET /api/report/{cableId}, served async) or submit a
+ * job and poll it, so no request thread waits on the model.
+ */
+@Service
+public class ReportService {
+
+    private final LifecycleAggregateStore aggregateStore;
+    private final GeminiService geminiService;
+    private final SustainabilityService sustainabilityService;
+    private final RulEstimator rulEstimator;
+    private final Duration jobRetention;
+
+    private final ConcurrentHashMap<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    public ReportService(LifecycleAggregateStore aggregateStore,
+                         GeminiService geminiService,
+                         SustainabilityService sustainabilityService,
+                         RulEstimator rulEstimator,
+                         @Value("${horizon.report.job-retention}") Duration jobRetention) {
+        this.aggregateStore = aggregateStore;
+        this.geminiService = geminiService;
+        this.sustainabilityService = sustainabilityService;
+        this.rulEstimator = rulEstimator;
+        this.jobRetention = jobRetention;
+    }
+
+    public CompletableFuture<String> summarize(Long cableId) {
+        return buildReport(cableId)
+                .map(geminiService::summarize)
+                .orElseGet(() -> CompletableFuture.completedFuture(noData(cableId)));
+    }
+
+    public ReportJob submit(Long cableId) {
+        ReportJob job = ReportJob.builder()
+                .id(UUID.randomUUID().toString())
+                .cableId(cableId)
+                .status(ReportJob.Status.PENDING)
+                .submittedAt(LocalDateTime.now())
+                .build();
+        jobs.put(job.getId(), job);
+
+        // A failed call marks the job FAILED; it still carries the fallback text for display
+        CompletableFuture<String> summary = buildReport(cableId)
+                .map(geminiService::generate)
+                .orElseGet(() -> CompletableFuture.completedFuture(noData(cableId)));
+        summary.whenComplete((text, error) -> {
+            job.setAiExecutiveSummary(error == null ? text : GeminiService.FALLBACK_SUMMARY);
+            job.setCompletedAt(LocalDateTime.now());
+            job.setStatus(error == null ? ReportJob.Status.DONE : ReportJob.Status.FAILED);
+        });
+        return job;
+    }
+
+    public Optional<ReportJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public Optional<CableLifecycleReport> buildReport(Long cableId) {
+        LifecycleAggregate lifecycle = aggregateStore.get(cableId).orElse(null);
+
+        if (lifecycle == null || lifecycle.getCount() == 0) {
+            return Optional.empty();
+        }
+
+        CableTelemetry firstRecord = lifecycle.getFirst();
+        CableTelemetry lastRecord = lifecycle.getLast();
+
+        // Days are elapsed event time since the first reading (in the cable's RUL time scale, see RulEstimator),
+        // so replayed or late data lands on the right day however fast it was ingested
+        long finalDay = dayOf(firstRecord, lastRecord);
+
+        // A list, not a map keyed by day: milestones that round to the same day are all kept
+        List<CableLifecycleReport.Milestone> milestones = new ArrayList<>();
+        lifecycle.getMilestones().values().stream()
+                .sorted(Comparator.comparing(CableTelemetry::getTimestamp, Comparator.nullsLast(Comparator.naturalOrder())))
+                .forEach(record -> {
+                    long day = dayOf(firstRecord, record);
+                    milestones.add(new CableLifecycleReport.Milestone("Day " + day, day, record));
+                });
+
+        milestones.add(new CableLifecycleReport.Milestone("Final Status (Day " + finalDay + ")", finalDay, lastRecord));
+
+        double finalSnr = lastRecord.getSnr();
+        double finalMse = lastRecord.getMse();
+        double avgTemp = lifecycle.getAverage(LifecycleAggregate.Metric.TEMPERATURE);
+        double avgAttn = lifecycle.getAverage(LifecycleAggregate.Metric.ATTENUATION);
+
+        CarbonMetrics exactMetrics = sustainabilityService.calculateMetrics(cableId, lastRecord.getHealth());
+        double exactAvoidedCarbon = Math.round(exactMetrics.getAvoidedCarbonKg() * 100.0) / 100.0;
+
+        return Optional.of(CableLifecycleReport.builder()
+                .cableId(cableId)
+                .startingHealth(firstRecord.getHealth())
+                .finalHealth(lastRecord.getHealth())
+                .averageOperatingTemp(avgTemp)
+                .averageAttenuation(avgAttn)
+                .finalSnr(finalSnr)
+                .finalMse(finalMse)
+                .avoidedCarbonKg(exactAvoidedCarbon)
+                .historicalTimeline(null)
+                .degradationMilestones(milestones)
+                .build());
+    }
+
+    // Finished jobs are kept for a while so a slow poller still finds them; swept by ReportJobScheduler
+    public int evictExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(jobRetention);
+        int before = jobs.size();
+        jobs.values().removeIf(job -> job.getCompletedAt() != null && job.getCompletedAt().isBefore(cutoff));
+        return before - jobs.size();
+    }
+
+    private static String noData(Long cableId) {
+        return "No data found for Cable ID: " + cableId;
+    }
+
+    private long dayOf(CableTelemetry first, CableTelemetry record) {
+        return Math.round(rulEstimator.elapsedDays(first.getCableId(), first.getTimestamp(), record.getTimestamp()));
+    }
+}
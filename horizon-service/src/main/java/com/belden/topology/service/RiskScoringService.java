@@ -1,41 +1,88 @@
 package com.belden.topology.service;
 
+import com.belden.topology.cache.ImpactIndex;
+import com.belden.topology.cache.LatestTelemetryCache;
+import com.belden.topology.cache.TopologySnapshotCache;
+import com.belden.topology.model.CableTelemetry;
 import com.belden.topology.model.RiskAssessment;
-import com.belden.topology.repository.CableTelemetryRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.neo4j.core.Neo4jClient;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
 @Service
 @RequiredArgsConstructor
 public class RiskScoringService {
 
-    private final Neo4jClient neo4jClient;
-    private final CableTelemetryRepository telemetryRepository;
+    private static final int MAX_HOPS = 3;
+
+    // Highest score first; ties by cable id so the order is stable between calls
+    private static final Comparator<RiskAssessment> RISKIEST_FIRST =
+            Comparator.comparingInt(RiskAssessment::getOverallRiskScore).reversed()
+                    .thenComparing(RiskAssessment::getCableId);
+
+    private final TopologySnapshotCache topologySnapshots;
+    private final LatestTelemetryCache latestCache;
 
     public RiskAssessment calculateFacilityRisk(Long cableId) {
+        return calculateFacilityRisk(topologySnapshots.impactIndex(), cableId, latestCache.get(cableId).orElse(null));
+    }
 
-        // 1. TOPOLOGY RISK (FIXED GRAPH QUERY)
-        // We use -[*1..3]-> to traverse up to 3 hops downstream, regardless of relationship name.
+    // Scores against a topology snapshot and latest reading the caller already holds
+    public RiskAssessment calculateFacilityRisk(ImpactIndex impactIndex, Long cableId, CableTelemetry latest) {
+        // We traverse up to 3 hops downstream, regardless of relationship name.
         // This ensures we catch the Machines even if they are behind a Switch.
-        Long downstreamNodes = neo4jClient.query(
-                "MATCH (c:Cable) WHERE c.id = $id MATCH (c)-[*1..3]->(m:Machine) RETURN count(DISTINCT m)"
-        ).bind(cableId).to("id").fetchAs(Long.class).one().orElse(0L);
+        return score(cableId, impactIndex.countDownstreamMachines(cableId, MAX_HOPS), latest);
+    }
+
+    // Scores every cable in the topology (or just cableIds) in one pass: one traversal sweep over the
+    // in-memory index, one cache lookup with a single query for the misses. Riskiest first, at most `limit`.
+    public List<RiskAssessment> calculateFleetRisk(Collection<Long> cableIds, int limit) {
+        ImpactIndex impactIndex = topologySnapshots.impactIndex();
+        long[] ids = (cableIds == null || cableIds.isEmpty())
+                ? impactIndex.cableIds()
+                : cableIds.stream().mapToLong(Long::longValue).distinct().toArray();
+
+        // 1. Downstream machine counts for all of them
+        long[] downstream = impactIndex.countDownstreamMachines(ids, MAX_HOPS);
+
+        // 2. Latest reading for all of them
+        List<Long> boxedIds = Arrays.stream(ids).boxed().toList();
+        Map<Long, CableTelemetry> latest = latestCache.getAll(boxedIds);
+
+        // 3. Score in memory, keeping only the top `limit` in a min-heap
+        PriorityQueue<RiskAssessment> top = new PriorityQueue<>(RISKIEST_FIRST.reversed());
+        for (int i = 0; i < ids.length; i++) {
+            top.add(score(ids[i], downstream[i], latest.get(ids[i])));
+            if (top.size() > limit) top.poll();
+        }
+
+        List<RiskAssessment> ranked = new ArrayList<>(top);
+        ranked.sort(RISKIEST_FIRST);
+        return ranked;
+    }
+
+    private RiskAssessment score(Long cableId, long downstreamNodes, CableTelemetry latest) {
+
+        // 1. TOPOLOGY RISK (IN-MEMORY GRAPH INDEX)
 
         // Normalize: If > 3 machines depend on it, risk is MAX (100).
         double topologyRisk = Math.min(downstreamNodes * 33.3, 100.0);
 
         // 2. ASSET HEALTH RISK
-        double currentHealth = telemetryRepository.findTopByCableIdOrderByTimestampDesc(cableId)
-                .map(t -> t.getHealth())
-                .orElse(100.0);
+        // One reading feeds both the health and the environmental factor
+        double currentHealth = (latest != null) ? latest.getHealth() : 100.0;
 
         double healthRisk = Math.max(0, 100.0 - currentHealth);
 
         // 3. ENVIRONMENTAL STRESS
-        double currentTemp = telemetryRepository.findTopByCableIdOrderByTimestampDesc(cableId)
-                .map(t -> t.getTemperature())
-                .orElse(25.0);
+        double currentTemp = (latest != null) ? latest.getTemperature() : 25.0;
 
         double envRisk = (currentTemp > 40) ? 80.0 : (currentTemp > 30 ? 40.0 : 10.0);
 
@@ -55,6 +102,7 @@ public class RiskScoringService {
                 : "Topology Stable";
 
         return RiskAssessment.builder()
+                .cableId(cableId)
                 .overallRiskScore(finalScore)
                 .topologyCriticality(topologyRisk)
                 .assetHealthRisk(healthRisk)
@@ -0,0 +1,299 @@
+package com.belden.topology.service;
+
+import com.belden.topology.model.CableTelemetry;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Remaining useful life from a least-squares line through each cable's last `window` (timestamp,
+ * health) readings, instead of a two-point delta. One noisy sample moves the slope by about
+ * 1/window of what it would with two points.
+ *
+ * Each cable keeps a ring buffer of the window plus the running sums of the fit, so an update is
+ * O(1): add the new point, subtract the evicted one. The sums are recomputed from the ring once
+ * per lap so floating-point drift can't build up. Memory per cable is two double[window] plus a
+ * few fields, about 600 bytes at the default window of 32.
+ *
+ * Time runs through a time scale: days of wear per day of timestamps. Device readings use
+ * horizon.rul.time-scale, 1 unless the devices themselves are simulated. The demo audit passes its own
+ * (5 days every 2 s tick = 216000) per call. A cable's trend is kept in one scale; a reading in another
+ * scale starts the trend over, so compressed and real time are never fitted together.
+ */
+@Service
+public class RulEstimator {
+
+    private static final double SECONDS_PER_DAY = 86_400.0;
+
+    private final int window;
+    private final double defaultTimeScale;
+
+    private final Long2ObjectOpenHashMap<Fit> fits = new Long2ObjectOpenHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongAdder estimates = new LongAdder();
+    private final LongAdder seeded = new LongAdder();
+    private final LongAdder rescaled = new LongAdder();
+
+    public RulEstimator(@Value("${horizon.rul.window}") int window,
+                        @Value("${horizon.rul.time-scale}") double defaultTimeScale) {
+        this.window = Math.max(2, window);
+        this.defaultTimeScale = defaultTimeScale;
+    }
+
+    // Adds the (already health-scored) reading to its cable's fit and returns the RUL in days.
+    // `previous` is the cable's last known reading; it seeds the fit when the cable has no state yet
+    // (first reading since startup), so the trend survives a restart.
+    public double estimate(CableTelemetry telemetry, CableTelemetry previous) {
+        return estimate(telemetry, previous, defaultTimeScale);
+    }
+
+    // Same, for a source whose timestamps run at `timeScale` days of wear per day (the simulated audit)
+    public double estimate(CableTelemetry telemetry, CableTelemetry previous, double timeScale) {
+        estimates.increment();
+        Fit fit = fitFor(telemetry.getCableId());
+        synchronized (fit) {
+            if (fit.timeScale != timeScale) {
+                if (fit.size > 0) rescaled.increment();
+                fit.reset(timeScale);
+            }
+            if (fit.size == 0 && previous != null && previous.getTimestamp() != null
+                    && telemetry.getTimestamp() != null && previous.getTimestamp().isBefore(telemetry.getTimestamp())) {
+                fit.add(days(previous.getTimestamp(), timeScale), previous.getHealth());
+                seeded.increment();
+            }
+            fit.add(days(telemetry.getTimestamp(), timeScale), telemetry.getHealth());
+            return fit.rulDays(telemetry.getHealth());
+        }
+    }
+
+    // The cable's RUL from its current trend, without adding a reading (for readings too old to join it)
+    public double current(Long cableId, double currentHealth) {
+        Fit fit;
+        lock.readLock().lock();
+        try {
+            fit = fits.get(cableId.longValue());
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (fit == null) return currentHealth <= 0 ? 0.0 : RulService.DEMO_LIFESPAN_DAYS;
+        synchronized (fit) {
+            return fit.rulDays(currentHealth);
+        }
+    }
+
+    // Days of wear between two of the cable's readings, in the time scale its RUL is estimated in
+    public double elapsedDays(Long cableId, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) return 0.0;
+        return Duration.between(from, to).toNanos() / 1e9 / SECONDS_PER_DAY * timeScaleOf(cableId);
+    }
+
+    // Sets rulInDays on every record in order; previousByCable seeds cables seen for the first time
+    public void estimateAll(List<CableTelemetry> records, Map<Long, CableTelemetry> previousByCable) {
+        estimateAll(records, previousByCable, defaultTimeScale);
+    }
+
+    public void estimateAll(List<CableTelemetry> records, Map<Long, CableTelemetry> previousByCable, double timeScale) {
+        for (CableTelemetry record : records) {
+            record.setRulInDays(estimate(record, previousByCable.get(record.getCableId()), timeScale));
+        }
+    }
+
+    // Copies the fits of these cables; running the returned action puts them back as they are now.
+    // Lets a caller undo estimates whose readings were rolled back instead of stored.
+    public Runnable checkpoint(Collection<Long> cableIds) {
+        Map<Fit, Fit> saved = new HashMap<>();
+        for (Long cableId : cableIds) {
+            Fit fit = fitFor(cableId);
+            synchronized (fit) {
+                saved.put(fit, fit.copy());
+            }
+        }
+        return () -> saved.forEach((fit, copy) -> {
+            synchronized (fit) {
+                fit.restore(copy);
+            }
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        int cables;
+        lock.readLock().lock();
+        try {
+            cables = fits.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("window", window);
+        stats.put("defaultTimeScale", defaultTimeScale);
+        stats.put("cablesTracked", cables);
+        stats.put("estimates", estimates.sum());
+        stats.put("seededFromLatest", seeded.sum());
+        stats.put("restartedOnTimeScaleChange", rescaled.sum());
+        return stats;
+    }
+
+    // Days of wear since the epoch
+    private static double days(LocalDateTime timestamp, double timeScale) {
+        LocalDateTime at = timestamp != null ? timestamp : LocalDateTime.now();
+        double seconds = at.toEpochSecond(ZoneOffset.UTC) + at.getNano() / 1e9;
+        return seconds / SECONDS_PER_DAY * timeScale;
+    }
+
+    private double timeScaleOf(Long cableId) {
+        Fit fit;
+        lock.readLock().lock();
+        try {
+            fit = fits.get(cableId.longValue());
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (fit == null) return defaultTimeScale;
+        synchronized (fit) {
+            return fit.timeScale;
+        }
+    }
+
+    private Fit fitFor(Long cableId) {
+        long key = cableId;
+        lock.readLock().lock();
+        try {
+            Fit existing = fits.get(key);
+            if (existing != null) return existing;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            Fit fit = fits.get(key);
+            if (fit == null) {
+                fit = new Fit(window, defaultTimeScale);
+                fits.put(key, fit);
+            }
+            return fit;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ring buffer of (x, y) with the sums of an ordinary least-squares line. x is stored relative to
+    // a recent reading so the sums stay small.
+    private static final class Fit {
+
+        private final double[] xs;
+        private final double[] ys;
+        private double timeScale;
+        private int size;
+        private int next;
+        private double origin = Double.NaN;
+        private double latestX = Double.NEGATIVE_INFINITY;
+        private double sumX, sumY, sumXX, sumXY;
+
+        Fit(int window, double timeScale) {
+            xs = new double[window];
+            ys = new double[window];
+            this.timeScale = timeScale;
+        }
+
+        Fit copy() {
+            Fit copy = new Fit(xs.length, timeScale);
+            copy.restore(this);
+            return copy;
+        }
+
+        void restore(Fit from) {
+            System.arraycopy(from.xs, 0, xs, 0, xs.length);
+            System.arraycopy(from.ys, 0, ys, 0, ys.length);
+            timeScale = from.timeScale;
+            size = from.size;
+            next = from.next;
+            origin = from.origin;
+            latestX = from.latestX;
+            sumX = from.sumX;
+            sumY = from.sumY;
+            sumXX = from.sumXX;
+            sumXY = from.sumXY;
+        }
+
+        void reset(double timeScale) {
+            this.timeScale = timeScale;
+            size = 0;
+            next = 0;
+            origin = Double.NaN;
+            latestX = Double.NEGATIVE_INFINITY;
+            sumX = sumY = sumXX = sumXY = 0;
+        }
+
+        void add(double xDays, double y) {
+            if (Double.isNaN(origin)) origin = xDays;
+            double x = xDays - origin;
+
+            if (size == xs.length) {
+                double oldX = xs[next], oldY = ys[next];
+                sumX -= oldX;
+                sumY -= oldY;
+                sumXX -= oldX * oldX;
+                sumXY -= oldX * oldY;
+            } else {
+                size++;
+            }
+            xs[next] = x;
+            ys[next] = y;
+            sumX += x;
+            sumY += y;
+            sumXX += x * x;
+            sumXY += x * y;
+            if (x > latestX) latestX = x;
+
+            next = (next + 1) % xs.length;
+            if (next == 0) resum();
+        }
+
+        double rulDays(double currentHealth) {
+            if (currentHealth <= 0) return 0.0;
+            if (size < 2) return RulService.DEMO_LIFESPAN_DAYS; // No trend yet
+
+            double n = size;
+            double spread = sumXX - sumX * sumX / n;
+            if (spread <= 1e-12) return RulService.DEMO_LIFESPAN_DAYS; // All readings at the same instant
+
+            double slope = (sumXY - sumX * sumY / n) / spread; // health per day
+            if (slope >= 0) return RulService.DEMO_LIFESPAN_DAYS;
+
+            // Where the line says health is now, and how long until it reaches zero
+            double intercept = (sumY - slope * sumX) / n;
+            double fittedHealth = intercept + slope * latestX;
+            return Math.max(0, fittedHealth / -slope);
+        }
+
+        // Once per lap: move the origin up to the newest reading and rebuild the sums exactly
+        private void resum() {
+            double shift = latestX;
+            origin += shift;
+            latestX = 0;
+
+            sumX = sumY = sumXX = sumXY = 0;
+            for (int i = 0; i < size; i++) {
+                xs[i] -= shift;
+                sumX += xs[i];
+                sumY += ys[i];
+                sumXX += xs[i] * xs[i];
+                sumXY += xs[i] * ys[i];
+            }
+        }
+    }
+}
@@ -1,15 +1,61 @@
 package com.belden.topology.service;
 
-import lombok.RequiredArgsConstructor;
+import com.belden.topology.model.CableTelemetry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+import java.util.List;
+
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class RulService {
 
-    private static final double DEMO_LIFESPAN_DAYS = 300.0;
+    static final double DEMO_LIFESPAN_DAYS = 300.0;
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    private final HealthScoringKernel batchKernel = selectKernel();
 
     public double calculateHealth(double attenuation, double temp, double load, double snr, double mse, int ageYears) {
+        return health(attenuation, temp, load, snr, mse, ageYears);
+    }
+
+    // Batch form of calculateHealth over columns: healthOut[i] is the score of reading i, for i < count
+    public void calculateHealth(double[] attenuation, double[] temp, double[] load, double[] snr, double[] mse,
+                                double[] ageYears, double[] healthOut, int count) {
+        batchKernel.health(attenuation, temp, load, snr, mse, ageYears, healthOut, count);
+    }
+
+    // Sets health on every record in place, going through the batch kernel column by column
+    public void scoreHealth(List<CableTelemetry> records, int ageYears) {
+        int n = records.size();
+        double[] attenuation = new double[n];
+        double[] temp = new double[n];
+        double[] load = new double[n];
+        double[] snr = new double[n];
+        double[] mse = new double[n];
+        double[] age = new double[n];
+        Arrays.fill(age, ageYears);
+        for (int i = 0; i < n; i++) {
+            CableTelemetry t = records.get(i);
+            attenuation[i] = t.getAttenuation();
+            temp[i] = t.getTemperature();
+            load[i] = t.getLoad();
+            snr[i] = t.getSnr();
+            mse[i] = t.getMse();
+        }
+
+        double[] health = new double[n];
+        calculateHealth(attenuation, temp, load, snr, mse, age, health, n);
+        for (int i = 0; i < n; i++) records.get(i).setHealth(health[i]);
+    }
+
+    public String getBatchKernelName() {
+        return batchKernel.name();
+    }
+
+    static double health(double attenuation, double temp, double load, double snr, double mse, double ageYears) {
         double health = 100.0;
 
         if (temp > 25) {
@@ -31,18 +77,20 @@ public class RulService {
         return Math.max(0, Math.min(100, health));
     }
 
-    public double calculateRulDays(double currentHealth, double previousHealth, int daysPassedInStep) {
-        if (currentHealth <= 0) return 0.0;
-
-        double healthDrop = previousHealth - currentHealth;
-
-        if (healthDrop <= 0) {
-            return DEMO_LIFESPAN_DAYS;
+    // The Vector API is an incubator module: only present with --add-modules jdk.incubator.vector.
+    // The vector kernel is only built with -P vector (src/vector/java) and is loaded by name,
+    // so that without the module or the class this class still loads.
+    static HealthScoringKernel selectKernel() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                return (HealthScoringKernel) Class.forName(RulService.class.getPackageName() + ".VectorHealthScoringKernel")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ClassNotFoundException e) {
+                log.info(">>> [SCORING] Vector kernel not built (mvn -P vector), using scalar loops");
+            } catch (ReflectiveOperationException | LinkageError e) {
+                log.warn(">>> [SCORING] Vector kernel unavailable, using scalar loops: {}", e.toString());
+            }
         }
-
-        double dropPerDay = healthDrop / daysPassedInStep;
-        double remainingDays = currentHealth / dropPerDay;
-
-        return Math.max(0, remainingDays);
+        return new ScalarHealthScoringKernel();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package com.belden.topology.service;
+
+// Plain loops over the scalar formulas. Used when the Vector API module is not loaded.
+final class ScalarHealthScoringKernel implements HealthScoringKernel {
+
+    @Override
+    public void health(double[] attenuation, double[] temp, double[] load, double[] snr, double[] mse,
+                       double[] ageYears, double[] healthOut, int count) {
+        healthRange(attenuation, temp, load, snr, mse, ageYears, healthOut, 0, count);
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    // Shared with the vector kernel for the tail that doesn't fill a whole vector
+    static void healthRange(double[] attenuation, double[] temp, double[] load, double[] snr, double[] mse,
+                            double[] ageYears, double[] healthOut, int from, int to) {
+        for (int i = from; i < to; i++) {
+            healthOut[i] = RulService.health(attenuation[i], temp[i], load[i], snr[i], mse[i], ageYears[i]);
+        }
+    }
+}
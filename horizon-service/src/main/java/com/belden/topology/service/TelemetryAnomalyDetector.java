@@ -0,0 +1,175 @@
+package com.belden.topology.service;
+
+import com.belden.topology.model.CableTelemetry;
+import com.belden.topology.model.TelemetryAnomaly;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Streaming anomaly check on the consumer path. Each cable keeps an exponentially weighted mean
+ * and variance of temperature, attenuation, SNR and MSE; a reading more than z-threshold standard
+ * deviations from its cable's mean is flagged. O(1) per record, no database access, and nothing
+ * is allocated unless something is flagged.
+ *
+ * Memory per cable is fixed: one double[9] (count + mean/variance per metric, 88 bytes) plus its
+ * map slot, so about 100 bytes per cable regardless of how long it has been reporting.
+ */
+@Service
+public class TelemetryAnomalyDetector {
+
+    private static final String[] METRICS = {"temperature", "attenuation", "snr", "mse"};
+    private static final int COUNT = 0;
+
+    private final boolean enabled;
+    private final double alpha;
+    private final double zThreshold;
+    private final long warmup;
+    private final double minRelativeStd;
+
+    // cableId -> [count, mean0, var0, mean1, var1, ...]
+    private final Long2ObjectOpenHashMap<double[]> statsByCable = new Long2ObjectOpenHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongAdder observed = new LongAdder();
+    private final LongAdder flagged = new LongAdder();
+
+    public TelemetryAnomalyDetector(@Value("${horizon.anomaly.enabled}") boolean enabled,
+                                    @Value("${horizon.anomaly.alpha}") double alpha,
+                                    @Value("${horizon.anomaly.z-threshold}") double zThreshold,
+                                    @Value("${horizon.anomaly.warmup}") long warmup,
+                                    @Value("${horizon.anomaly.min-relative-std}") double minRelativeStd) {
+        this.enabled = enabled;
+        this.alpha = alpha;
+        this.zThreshold = zThreshold;
+        this.warmup = warmup;
+        this.minRelativeStd = minRelativeStd;
+    }
+
+    // Scores the reading against its cable's history, then folds it in. Returns null when nothing tripped.
+    public TelemetryAnomaly observe(CableTelemetry telemetry) {
+        if (!enabled) return null;
+        observed.increment();
+
+        double[] stats = statsFor(telemetry.getCableId());
+        List<TelemetryAnomaly.Deviation> deviations = null;
+
+        // A cable lives on one Kafka partition, so this lock is practically never contended
+        synchronized (stats) {
+            boolean armed = stats[COUNT] >= warmup;
+            stats[COUNT]++;
+
+            for (int m = 0; m < METRICS.length; m++) {
+                double value = value(telemetry, m);
+                int meanAt = 1 + 2 * m;
+                int varAt = meanAt + 1;
+
+                if (stats[COUNT] == 1) {
+                    stats[meanAt] = value; // first reading seeds the mean
+                    continue;
+                }
+
+                double mean = stats[meanAt];
+                double diff = value - mean;
+
+                if (armed) {
+                    // Floor the deviation so a perfectly flat signal doesn't flag rounding noise
+                    double std = Math.max(Math.sqrt(stats[varAt]), Math.max(Math.abs(mean) * minRelativeStd, 1e-9));
+                    double z = diff / std;
+                    if (Math.abs(z) > zThreshold) {
+                        if (deviations == null) deviations = new ArrayList<>(METRICS.length);
+                        deviations.add(new TelemetryAnomaly.Deviation(METRICS[m], value, mean, z));
+                    }
+                }
+
+                // Incremental EWMA mean and variance (Finch, 2009)
+                double increment = alpha * diff;
+                stats[meanAt] = mean + increment;
+                stats[varAt] = (1 - alpha) * (stats[varAt] + diff * increment);
+            }
+        }
+
+        if (deviations == null) return null;
+        flagged.increment();
+        return TelemetryAnomaly.builder()
+                .cableId(telemetry.getCableId())
+                .timestamp(telemetry.getTimestamp())
+                .deviations(deviations)
+                .build();
+    }
+
+    // Copies these cables' statistics; running the returned action puts them back, for readings that were rolled back
+    public Runnable checkpoint(Collection<Long> cableIds) {
+        if (!enabled) return () -> { };
+        Map<double[], double[]> saved = new HashMap<>();
+        for (Long cableId : cableIds) {
+            double[] stats = statsFor(cableId);
+            synchronized (stats) {
+                saved.put(stats, stats.clone());
+            }
+        }
+        return () -> saved.forEach((stats, copy) -> {
+            synchronized (stats) {
+                System.arraycopy(copy, 0, stats, 0, stats.length);
+            }
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        int cables;
+        lock.readLock().lock();
+        try {
+            cables = statsByCable.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("cablesTracked", cables);
+        stats.put("readingsObserved", observed.sum());
+        stats.put("anomaliesFlagged", flagged.sum());
+        return stats;
+    }
+
+    private static double value(CableTelemetry telemetry, int metric) {
+        return switch (metric) {
+            case 0 -> telemetry.getTemperature();
+            case 1 -> telemetry.getAttenuation();
+            case 2 -> telemetry.getSnr();
+            default -> telemetry.getMse();
+        };
+    }
+
+    private double[] statsFor(Long cableId) {
+        long key = cableId;
+        lock.readLock().lock();
+        try {
+            double[] existing = statsByCable.get(key);
+            if (existing != null) return existing;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            double[] stats = statsByCable.get(key);
+            if (stats == null) {
+                stats = new double[1 + 2 * METRICS.length];
+                statsByCable.put(key, stats);
+            }
+            return stats;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
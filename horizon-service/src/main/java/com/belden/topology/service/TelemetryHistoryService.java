@@ -0,0 +1,276 @@
+package com.belden.topology.service;
+
+import com.belden.topology.model.CableTelemetry;
+import com.belden.topology.model.TelemetryPage;
+import com.belden.topology.model.TelemetryPoint;
+import com.belden.topology.repository.CableTelemetryRepository;
+import com.belden.topology.service.TelemetryRollupService.Rollup;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads a cable's history without materialising it as JPA entities.
+ * Downsampling runs as a GROUP BY inside Postgres, so the JVM only ever holds the requested
+ * number of points. Wide ranges read the 1h/1m rollups for the whole buckets they hold, and only
+ * touch raw partitions for the partial buckets at either edge and the part newer than the rollup
+ * watermark. Raw exports stream rows from a server-side cursor straight to the response.
+ */
+@Service
+public class TelemetryHistoryService {
+
+    public static final int DEFAULT_POINTS = 200;
+    public static final int MAX_POINTS = 5000;
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    // Keyset start positions for a first page
+    private static final LocalDateTime BEFORE_ALL = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime AFTER_ALL = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+    // Coarsest first
+    private static final Rollup[] SOURCES = {Rollup.HOUR, Rollup.MINUTE};
+
+    // Rows pulled per cursor round-trip during an export
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectMapper objectMapper;
+    private final TelemetryRollupService rollupService;
+    private final CableTelemetryRepository repository;
+
+    public TelemetryHistoryService(JdbcTemplate jdbcTemplate,
+                                   DataSource dataSource,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper,
+                                   TelemetryRollupService rollupService,
+                                   CableTelemetryRepository repository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rollupService = rollupService;
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+
+        // The Postgres driver only uses a cursor when fetchSize > 0 and autocommit is off,
+        // which is why exports run inside a read-only transaction.
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(EXPORT_FETCH_SIZE);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    // Newest point first, like the old /history endpoint
+    public List<TelemetryPoint> getDownsampledHistory(Long cableId, LocalDateTime from, LocalDateTime to, int points) {
+        int targetPoints = Math.max(1, Math.min(points, MAX_POINTS));
+
+        // 1. Resolve an open range to the cable's actual first/last reading (rollups outlive raw partitions)
+        if (from == null || to == null) {
+            LocalDateTime[] bounds = jdbcTemplate.queryForObject("""
+                    SELECT min(lo), max(hi) FROM (
+                        SELECT min(timestamp) AS lo, max(timestamp) AS hi FROM cable_telemetry WHERE cable_id = ?
+                        UNION ALL SELECT min(bucket), max(last_ts) FROM cable_telemetry_1m WHERE cable_id = ?
+                        UNION ALL SELECT min(bucket), max(last_ts) FROM cable_telemetry_1h WHERE cable_id = ?
+                    ) b
+                    """,
+                    (rs, rowNum) -> new LocalDateTime[]{toLocal(rs.getTimestamp(1)), toLocal(rs.getTimestamp(2))},
+                    cableId, cableId, cableId);
+            if (bounds == null || bounds[0] == null) return Collections.emptyList();
+            if (from == null) from = bounds[0];
+            if (to == null) to = bounds[1];
+        }
+        if (to.isBefore(from)) return Collections.emptyList();
+
+        // 2. Split the range into equal time buckets, one per requested point
+        double rangeSeconds = Duration.between(from, to).toNanos() / 1e9;
+        double bucketSeconds = Math.max(rangeSeconds / targetPoints, 0.001);
+
+        // 3. Read the coarsest source whose buckets still fit in one point.
+        // timestamp(6) keeps microseconds, so "< to + 1µs" is "<= to" as a half-open range.
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(from));
+        args.add(bucketSeconds);
+        args.add(targetPoints - 1);
+        List<String> parts = new ArrayList<>();
+        addSource(0, bucketSeconds, cableId, from, to.plus(1, ChronoUnit.MICROS), parts, args);
+
+        // 4. Let Postgres fold each bucket into min/max/last + averages. Buckets count from `from`,
+        // and a reading exactly at `to` joins the last one, so there are never more than targetPoints.
+        return jdbcTemplate.query("""
+                SELECT least(floor(extract(epoch FROM ts - CAST(? AS timestamp)) / ?), ?) AS bucket,
+                       max(last_ts) AS ts,
+                       sum(samples) AS samples,
+                       (array_agg(health_last ORDER BY last_ts DESC, seq DESC))[1] AS health,
+                       min(health_min) AS min_health,
+                       max(health_max) AS max_health,
+                       (array_agg(rul_last ORDER BY last_ts DESC, seq DESC))[1] AS rul_in_days,
+                       sum(temperature_sum) / sum(samples) AS temperature,
+                       sum(attenuation_sum) / sum(samples) AS attenuation,
+                       sum(snr_sum) / sum(samples) AS snr,
+                       sum(mse_sum) / sum(samples) AS mse,
+                       sum(load_sum) / sum(samples) AS load
+                FROM (%s) source
+                GROUP BY bucket
+                ORDER BY bucket DESC
+                """.formatted(String.join(" UNION ALL ", parts)),
+                (rs, rowNum) -> mapPoint(rs),
+                args.toArray());
+    }
+
+    // Reads [start, end) in rollup shape: the whole buckets of the coarsest rollup that fits (and is rolled
+    // up that far), and the partial buckets at either edge from the next finer source, down to raw rows.
+    // Raw rows look like one-sample buckets; seq breaks ties between raw rows with equal timestamps.
+    private void addSource(int level, double bucketSeconds, Long cableId, LocalDateTime start, LocalDateTime end,
+                           List<String> parts, List<Object> args) {
+        if (!start.isBefore(end)) return;
+
+        if (level == SOURCES.length) {
+            parts.add("""
+                    SELECT timestamp AS ts, 1 AS samples, health AS health_last, health AS health_min, health AS health_max,
+                           rul_in_days AS rul_last, temperature AS temperature_sum, attenuation AS attenuation_sum,
+                           snr AS snr_sum, mse AS mse_sum, load AS load_sum, timestamp AS last_ts, id AS seq
+                    FROM cable_telemetry
+                    WHERE cable_id = ? AND timestamp >= ? AND timestamp < ?
+                    """);
+            args.addAll(List.of(cableId, Timestamp.valueOf(start), Timestamp.valueOf(end)));
+            return;
+        }
+
+        Rollup rollup = SOURCES[level];
+        LocalDateTime watermark = rollupService.watermark(rollup);
+        LocalDateTime first = rollup.ceil(start);
+        LocalDateTime last = watermark == null ? first : rollup.floor(end.isBefore(watermark) ? end : watermark);
+        if (bucketSeconds < rollup.bucketSize().toSeconds() || !first.isBefore(last)) {
+            addSource(level + 1, bucketSeconds, cableId, start, end, parts, args);
+            return;
+        }
+
+        addSource(level + 1, bucketSeconds, cableId, start, first, parts, args);
+        parts.add("""
+                SELECT bucket AS ts, samples, health_last, health_min, health_max, rul_last,
+                       temperature_sum, attenuation_sum, snr_sum, mse_sum, load_sum, last_ts, 0 AS seq
+                FROM %s
+                WHERE cable_id = ? AND bucket >= ? AND bucket < ?
+                """.formatted(rollup.table()));
+        args.addAll(List.of(cableId, Timestamp.valueOf(first), Timestamp.valueOf(last)));
+        addSource(level + 1, bucketSeconds, cableId, last, end, parts, args);
+    }
+
+    // One page of raw rows. Newest first by default; the cursor is the (timestamp, id) of the previous page's last row.
+    public TelemetryPage getRawPage(Long cableId, boolean newestFirst, LocalDateTime cursorTimestamp, Long cursorId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // Ask for one extra row to know whether another page follows
+        List<CableTelemetry> rows;
+        if (newestFirst) {
+            rows = repository.findPageBefore(cableId,
+                    cursorTimestamp != null ? cursorTimestamp : AFTER_ALL,
+                    cursorId != null ? cursorId : Long.MAX_VALUE,
+                    pageSize + 1);
+        } else {
+            rows = repository.findPageAfter(cableId,
+                    cursorTimestamp != null ? cursorTimestamp : BEFORE_ALL,
+                    cursorId != null ? cursorId : Long.MIN_VALUE,
+                    pageSize + 1);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<CableTelemetry> page = hasMore ? rows.subList(0, pageSize) : rows;
+        CableTelemetry last = hasMore ? page.get(page.size() - 1) : null;
+        return TelemetryPage.builder()
+                .records(page)
+                .hasMore(hasMore)
+                .nextTimestamp(last != null ? last.getTimestamp() : null)
+                .nextId(last != null ? last.getId() : null)
+                .build();
+    }
+
+    // Writes every raw row in [from, to] as one JSON object per line, oldest first
+    public void exportRaw(Long cableId, LocalDateTime from, LocalDateTime to, OutputStream out) {
+        LocalDateTime start = (from != null) ? from : LocalDateTime.of(1970, 1, 1, 0, 0);
+        LocalDateTime end = (to != null) ? to : LocalDateTime.of(9999, 12, 31, 23, 59);
+
+        readOnlyTx.executeWithoutResult(status -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                cursorJdbcTemplate.query("""
+                        SELECT id, cable_id, attenuation, temperature, load, snr, mse,
+                               health, rul_in_days, timestamp, last_seen
+                        FROM cable_telemetry
+                        WHERE cable_id = ? AND timestamp >= ? AND timestamp <= ?
+                        ORDER BY timestamp, id
+                        """,
+                        (RowCallbackHandler) rs -> writeRow(json, rs),
+                        cableId, Timestamp.valueOf(start), Timestamp.valueOf(end));
+                json.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void writeRow(JsonGenerator json, ResultSet rs) throws SQLException {
+        try {
+            json.writeStartObject();
+            json.writeNumberField("id", rs.getLong("id"));
+            json.writeNumberField("cableId", rs.getLong("cable_id"));
+            json.writeNumberField("attenuation", rs.getDouble("attenuation"));
+            json.writeNumberField("temperature", rs.getDouble("temperature"));
+            json.writeNumberField("load", rs.getDouble("load"));
+            json.writeNumberField("snr", rs.getDouble("snr"));
+            json.writeNumberField("mse", rs.getDouble("mse"));
+            json.writeNumberField("health", rs.getDouble("health"));
+            json.writeNumberField("rulInDays", rs.getDouble("rul_in_days"));
+            writeTime(json, "timestamp", rs.getTimestamp("timestamp"));
+            writeTime(json, "lastSeen", rs.getTimestamp("last_seen"));
+            json.writeEndObject();
+            json.writeRaw('\n');
+        } catch (IOException e) {
+            // Client went away mid-export: abort the cursor instead of reading the rest
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeTime(JsonGenerator json, String field, Timestamp value) throws IOException {
+        if (value == null) json.writeNullField(field);
+        else json.writeStringField(field, value.toLocalDateTime().toString());
+    }
+
+    private static TelemetryPoint mapPoint(ResultSet rs) throws SQLException {
+        return TelemetryPoint.builder()
+                .timestamp(toLocal(rs.getTimestamp("ts")))
+                .samples(rs.getLong("samples"))
+                .health(rs.getDouble("health"))
+                .minHealth(rs.getDouble("min_health"))
+                .maxHealth(rs.getDouble("max_health"))
+                .rulInDays(rs.getDouble("rul_in_days"))
+                .temperature(rs.getDouble("temperature"))
+                .attenuation(rs.getDouble("attenuation"))
+                .snr(rs.getDouble("snr"))
+                .mse(rs.getDouble("mse"))
+                .load(rs.getDouble("load"))
+                .build();
+    }
+
+    private static LocalDateTime toLocal(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -0,0 +1,270 @@
+package com.belden.topology.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps cable_telemetry range-partitioned by timestamp, one partition per day or per week.
+ * Partitions are created ahead of time; anything outside them lands in cable_telemetry_default.
+ * Backfilled or far-future readings in the default partition get their period's partition as soon as
+ * the period is inside the retention window and not beyond the premade ones: the partition is built
+ * standalone, the rows are moved into it and it is attached, in one transaction.
+ * Retention drops whole partitions (DETACH + DROP), so expiring a day of data never runs a DELETE
+ * over the raw table. Hibernate still owns the entity mapping; it sees the parent table through
+ * hibernate.hbm2ddl.extra_physical_table_types.
+ */
+@Slf4j
+@Service
+@DependsOn("entityManagerFactory") // Runs after Hibernate's schema update, see migrateLegacyTable()
+public class TelemetryPartitionService {
+
+    public enum Interval { DAILY, WEEKLY }
+
+    static final String TABLE = "cable_telemetry";
+    private static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final String CABLE_TS_INDEX = "idx_cable_telemetry_cable_ts"; // Same name as on the entity
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\('([^']+)'\\) TO \\('([^']+)'\\)");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Interval interval;
+    private final int premake;
+    private final Duration rawRetention;
+
+    public TelemetryPartitionService(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${horizon.telemetry.partitions.interval}") Interval interval,
+                                     @Value("${horizon.telemetry.partitions.premake}") int premake,
+                                     @Value("${horizon.telemetry.retention.raw}") Duration rawRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.interval = interval;
+        this.premake = premake;
+        this.rawRetention = rawRetention;
+    }
+
+    // Before the Kafka listeners and schedulers start, so nothing writes to an unpartitioned table
+    @PostConstruct
+    public void init() {
+        transactionTemplate.executeWithoutResult(status -> {
+            String kind = jdbcTemplate.queryForObject(
+                    "SELECT (SELECT relkind FROM pg_class WHERE oid = to_regclass(?))::text", String.class, TABLE);
+            if (kind == null) {
+                createPartitionedTable();
+            } else if (!"p".equals(kind)) {
+                migrateLegacyTable();
+            }
+        });
+        maintain();
+    }
+
+    // Scheduled: premake upcoming partitions, give stray default-partition rows theirs, then expire old ones
+    public void maintain() {
+        LocalDate current = periodStart(LocalDate.now());
+        for (int i = 0; i <= premake; i++) {
+            createPartition(current);
+            current = next(current);
+        }
+        LocalDate premadeUntil = current;
+        for (LocalDate period : periodsInDefaultPartition()) {
+            if (period.isBefore(premadeUntil)) createPartition(period);
+        }
+        dropExpiredPartitions();
+    }
+
+    public List<Map<String, Object>> getPartitions() {
+        List<Map<String, Object>> partitions = new ArrayList<>();
+        for (Partition partition : listPartitions()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", partition.name());
+            entry.put("from", partition.from());
+            entry.put("to", partition.to());
+            partitions.add(entry);
+        }
+        return partitions;
+    }
+
+    public Interval getInterval() {
+        return interval;
+    }
+
+    public Duration getRawRetention() {
+        return rawRetention;
+    }
+
+    private void createPartitionedTable() {
+        // Same columns Hibernate generates for CableTelemetry; the partition key has to be part of the primary key
+        jdbcTemplate.execute("""
+                CREATE TABLE cable_telemetry (
+                    id bigint GENERATED BY DEFAULT AS IDENTITY,
+                    cable_id bigint,
+                    attenuation double precision NOT NULL,
+                    temperature double precision NOT NULL,
+                    load double precision NOT NULL,
+                    snr double precision NOT NULL,
+                    mse double precision NOT NULL,
+                    health double precision NOT NULL,
+                    rul_in_days double precision NOT NULL,
+                    timestamp timestamp(6) NOT NULL,
+                    last_seen timestamp(6),
+                    PRIMARY KEY (id, timestamp)
+                ) PARTITION BY RANGE (timestamp)
+                """);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION + " PARTITION OF " + TABLE + " DEFAULT");
+        // Created on the parent, Postgres adds it to every existing and future partition
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + CABLE_TS_INDEX + " ON " + TABLE + " (cable_id, timestamp, id)");
+    }
+
+    // A plain table (created by Hibernate on a fresh database, or left by an older version) is renamed,
+    // replaced by the partitioned one, and every row copied over: periods inside the retention window get
+    // their partitions, older rows wait in the default partition until retention expires them. The renamed
+    // table is kept untouched until an operator drops it, so the migration itself never deletes history.
+    private void migrateLegacyTable() {
+        String legacy = TABLE + "_legacy";
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + legacy);
+        jdbcTemplate.execute("ALTER TABLE " + legacy + " RENAME CONSTRAINT " + TABLE + "_pkey TO " + legacy + "_pkey");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS " + CABLE_TS_INDEX); // Frees the name for the partitioned index
+        createPartitionedTable();
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(rawRetention);
+        LocalDateTime oldest = jdbcTemplate.queryForObject(
+                "SELECT min(timestamp) FROM " + legacy + " WHERE timestamp >= ?", LocalDateTime.class, Timestamp.valueOf(cutoff));
+        if (oldest != null) {
+            // Partitions first, otherwise every copied row would end up in the default partition
+            for (LocalDate day = periodStart(oldest.toLocalDate()); !day.isAfter(LocalDate.now()); day = next(day)) {
+                createPartition(day);
+            }
+        }
+
+        // The partition key can't be null; an unstamped row keeps its place by when it was processed
+        int copied = jdbcTemplate.update("""
+                INSERT INTO cable_telemetry (id, cable_id, attenuation, temperature, load, snr, mse,
+                                             health, rul_in_days, timestamp, last_seen)
+                SELECT id, cable_id, attenuation, temperature, load, snr, mse,
+                       health, rul_in_days, coalesce(timestamp, last_seen, localtimestamp), last_seen
+                FROM cable_telemetry_legacy
+                """);
+        jdbcTemplate.queryForObject("""
+                SELECT setval(pg_get_serial_sequence('cable_telemetry', 'id'),
+                              greatest((SELECT max(id) FROM cable_telemetry_legacy), 1))
+                """, Long.class);
+
+        log.info(">>> [PARTITIONS] Migrated cable_telemetry to a partitioned table ({} rows copied)", copied);
+        log.warn(">>> [PARTITIONS] The old table is kept as {}; rows older than {} will expire from {} with retention. "
+                + "Drop {} once it is no longer needed.", legacy, rawRetention, TABLE, legacy);
+    }
+
+    private void createPartition(LocalDate start) {
+        String name = TABLE + "_p" + PARTITION_SUFFIX.format(start);
+        String bounds = "FROM ('" + start.atStartOfDay() + "') TO ('" + next(start).atStartOfDay() + "')";
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name)) return;
+
+                // Writers wait until commit, so no row for this range can reach the default partition between
+                // the check and the CREATE/ATTACH. Parent first, the order inserts lock in, so the two can't deadlock.
+                jdbcTemplate.execute("LOCK TABLE " + TABLE + " IN SHARE ROW EXCLUSIVE MODE");
+                Timestamp from = Timestamp.valueOf(start.atStartOfDay());
+                Timestamp to = Timestamp.valueOf(next(start).atStartOfDay());
+                boolean stray = jdbcTemplate.queryForObject(
+                        "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + " WHERE timestamp >= ? AND timestamp < ?)",
+                        Boolean.class, from, to);
+                if (!stray) {
+                    jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF " + TABLE + " FOR VALUES " + bounds);
+                    return;
+                }
+
+                // Rows for this range already sit in the default partition: CREATE ... PARTITION OF would fail.
+                // Build the partition standalone, move the rows over, then attach it (indexes are added on attach).
+                jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + TABLE + " INCLUDING DEFAULTS)");
+                int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION +
+                        " WHERE timestamp >= ? AND timestamp < ? RETURNING *) INSERT INTO " + name +
+                        " SELECT * FROM moved", from, to);
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + name + " FOR VALUES " + bounds);
+                log.info(">>> [PARTITIONS] Created {} with {} rows moved out of {}", name, moved, DEFAULT_PARTITION);
+            });
+        } catch (Exception e) {
+            // Overlaps a partition of the other interval (the interval setting was changed)
+            log.warn(">>> [PARTITIONS] Could not create {}: {}", name, e.getMessage());
+        }
+    }
+
+    // Periods inside the retention window that have rows in the default partition, oldest first
+    private List<LocalDate> periodsInDefaultPartition() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(rawRetention);
+        List<LocalDate> periods = new ArrayList<>();
+        jdbcTemplate.query("SELECT DISTINCT CAST(timestamp AS date) FROM " + DEFAULT_PARTITION + " WHERE timestamp >= ?",
+                rs -> {
+                    LocalDate period = periodStart(rs.getDate(1).toLocalDate());
+                    if (!periods.contains(period)) periods.add(period);
+                }, Timestamp.valueOf(cutoff));
+        periods.sort(Comparator.naturalOrder());
+        return periods;
+    }
+
+    private void dropExpiredPartitions() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(rawRetention);
+        for (Partition partition : listPartitions()) {
+            if (partition.to().isAfter(cutoff)) continue;
+
+            // DETACH makes the rows invisible at once; the DROP then just unlinks the files
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition.name());
+            jdbcTemplate.execute("DROP TABLE " + partition.name());
+            log.info(">>> [PARTITIONS] Dropped {} (older than {})", partition.name(), rawRetention);
+        }
+        // Left in the default partition: readings that arrived after their period was already dropped
+        jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE timestamp < ?", Timestamp.valueOf(cutoff));
+    }
+
+    // Range partitions of cable_telemetry, oldest first (the default partition is not listed)
+    private List<Partition> listPartitions() {
+        List<Partition> partitions = new ArrayList<>();
+        jdbcTemplate.query("""
+                SELECT c.relname, pg_get_expr(c.relpartbound, c.oid)
+                FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = to_regclass(?)
+                """, rs -> {
+            Matcher bound = RANGE_BOUND.matcher(rs.getString(2));
+            if (bound.find()) {
+                partitions.add(new Partition(rs.getString(1),
+                        Timestamp.valueOf(bound.group(1)).toLocalDateTime(),
+                        Timestamp.valueOf(bound.group(2)).toLocalDateTime()));
+            }
+        }, TABLE);
+        partitions.sort(Comparator.comparing(Partition::from));
+        return partitions;
+    }
+
+    private LocalDate periodStart(LocalDate day) {
+        return interval == Interval.WEEKLY ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : day;
+    }
+
+    private LocalDate next(LocalDate start) {
+        return interval == Interval.WEEKLY ? start.plusWeeks(1) : start.plusDays(1);
+    }
+
+    private record Partition(String name, LocalDateTime from, LocalDateTime to) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.belden.topology.service;
+
+import com.belden.topology.cache.LatestTelemetryCache;
+import com.belden.topology.cache.LifecycleAggregateStore;
+import com.belden.topology.model.CableTelemetry;
+import com.belden.topology.repository.CableTelemetryBatchRepository;
+import com.belden.topology.repository.CableTelemetryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Single write path for scored telemetry. The consumer and the audit scheduler both persist
+ * through here so the in-memory views of the latest state stay in step with Postgres.
+ */
+@Service
+@RequiredArgsConstructor
+public class TelemetryPersistenceService {
+
+    private final CableTelemetryRepository repository;
+    private final CableTelemetryBatchRepository batchRepository;
+    private final LatestTelemetryCache latestCache;
+    private final LifecycleAggregateStore aggregateStore;
+    private final LiveUpdateBroadcaster broadcaster;
+    private final TelemetryRollupService rollupService;
+
+    public CableTelemetry save(CableTelemetry telemetry) {
+        CableTelemetry saved = repository.save(telemetry);
+        TransactionHooks.afterCommit(() -> {
+            latestCache.put(saved);
+            aggregateStore.record(saved);
+            rollupService.recordWritten(saved.getTimestamp());
+            broadcaster.publishTelemetry(saved);
+        });
+        return saved;
+    }
+
+    public int saveAll(List<CableTelemetry> records) {
+        int saved = batchRepository.insertAll(records);
+        TransactionHooks.afterCommit(() -> {
+            latestCache.putAll(records);
+            aggregateStore.recordAll(records);
+            records.stream().map(CableTelemetry::getTimestamp).filter(Objects::nonNull)
+                    .min(Comparator.naturalOrder()).ifPresent(rollupService::recordWritten);
+            records.forEach(broadcaster::publishTelemetry);
+        });
+        return saved;
+    }
+}
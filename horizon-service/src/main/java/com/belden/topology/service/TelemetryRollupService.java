@@ -0,0 +1,225 @@
+package com.belden.topology.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Folds raw telemetry into per-cable 1-minute buckets (cable_telemetry_1m), and those into
+ * 1-hour buckets (cable_telemetry_1h). Each pass recomputes whole buckets from their source and
+ * overwrites them, so re-running a range is harmless. Late rows within the lookback are picked up
+ * by the regular pass; older ones (backfills) are reported through {@link #recordWritten}. Buckets
+ * whose source may already be past retention are never recomputed, since the overwrite would
+ * replace a complete bucket with whatever rows are left.
+ * A rollup is complete below its watermark; TelemetryHistoryService reads rollups below the
+ * watermark and the finer source above it.
+ */
+@Service
+public class TelemetryRollupService {
+
+    public enum Rollup {
+        MINUTE("cable_telemetry_1m", ChronoUnit.MINUTES, "minute"),
+        HOUR("cable_telemetry_1h", ChronoUnit.HOURS, "hour");
+
+        final String table;
+        final ChronoUnit unit;
+        final String datePart;
+
+        Rollup(String table, ChronoUnit unit, String datePart) {
+            this.table = table;
+            this.unit = unit;
+            this.datePart = datePart;
+        }
+
+        public String table() {
+            return table;
+        }
+
+        public Duration bucketSize() {
+            return unit.getDuration();
+        }
+
+        // Start of the bucket holding `time`
+        public LocalDateTime floor(LocalDateTime time) {
+            return time.truncatedTo(unit);
+        }
+
+        // Start of the first bucket that begins at or after `time`
+        public LocalDateTime ceil(LocalDateTime time) {
+            LocalDateTime start = time.truncatedTo(unit);
+            return start.equals(time) ? start : start.plus(1, unit);
+        }
+    }
+
+    // Columns shared by both rollup tables. Sums (not averages) so buckets can be merged exactly.
+    private static final String ROLLUP_COLUMNS =
+            "cable_id, bucket, samples, health_last, health_min, health_max, rul_last, " +
+            "temperature_sum, attenuation_sum, snr_sum, mse_sum, load_sum, last_ts";
+
+    private static final String OVERWRITE = """
+            ON CONFLICT (cable_id, bucket) DO UPDATE SET
+                samples = EXCLUDED.samples,
+                health_last = EXCLUDED.health_last,
+                health_min = EXCLUDED.health_min,
+                health_max = EXCLUDED.health_max,
+                rul_last = EXCLUDED.rul_last,
+                temperature_sum = EXCLUDED.temperature_sum,
+                attenuation_sum = EXCLUDED.attenuation_sum,
+                snr_sum = EXCLUDED.snr_sum,
+                mse_sum = EXCLUDED.mse_sum,
+                load_sum = EXCLUDED.load_sum,
+                last_ts = EXCLUDED.last_ts
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration lookback;
+    private final Duration rawRetention;
+    private final Duration minuteRetention;
+    private final Duration hourRetention;
+
+    // Everything before these instants is fully rolled up (null = nothing yet)
+    private volatile LocalDateTime minuteWatermark;
+    private volatile LocalDateTime hourWatermark;
+
+    // Oldest timestamp written behind the minute watermark since the last pass (backfills, late devices)
+    private final AtomicReference<LocalDateTime> oldestLateWrite = new AtomicReference<>();
+
+    public TelemetryRollupService(JdbcTemplate jdbcTemplate,
+                                  @Value("${horizon.telemetry.rollup.lookback}") Duration lookback,
+                                  @Value("${horizon.telemetry.retention.raw}") Duration rawRetention,
+                                  @Value("${horizon.telemetry.retention.rollup-1m}") Duration minuteRetention,
+                                  @Value("${horizon.telemetry.retention.rollup-1h}") Duration hourRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lookback = lookback;
+        this.rawRetention = rawRetention;
+        this.minuteRetention = minuteRetention;
+        this.hourRetention = hourRetention;
+    }
+
+    @PostConstruct
+    public void init() {
+        for (Rollup rollup : Rollup.values()) {
+            jdbcTemplate.execute("""
+                    CREATE TABLE IF NOT EXISTS %s (
+                        cable_id bigint NOT NULL,
+                        bucket timestamp(6) NOT NULL,
+                        samples bigint NOT NULL,
+                        health_last double precision NOT NULL,
+                        health_min double precision NOT NULL,
+                        health_max double precision NOT NULL,
+                        rul_last double precision NOT NULL,
+                        temperature_sum double precision NOT NULL,
+                        attenuation_sum double precision NOT NULL,
+                        snr_sum double precision NOT NULL,
+                        mse_sum double precision NOT NULL,
+                        load_sum double precision NOT NULL,
+                        last_ts timestamp(6) NOT NULL,
+                        PRIMARY KEY (cable_id, bucket)
+                    )
+                    """.formatted(rollup.table));
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + rollup.table + "_bucket_idx ON " + rollup.table + " (bucket)");
+        }
+        // Resume from what is already rolled up: the newest bucket is recomputed on the next pass
+        minuteWatermark = latestBucket(Rollup.MINUTE);
+        hourWatermark = latestBucket(Rollup.HOUR);
+    }
+
+    // Called by TelemetryPersistenceService after commit; rows older than the lookback widen the next pass
+    public void recordWritten(LocalDateTime oldestTimestamp) {
+        LocalDateTime watermark = minuteWatermark;
+        if (oldestTimestamp == null || watermark == null || !oldestTimestamp.isBefore(watermark.minus(lookback))) return;
+        oldestLateWrite.accumulateAndGet(oldestTimestamp, (a, b) -> a == null || b.isBefore(a) ? b : a);
+    }
+
+    // Scheduled: roll up closed minutes, then closed hours, then apply rollup retention
+    public void rollUp() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime minuteCutoff = now.truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime late = oldestLateWrite.getAndSet(null);
+        // A late row older than raw retention sits next to rows that may already be dropped:
+        // only the part of the backfill whose minutes are still complete in the raw table is redone
+        LocalDateTime rawHorizon = Rollup.MINUTE.ceil(now.minus(rawRetention));
+        if (late != null && late.isBefore(rawHorizon)) late = rawHorizon;
+        LocalDateTime minuteFrom = minuteWatermark != null
+                ? minuteWatermark.minus(lookback).truncatedTo(ChronoUnit.MINUTES)
+                : jdbcTemplate.queryForObject("SELECT min(timestamp) FROM cable_telemetry", LocalDateTime.class);
+        if (late != null && minuteFrom != null && late.isBefore(minuteFrom)) minuteFrom = late;
+        if (minuteFrom != null && minuteFrom.isBefore(minuteCutoff)) {
+            jdbcTemplate.update("""
+                    INSERT INTO cable_telemetry_1m (%s)
+                    SELECT cable_id, date_trunc('minute', timestamp), count(*),
+                           (array_agg(health ORDER BY timestamp DESC, id DESC))[1], min(health), max(health),
+                           (array_agg(rul_in_days ORDER BY timestamp DESC, id DESC))[1],
+                           sum(temperature), sum(attenuation), sum(snr), sum(mse), sum(load), max(timestamp)
+                    FROM cable_telemetry
+                    WHERE timestamp >= ? AND timestamp < ? AND cable_id IS NOT NULL
+                    GROUP BY cable_id, date_trunc('minute', timestamp)
+                    %s
+                    """.formatted(ROLLUP_COLUMNS, OVERWRITE),
+                    Timestamp.valueOf(minuteFrom.truncatedTo(ChronoUnit.MINUTES)), Timestamp.valueOf(minuteCutoff));
+        }
+        minuteWatermark = minuteCutoff;
+
+        // Hours are built from minutes, and only once every minute in them is rolled up
+        LocalDateTime hourCutoff = minuteCutoff.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime hourFrom = hourWatermark != null
+                ? hourWatermark.minus(lookback).truncatedTo(ChronoUnit.HOURS)
+                : jdbcTemplate.queryForObject("SELECT min(bucket) FROM cable_telemetry_1m", LocalDateTime.class);
+        // Likewise, hours are only rebuilt while every one of their minutes is still kept
+        LocalDateTime lateHour = late == null ? null : Rollup.HOUR.floor(late);
+        LocalDateTime minuteHorizon = Rollup.HOUR.ceil(now.minus(minuteRetention));
+        if (lateHour != null && lateHour.isBefore(minuteHorizon)) lateHour = minuteHorizon;
+        if (lateHour != null && hourFrom != null && lateHour.isBefore(hourFrom)) hourFrom = lateHour;
+        if (hourFrom != null && hourFrom.isBefore(hourCutoff)) {
+            jdbcTemplate.update("""
+                    INSERT INTO cable_telemetry_1h (%s)
+                    SELECT cable_id, date_trunc('hour', bucket), sum(samples),
+                           (array_agg(health_last ORDER BY last_ts DESC))[1], min(health_min), max(health_max),
+                           (array_agg(rul_last ORDER BY last_ts DESC))[1],
+                           sum(temperature_sum), sum(attenuation_sum), sum(snr_sum), sum(mse_sum), sum(load_sum), max(last_ts)
+                    FROM cable_telemetry_1m
+                    WHERE bucket >= ? AND bucket < ?
+                    GROUP BY cable_id, date_trunc('hour', bucket)
+                    %s
+                    """.formatted(ROLLUP_COLUMNS, OVERWRITE),
+                    Timestamp.valueOf(hourFrom.truncatedTo(ChronoUnit.HOURS)), Timestamp.valueOf(hourCutoff));
+        }
+        hourWatermark = hourCutoff;
+
+        // Rollups are small enough that expiring them row-wise is fine
+        jdbcTemplate.update("DELETE FROM cable_telemetry_1m WHERE bucket < ?", Timestamp.valueOf(now.minus(minuteRetention)));
+        jdbcTemplate.update("DELETE FROM cable_telemetry_1h WHERE bucket < ?", Timestamp.valueOf(now.minus(hourRetention)));
+    }
+
+    // Called when the raw table is wiped (DatabaseCleanupConfig)
+    public void reset() {
+        for (Rollup rollup : Rollup.values()) jdbcTemplate.execute("TRUNCATE TABLE " + rollup.table);
+        minuteWatermark = null;
+        hourWatermark = null;
+    }
+
+    public LocalDateTime watermark(Rollup rollup) {
+        return rollup == Rollup.MINUTE ? minuteWatermark : hourWatermark;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("minuteWatermark", minuteWatermark);
+        stats.put("hourWatermark", hourWatermark);
+        stats.put("lookback", lookback.toString());
+        return stats;
+    }
+
+    private LocalDateTime latestBucket(Rollup rollup) {
+        return jdbcTemplate.queryForObject("SELECT max(bucket) FROM " + rollup.table, LocalDateTime.class);
+    }
+}
@@ -1,5 +1,7 @@
 package com.belden.topology.service;
 
+import com.belden.topology.cache.TopologySnapshotCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -9,10 +11,14 @@ import org.springframework.transaction.annotation.Transactional;
 public class TopologyService {
 
     private final org.springframework.data.neo4j.core.Neo4jClient neo4jClient;
+    private final TopologySnapshotCache snapshotCache;
+    private final MeterRegistry meterRegistry;
 
     @Transactional("neo4jTransactionManager")
     public void wipeDatabase() {
-        neo4jClient.query("MATCH (n) DETACH DELETE n").run();
+        meterRegistry.timer("horizon.neo4j.query", "query", "wipe")
+                .record(() -> neo4jClient.query("MATCH (n) DETACH DELETE n").run());
+        topologyChanged();
     }
 
     @Transactional("neo4jTransactionManager")
@@ -21,7 +27,7 @@ public class TopologyService {
         wipeDatabase();
 
         // 2. Create the 3 distinct cable networks
-        neo4jClient.query("""
+        meterRegistry.timer("horizon.neo4j.query", "query", "seed-factory-floor").record(() -> neo4jClient.query("""
             // CREATE CABLE 1 (High Risk - Core Assembly)
             CREATE (c1:Cable {id: 1, name: 'Cable-1 (Main Power)'})
             CREATE (s1:Switch {name: 'Switch-1'})
@@ -43,6 +49,14 @@ public class TopologyService {
             CREATE (c3:Cable {id: 3, name: 'Cable-3 (Aux Power)'})
             CREATE (hvac:Machine {name: 'HVAC-Cooling'})
             CREATE (c3)-[:CONNECTS_TO]->(hvac)
-        """).run();
+        """).run());
+
+        topologyChanged();
+    }
+
+    // Every graph mutation must end here so the in-memory topology views get rebuilt.
+    // They are dropped only after commit, otherwise a reader could reload the old graph and keep it.
+    private void topologyChanged() {
+        TransactionHooks.afterCommit(snapshotCache::invalidate);
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.belden.topology.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Side effects on in-memory state (caches, live pushes) must only happen once the data is committed,
+// and in-memory state advanced ahead of a write has to be undone when the write rolls back
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    // Runs the action after the surrounding transaction commits, or right away if there is none
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Runs the action if the surrounding transaction rolls back; without one there is nothing to undo
+    public static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) action.run();
+            }
+        });
+    }
+}
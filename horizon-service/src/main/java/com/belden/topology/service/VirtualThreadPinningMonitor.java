@@ -0,0 +1,104 @@
+package com.belden.topology.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Watches for virtual threads that block while pinned to their carrier (inside a synchronized
+ * block or a native frame), which is what quietly turns the virtual-thread mode back into a
+ * small fixed pool. Streams JFR's jdk.VirtualThreadPinned events in-process and counts them per
+ * call site; only active when spring.threads.virtual.enabled is true.
+ */
+@Slf4j
+@Service
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final boolean enabled;
+    private final Duration threshold;
+    private final int maxSites;
+
+    private final LongAdder pinnedEvents = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> sites = new ConcurrentHashMap<>();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${spring.threads.virtual.enabled:false}") boolean enabled,
+                                       @Value("${horizon.threads.pinning-threshold:20ms}") Duration threshold,
+                                       @Value("${horizon.threads.pinning-sites:100}") int maxSites) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.maxSites = maxSites;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+        log.info(">>> [THREADS] Virtual threads on, reporting pins longer than {}", threshold);
+    }
+
+    private void record(RecordedEvent event) {
+        pinnedEvents.increment();
+        pinnedNanos.add(event.getDuration().toNanos());
+
+        String site = callSite(event);
+        LongAdder count = sites.get(site);
+        if (count == null) {
+            if (sites.size() >= maxSites) return; // Totals still count it, the table stays bounded
+            count = sites.computeIfAbsent(site, k -> new LongAdder());
+            log.warn(">>> [THREADS] Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), site);
+        }
+        count.increment();
+    }
+
+    // First frame outside the JDK: the application or library code that held the monitor
+    private static String callSite(RecordedEvent event) {
+        if (event.getStackTrace() == null) return "unknown";
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.")) continue;
+            return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+        }
+        return "jdk-internal";
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("virtualThreads", enabled);
+        stats.put("pinningThreshold", threshold.toString());
+        stats.put("pinnedEvents", pinnedEvents.sum());
+        stats.put("pinnedMillis", pinnedNanos.sum() / 1_000_000);
+
+        Map<String, Long> bySite = new LinkedHashMap<>();
+        sites.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> e) -> e.getValue().sum()).reversed())
+                .forEach(e -> bySite.put(e.getKey(), e.getValue().sum()));
+        stats.put("sites", bySite);
+        return stats;
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) stream.close();
+    }
+}
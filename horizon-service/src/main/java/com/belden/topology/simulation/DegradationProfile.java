@@ -0,0 +1,92 @@
+package com.belden.topology.simulation;
+
+import java.util.SplittableRandom;
+
+/**
+ * How a simulated cable's metrics drift per day of simulated age. LINEAR uses the same rates as
+ * HealthAuditScheduler's decay step (which applies 5 days' worth per tick), so a replayed cable
+ * fails on the same ~300-day curve as the demo. MIXED gives every cable one of the others.
+ */
+public enum DegradationProfile {
+
+    //        temp/day  attn/day  snr/day  mse/day   noise  spike chance
+    STEADY(   0.0,      0.0,      0.0,     0.0,      0.3,   0.0),
+    LINEAR(   0.1,      0.02,    -0.1,     0.0109,   0.0,   0.0),
+    THERMAL(  0.4,      0.02,    -0.05,    0.0055,   0.0,   0.0),   // heat-driven failure
+    NOISY(    0.1,      0.02,    -0.1,     0.0109,   1.0,   0.0),   // exercises the RUL fit and anomaly baselines
+    SPIKES(   0.1,      0.02,    -0.1,     0.0109,   0.3,   0.001), // rare thermal spikes for the anomaly detector
+    MIXED(    0.0,      0.0,      0.0,     0.0,      0.0,   0.0);
+
+    private static final DegradationProfile[] MIXABLE = {STEADY, LINEAR, THERMAL, NOISY, SPIKES};
+    private static final double SPIKE_DEGREES = 25.0;
+
+    private final double tempPerDay;
+    private final double attnPerDay;
+    private final double snrPerDay;
+    private final double msePerDay;
+    private final double noise;
+    private final double spikeChance;
+
+    DegradationProfile(double tempPerDay, double attnPerDay, double snrPerDay, double msePerDay,
+                       double noise, double spikeChance) {
+        this.tempPerDay = tempPerDay;
+        this.attnPerDay = attnPerDay;
+        this.snrPerDay = snrPerDay;
+        this.msePerDay = msePerDay;
+        this.noise = noise;
+        this.spikeChance = spikeChance;
+    }
+
+    // The concrete profile a cable follows; MIXED spreads the fleet over the others by id
+    public DegradationProfile forCable(long cableId) {
+        return this == MIXED ? MIXABLE[(int) Math.floorMod(cableId, (long) MIXABLE.length)] : this;
+    }
+
+    // Advances the cable's underlying (noise-free) trend by `days`
+    void advance(CableState cable, double days) {
+        cable.temperature += tempPerDay * days;
+        cable.attenuation += attnPerDay * days;
+        cable.snr = Math.max(0, cable.snr + snrPerDay * days);
+        cable.mse += msePerDay * days;
+    }
+
+    // What the sensors report: trend plus noise, and the occasional spike that does not stay in the trend
+    double observedTemperature(CableState cable, SplittableRandom random) {
+        double value = cable.temperature + gaussian(random, 2.0 * noise);
+        if (spikeChance > 0 && random.nextDouble() < spikeChance) value += SPIKE_DEGREES;
+        return value;
+    }
+
+    double observedAttenuation(CableState cable, SplittableRandom random) {
+        return Math.max(0, cable.attenuation + gaussian(random, 0.1 * noise));
+    }
+
+    double observedSnr(CableState cable, SplittableRandom random) {
+        return Math.max(0, cable.snr + gaussian(random, noise));
+    }
+
+    double observedMse(CableState cable, SplittableRandom random) {
+        return Math.max(0.0001, cable.mse + gaussian(random, 0.005 * noise));
+    }
+
+    private static double gaussian(SplittableRandom random, double std) {
+        return std == 0 ? 0 : random.nextGaussian() * std;
+    }
+
+    // Underlying (noise-free) condition of one simulated cable
+    static final class CableState {
+        final long cableId;
+        final DegradationProfile profile;
+        final double load;
+        double temperature = 30.0;
+        double attenuation = 0.5;
+        double snr = 30.0;
+        double mse = 0.01;
+
+        CableState(long cableId, DegradationProfile profile, double load) {
+            this.cableId = cableId;
+            this.profile = profile;
+            this.load = load;
+        }
+    }
+}
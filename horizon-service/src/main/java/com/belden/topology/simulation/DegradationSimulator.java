@@ -1,67 +1,164 @@
 package com.belden.topology.simulation;
 
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.web.client.RestTemplate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.convert.DurationStyle;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Load and backfill driver for the telemetry pipeline. Generates readings for a fleet of cables with
+ * a {@link DegradationProfile}, sends them in batches to Kafka, the REST bulk endpoint or an in-process
+ * queue, and reports throughput and ack-latency percentiles once a second and at the end. After a live
+ * run against the service it also prints the end-to-end latency the consumer measured, from each
+ * reading's timestamp to its committed row (GET /api/ops/consumer, once the consumer lag has drained).
+ *
+ * Live load (wall-clock timestamps, 5k readings/s for two minutes):
+ *   --target=kafka --cables=5000 --rate=5000 --duration=2m
+ * Backfill a year of 5-minute readings for 2000 cables as fast as the brokers take it:
+ *   --target=kafka --cables=2000 --start=2024-01-01T00:00 --interval=5m --days-per-reading=0.00347
+ *     --readings=210240000 --profile=linear
+ * The old three-cable demo over HTTP:
+ *   --target=http --cables=3 --rate=1 --duration=5m --profile=thermal
+ *
+ * Options (--name=value): target kafka|http|queue, bootstrap, format json|binary, url (also where the
+ * end-to-end figure is read), concurrency, max-retries (per batch on HTTP 429), cables, first-cable,
+ * readings, duration, rate (readings/s, 0 = unthrottled), batch, profile, start (ISO date-time, enables
+ * backfill), interval, days-per-reading, seed, queue-capacity.
+ *
+ * Backfilled readings keep their event time end to end, and the service's default RUL time scale of 1
+ * turns them into real days: pick --interval and --days-per-reading to match (5m and 0.00347).
+ * Consumer lag and late-reading counts while it runs: GET /api/ops/consumer.
+ */
 public class DegradationSimulator {
 
-    private static final String API_URL = "http://localhost:8081/api/telemetry";
-    private static final RestTemplate restTemplate = new RestTemplate();
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        if (options.containsKey("help")) {
+            System.out.println("See the DegradationSimulator class comment for options and examples.");
+            return;
+        }
 
-    public static void main(String[] args) throws InterruptedException {
-        System.out.println("Starting Belden Cable Degradation Simulation...");
+        // 1. What to generate
+        int cables = Integer.parseInt(options.getOrDefault("cables", "1000"));
+        long firstCable = Long.parseLong(options.getOrDefault("first-cable", "1"));
+        DegradationProfile profile = DegradationProfile.valueOf(options.getOrDefault("profile", "mixed").toUpperCase(Locale.ROOT));
+        LocalDateTime start = options.containsKey("start") ? LocalDateTime.parse(options.get("start")) : null;
+        Duration interval = DurationStyle.detectAndParse(options.getOrDefault("interval", "5m"));
+        double daysPerReading = Double.parseDouble(options.getOrDefault("days-per-reading", "5"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
 
-        // --- STEP 1: HEALTHY STATE ---
-        // Expected Health: ~85
-        System.out.println("Step 1: Sending Healthy Baseline...");
-        sendTelemetry(1L, 30.0, 0.5, 20.0);
+        // 2. How much and how fast. A duration without a reading count runs until the time is up.
+        Duration duration = options.containsKey("duration") ? DurationStyle.detectAndParse(options.get("duration")) : null;
+        long readings = Long.parseLong(options.getOrDefault("readings", duration != null ? String.valueOf(Long.MAX_VALUE) : "1000000"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+        int batchSize = Integer.parseInt(options.getOrDefault("batch", "500"));
 
-        System.out.println("Waiting 5 seconds to establish baseline...");
-        TimeUnit.SECONDS.sleep(5);
+        String target = options.getOrDefault("target", "kafka").toLowerCase(Locale.ROOT);
+        ReadingGenerator generator = new ReadingGenerator(cables, firstCable, profile, start, interval, daysPerReading, seed);
+        ReplayStats stats = new ReplayStats();
 
-        // --- STEP 2: WARNING STATE ---
-        // Temp 55 (was 60) -> slightly less penalty
-        // Attn 1.2 (was 1.5) -> slightly less penalty
-        // Expected Health: ~60-65 (Safe buffer above 40)
-        System.out.println("Step 2: Sending Warning Signs...");
-        sendTelemetry(1L, 55.0, 1.2, 40.0);
+        System.out.printf("Replaying to %s: %,d cables, profile %s, %s, %s%n", target, cables, profile,
+                start == null ? "live timestamps" : "backfill from " + start + " every " + interval,
+                rate > 0 ? String.format("%,.0f readings/s", rate) : "unthrottled");
 
-        // This will now calculate as if ~5 days passed
-        // Result should be approx 48-72 Hours remaining
+        try (TelemetrySink sink = createSink(target, options)) {
+            long begin = System.nanoTime();
+            long deadline = duration == null ? Long.MAX_VALUE : begin + duration.toNanos();
+            long nextReport = begin + TimeUnit.SECONDS.toNanos(1);
 
-        System.out.println("Waiting 5 seconds to demonstrate rapid failure...");
-        TimeUnit.SECONDS.sleep(5);
+            // 3. Generate and send, pacing against the target rate from the start of the run
+            while (stats.getSent() < readings && System.nanoTime() < deadline) {
+                int size = (int) Math.min(batchSize, readings - stats.getSent());
+                sink.send(generator.nextBatch(size), stats);
 
-        // --- STEP 3: FAILURE STATE ---
-        // Expected Health: 0 (Dead)
-        System.out.println("Step 3: Sending Critical Failure...");
-        sendTelemetry(1L, 90.0, 5.0, 90.0);
+                if (rate > 0) {
+                    long due = begin + (long) (stats.getSent() * 1e9 / rate);
+                    long wait = due - System.nanoTime();
+                    if (wait > 0) LockSupport.parkNanos(wait);
+                }
+                if (System.nanoTime() >= nextReport) {
+                    System.out.println(stats.progressLine(System.nanoTime() - begin));
+                    nextReport += TimeUnit.SECONDS.toNanos(1);
+                }
+            }
 
-        System.out.println("Simulation Complete.");
-    }
+            // 4. Wait for the last acks, then report
+            sink.flush();
+            long elapsed = System.nanoTime() - begin;
+            System.out.print(stats.summary(elapsed));
+            System.out.printf("Event time covered: %,d readings per cable%n", generator.getTick());
+            if (sink instanceof QueueTelemetrySink queue) {
+                System.out.printf("Encoded: %,d bytes (%.1f per reading)%n",
+                        queue.getEncodedBytes(), queue.getEncodedBytes() / (double) Math.max(1, stats.getAcked()));
+            }
+        }
 
-    private static void sendTelemetry(Long cableId, double temp, double attenuation, double load) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+        // 5. End to end is measured by the consumer; a backfill's event times are in the past, so it would be meaningless
+        if (!"queue".equals(target) && start == null) {
+            printEndToEnd(options.getOrDefault("url", "http://localhost:8081"));
+        }
+    }
 
-        Map<String, Object> map = new HashMap<>();
-        map.put("cableId", cableId);
-        map.put("temperature", temp);
-        map.put("attenuation", attenuation);
-        map.put("load", load);
+    private static void printEndToEnd(String serviceUrl) {
+        URI uri = URI.create(serviceUrl.replaceAll("/+$", "") + "/api/ops/consumer");
+        ObjectMapper objectMapper = new ObjectMapper();
+        try (HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build()) {
+            JsonNode stats = null;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (System.nanoTime() < deadline) {
+                stats = objectMapper.readTree(client.send(HttpRequest.newBuilder(uri).build(),
+                        HttpResponse.BodyHandlers.ofByteArray()).body());
+                long lag = 0;
+                for (JsonNode listener : stats.path("listeners")) lag += listener.path("totalLag").asLong();
+                if (lag == 0) break;
+                Thread.sleep(500);
+            }
 
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(map, headers);
-        try {
-            restTemplate.postForObject(API_URL, request, String.class);
-            System.out.println(" -> Telemetry Sent: " + map);
+            JsonNode endToEnd = stats.path("endToEnd");
+            System.out.printf("End to end (reading timestamp to committed row, service's rolling window of %,d readings):"
+                            + " p50 %.1f ms p90 %.1f ms p99 %.1f ms max %.1f ms%n",
+                    endToEnd.path("count").asLong(), endToEnd.path("p50Ms").asDouble(), endToEnd.path("p90Ms").asDouble(),
+                    endToEnd.path("p99Ms").asDouble(), endToEnd.path("maxMs").asDouble());
         } catch (Exception e) {
-            System.err.println("Failed to send telemetry: " + e.getMessage());
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            System.out.printf("End-to-end latency unavailable from %s: %s%n", uri, e.getMessage() != null ? e.getMessage() : e);
+        }
+    }
+
+    private static TelemetrySink createSink(String target, Map<String, String> options) {
+        return switch (target) {
+            case "kafka" -> new KafkaTelemetrySink(
+                    options.getOrDefault("bootstrap", "localhost:9092"),
+                    options.getOrDefault("format", "json"));
+            case "http" -> new HttpTelemetrySink(
+                    options.getOrDefault("url", "http://localhost:8081"),
+                    Integer.parseInt(options.getOrDefault("concurrency", "8")),
+                    Integer.parseInt(options.getOrDefault("max-retries", "10")));
+            case "queue" -> new QueueTelemetrySink(Integer.parseInt(options.getOrDefault("queue-capacity", "64")));
+            default -> throw new IllegalArgumentException("Unknown target: " + target + " (kafka, http or queue)");
+        };
+    }
+
+    // --name=value pairs; a bare --name means "true"
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            int eq = arg.indexOf('=');
+            if (eq < 0) options.put(arg.substring(2), "true");
+            else options.put(arg.substring(2, eq), arg.substring(eq + 1));
         }
+        return options;
     }
-}
\ No newline at end of file
+}
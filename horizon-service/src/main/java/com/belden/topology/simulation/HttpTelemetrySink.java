@@ -0,0 +1,105 @@
+package com.belden.topology.simulation;
+
+import com.belden.topology.model.CableTelemetry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.kafka.support.JacksonUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Posts each batch to POST /api/telemetry/bulk, the way an edge gateway would, so the run covers the
+ * REST layer and the service's own producer. At most `concurrency` requests are in flight; a 429 is
+ * retried after its Retry-After, up to `maxRetries` times, after which the batch counts as dropped.
+ * Latency is request sent to broker-acked response, once per batch.
+ */
+public class HttpTelemetrySink implements TelemetrySink {
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+    private final ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor();
+    private final URI bulkUri;
+    private final Semaphore inFlight;
+    private final int concurrency;
+    private final int maxRetries;
+
+    public HttpTelemetrySink(String baseUrl, int concurrency, int maxRetries) {
+        this.bulkUri = URI.create(baseUrl.replaceAll("/+$", "") + "/api/telemetry/bulk");
+        this.concurrency = Math.max(1, concurrency);
+        this.inFlight = new Semaphore(this.concurrency);
+        this.maxRetries = Math.max(0, maxRetries);
+    }
+
+    @Override
+    public void send(List<CableTelemetry> batch, ReplayStats stats) throws InterruptedException {
+        inFlight.acquire();
+        stats.sent(batch.size());
+        requests.execute(() -> {
+            try {
+                post(batch, stats);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    @Override
+    public void flush() throws InterruptedException {
+        inFlight.acquire(concurrency);
+        inFlight.release(concurrency);
+    }
+
+    @Override
+    public void close() {
+        requests.close();
+    }
+
+    private void post(List<CableTelemetry> batch, ReplayStats stats) {
+        long sentAt = System.nanoTime();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(bulkUri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(batch)))
+                    .build();
+
+            for (int attempt = 0; ; attempt++) {
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() == 429) {
+                    if (attempt == maxRetries) {
+                        stats.dropped(batch.size());
+                        return;
+                    }
+                    // Service producer buffer is saturated: back off as asked, then try the same batch again
+                    long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+                    Thread.sleep(retryAfter * 1000);
+                    continue;
+                }
+                if (response.statusCode() != 200 && response.statusCode() != 502) {
+                    stats.failed(batch.size(), new IllegalStateException("HTTP " + response.statusCode()));
+                    return;
+                }
+
+                // IngestAck body
+                JsonNode ack = objectMapper.readTree(response.body());
+                int acked = ack.path("acked").asInt();
+                int failed = ack.path("failed").asInt();
+                if (acked > 0) stats.acked(acked, sentAt);
+                if (failed > 0) stats.failed(failed, new IllegalStateException(ack.path("firstError").asText()));
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stats.failed(batch.size(), e);
+        } catch (Exception e) {
+            stats.failed(batch.size(), e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.belden.topology.simulation;
+
+import com.belden.topology.kafka.TelemetryWireFormat;
+import com.belden.topology.model.CableTelemetry;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process stand-in for the broker: a bounded queue drained by one thread that encodes every reading
+ * in the binary wire format. Measures the generator and encoding ceiling with no network or broker,
+ * and gives a baseline to compare the Kafka and HTTP runs against. Latency is enqueue to drained.
+ */
+public class QueueTelemetrySink implements TelemetrySink {
+
+    private record Pending(List<CableTelemetry> batch, long sentAt) {
+    }
+
+    private static final Pending STOP = new Pending(List.of(), 0);
+
+    private final BlockingQueue<Pending> queue;
+    private final Thread drainer;
+    private volatile ReplayStats stats;
+    private final LongAdder encodedBytes = new LongAdder(); // Written by the drainer, read by the main thread
+
+    public QueueTelemetrySink(int capacityBatches) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacityBatches));
+        this.drainer = Thread.ofPlatform().name("replay-queue-drainer").start(this::drain);
+    }
+
+    @Override
+    public void send(List<CableTelemetry> batch, ReplayStats stats) throws InterruptedException {
+        this.stats = stats;
+        queue.put(new Pending(batch, System.nanoTime()));
+        stats.sent(batch.size());
+    }
+
+    @Override
+    public void flush() throws InterruptedException {
+        while (!queue.isEmpty() || (stats != null && stats.getPending() > 0)) Thread.sleep(1);
+    }
+
+    @Override
+    public void close() {
+        try {
+            queue.put(STOP);
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getEncodedBytes() {
+        return encodedBytes.sum();
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                Pending pending = queue.take();
+                if (pending == STOP) return;
+                for (CableTelemetry reading : pending.batch()) {
+                    encodedBytes.add(TelemetryWireFormat.encode(reading).length);
+                }
+                stats.acked(pending.batch().size(), pending.sentAt());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
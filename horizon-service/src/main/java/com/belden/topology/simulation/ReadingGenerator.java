@@ -0,0 +1,76 @@
+package com.belden.topology.simulation;
+
+import com.belden.topology.model.CableTelemetry;
+import com.belden.topology.simulation.DegradationProfile.CableState;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Round-robin readings for a fleet of simulated cables: tick 0 for every cable, then tick 1, and so on.
+ * Each cable's readings therefore come out in event-time order, which is what the per-cable Kafka key
+ * preserves downstream.
+ *
+ * With a start time the readings are a backfill: reading k of a cable is stamped start + k * interval,
+ * however fast they are generated. Without one they are stamped with the wall clock, as live devices would.
+ */
+public class ReadingGenerator {
+
+    private final CableState[] cables;
+    private final LocalDateTime start;
+    private final Duration interval;
+    private final double daysPerReading;
+    private final SplittableRandom random;
+
+    private long tick;
+    private int nextCable;
+
+    public ReadingGenerator(int cableCount, long firstCableId, DegradationProfile profile,
+                            LocalDateTime start, Duration interval, double daysPerReading, long seed) {
+        this.start = start;
+        this.interval = interval;
+        this.daysPerReading = daysPerReading;
+        this.random = new SplittableRandom(seed);
+        this.cables = new CableState[Math.max(1, cableCount)];
+        for (int i = 0; i < cables.length; i++) {
+            long cableId = firstCableId + i;
+            cables[i] = new CableState(cableId, profile.forCable(cableId), random.nextDouble(20, 80));
+        }
+    }
+
+    public List<CableTelemetry> nextBatch(int size) {
+        List<CableTelemetry> batch = new ArrayList<>(size);
+        LocalDateTime now = start == null ? LocalDateTime.now() : null;
+        for (int i = 0; i < size; i++) batch.add(next(now));
+        return batch;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    private CableTelemetry next(LocalDateTime now) {
+        CableState cable = cables[nextCable];
+        DegradationProfile profile = cable.profile;
+        if (tick > 0) profile.advance(cable, daysPerReading);
+
+        CableTelemetry reading = CableTelemetry.builder()
+                .cableId(cable.cableId)
+                .temperature(profile.observedTemperature(cable, random))
+                .attenuation(profile.observedAttenuation(cable, random))
+                .snr(profile.observedSnr(cable, random))
+                .mse(profile.observedMse(cable, random))
+                .load(cable.load)
+                .timestamp(start == null ? now : start.plus(interval.multipliedBy(tick)))
+                .build();
+
+        if (++nextCable == cables.length) {
+            nextCable = 0;
+            tick++;
+        }
+        return reading;
+    }
+}
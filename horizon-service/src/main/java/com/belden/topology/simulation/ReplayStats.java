@@ -0,0 +1,100 @@
+package com.belden.topology.simulation;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and the ack-latency distribution of one replay run. Ack latency is send to the sink's
+ * acknowledgement (broker ack, bulk response or queue drain), not end to end; the service measures
+ * device timestamp to committed row itself (GET /api/ops/consumer). Sinks report from their own
+ * callback threads, so everything here is safe to update concurrently.
+ */
+public class ReplayStats {
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicReference<String> firstError = new AtomicReference<>();
+
+    // Percentiles over the whole run, not Micrometer's default rolling two-minute window
+    private final Timer latency = Timer.builder("replay.ack.latency")
+            .publishPercentiles(0.5, 0.9, 0.99, 0.999)
+            .distributionStatisticExpiry(Duration.ofDays(1))
+            .distributionStatisticBufferLength(1)
+            .register(new SimpleMeterRegistry());
+
+    public void sent(int readings) {
+        sent.add(readings);
+    }
+
+    public void acked(int readings, long sentAtNanos) {
+        acked.add(readings);
+        latency.record(System.nanoTime() - sentAtNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void failed(int readings, Throwable error) {
+        failed.add(readings);
+        firstError.compareAndSet(null, error.getMessage() != null ? error.getMessage() : error.toString());
+    }
+
+    // Given up on without an answer (HTTP 429 retries exhausted)
+    public void dropped(int readings) {
+        dropped.add(readings);
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    public long getAcked() {
+        return acked.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getPending() {
+        return getSent() - getAcked() - getFailed() - getDropped();
+    }
+
+    public String progressLine(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        return String.format("[replay] %.0fs | sent %,d | acked %,d | failed %,d | dropped %,d | %,.0f readings/s",
+                seconds, getSent(), getAcked(), getFailed(), getDropped(), getAcked() / Math.max(seconds, 1e-9));
+    }
+
+    public String summary(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Sent %,d, acked %,d, failed %,d, dropped %,d in %.1f s%n",
+                getSent(), getAcked(), getFailed(), getDropped(), seconds));
+        out.append(String.format("Throughput: %,.0f acked readings/s%n", getAcked() / Math.max(seconds, 1e-9)));
+
+        HistogramSnapshot snapshot = latency.takeSnapshot();
+        out.append("Ack latency (send to ack, not end to end):");
+        for (ValueAtPercentile p : snapshot.percentileValues()) {
+            out.append(String.format(" p%s %.1f ms", trim(p.percentile() * 100), p.value(TimeUnit.MILLISECONDS)));
+        }
+        out.append(String.format(" max %.1f ms%n", snapshot.max(TimeUnit.MILLISECONDS)));
+
+        if (firstError.get() != null) out.append("First error: ").append(firstError.get()).append(System.lineSeparator());
+        return out.toString();
+    }
+
+    private static String trim(double percent) {
+        return percent == Math.rint(percent) ? String.valueOf((long) percent) : String.valueOf(percent);
+    }
+}
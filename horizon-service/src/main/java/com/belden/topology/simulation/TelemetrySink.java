@@ -0,0 +1,20 @@
+package com.belden.topology.simulation;
+
+import com.belden.topology.model.CableTelemetry;
+
+import java.util.List;
+
+/**
+ * Where the replay sends its readings. send() may block to apply backpressure (full producer
+ * buffer, too many requests in flight); acks and failures are reported to the stats asynchronously.
+ */
+public interface TelemetrySink extends AutoCloseable {
+
+    void send(List<CableTelemetry> batch, ReplayStats stats) throws InterruptedException;
+
+    // Waits until everything sent so far is acked or failed
+    void flush() throws InterruptedException;
+
+    @Override
+    void close();
+}
@@ -0,0 +1,74 @@
+package com.belden.topology.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Downstream traversals of the CSR index over a hand-built topology
+class ImpactIndexTest {
+
+    //   cable-1 -CONNECTS_TO-> switch -FEEDS-> robot -PART_OF-> line-3
+    //                                 -FEEDS-> press -PART_OF-> line-3
+    //                                          press -FEEDS-> conveyor -CONNECTS_TO-> switch (cycle)
+    //   cable-1 (second node, same id) -FEEDS-> pump
+    //   cable-2, no edges
+    private final ImpactIndex index = topology();
+
+    private static ImpactIndex topology() {
+        ImpactIndex.Builder builder = new ImpactIndex.Builder();
+        builder.addNode("c1", List.of("Cable"), "Cable 1", 1L);
+        builder.addNode("sw", List.of("Switch"), "Switch", null);
+        builder.addNode("robot", List.of("Machine"), "Robot-Arm", null);
+        builder.addNode("press", List.of("Machine"), "Press", null);
+        builder.addNode("conveyor", List.of("Machine"), "Conveyor", null);
+        builder.addNode("line", List.of("AssemblyLine"), "Assembly-Line-3", null);
+        builder.addNode("c1b", List.of("Cable"), "Cable 1 spur", 1L);
+        builder.addNode("pump", List.of("Machine"), "Pump", null);
+        builder.addNode("c2", List.of("Cable"), "Cable 2", 2);
+
+        builder.addEdge("c1", "sw", "CONNECTS_TO");
+        builder.addEdge("sw", "robot", "FEEDS");
+        builder.addEdge("sw", "press", "FEEDS");
+        builder.addEdge("robot", "line", "PART_OF");
+        builder.addEdge("press", "line", "PART_OF");
+        builder.addEdge("press", "conveyor", "FEEDS");
+        builder.addEdge("conveyor", "sw", "CONNECTS_TO");
+        builder.addEdge("c1b", "pump", "FEEDS");
+        builder.addEdge("c1", "gone", "CONNECTS_TO"); // Target missing from the export, skipped
+        return builder.build();
+    }
+
+    @Test
+    void buildsOneRowPerNodeAndSkipsDanglingEdges() {
+        assertEquals(9, index.nodeCount());
+        assertEquals(8, index.edgeCount());
+    }
+
+    @Test
+    void countsDistinctMachinesWithinTheHopLimit() {
+        assertEquals(1, index.countDownstreamMachines(1L, 1)); // pump, via the second cable-1 node
+        assertEquals(3, index.countDownstreamMachines(1L, 2)); // + robot, press
+        assertEquals(4, index.countDownstreamMachines(1L, 3)); // + conveyor
+        assertEquals(4, index.countDownstreamMachines(1L, 20)); // the cycle adds nothing
+        assertEquals(0, index.countDownstreamMachines(2L, 5));
+        assertEquals(0, index.countDownstreamMachines(99L, 5));
+    }
+
+    @Test
+    void batchCountsMatchTheSingleCableCounts() {
+        long[] cableIds = {1L, 2L, 99L, 1L};
+        assertArrayEquals(new long[]{3, 0, 0, 3}, index.countDownstreamMachines(cableIds, 2));
+    }
+
+    @Test
+    void findsTheImpactedMachineAndAssemblyLine() {
+        assertEquals(Optional.of("Robot-Arm::Assembly-Line-3"), index.findImpactDetails(1L, 3));
+        assertEquals(Optional.empty(), index.findImpactDetails(1L, 1)); // Pump is on no line
+        assertEquals(List.of("Assembly-Line-3"), index.findImpactedAssemblyLines(1L));
+        assertEquals(List.of(), index.findImpactedAssemblyLines(2L));
+    }
+}
@@ -0,0 +1,74 @@
+package com.belden.topology.cache;
+
+import com.belden.topology.model.CableTelemetry;
+import com.belden.topology.repository.CableTelemetryRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Cache entries are private copies, and cables without readings are looked up once
+class LatestTelemetryCacheTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    // Only cable 1 has a reading in the database; every lookup is recorded
+    private final List<String> queries = new ArrayList<>();
+    private final LatestTelemetryCache cache = new LatestTelemetryCache(repository());
+
+    @Test
+    void callersCannotChangeTheCachedRecord() {
+        CableTelemetry written = reading(2L, 80.0);
+        cache.put(written);
+        written.setHealth(0.0); // The writer keeps using its object
+
+        CableTelemetry read = cache.get(2L).orElseThrow();
+        read.setHealth(10.0);   // So may a reader
+
+        assertEquals(80.0, cache.get(2L).orElseThrow().getHealth());
+        assertEquals(80.0, cache.getAll(List.of(2L)).get(2L).getHealth());
+    }
+
+    @Test
+    void cableWithoutReadingsIsQueriedOnceUntilItsFirstWrite() {
+        for (int i = 0; i < 3; i++) assertTrue(cache.get(7L).isEmpty());
+        for (int i = 0; i < 3; i++) assertEquals(Set.of(1L), cache.getAll(List.of(1L, 7L, 8L)).keySet());
+
+        assertEquals(List.of("top:7", "in:[1, 8]"), queries);
+        assertEquals(2, cache.getStats().get("absentCables"));
+
+        cache.put(reading(7L, 90.0));
+
+        assertEquals(90.0, cache.get(7L).orElseThrow().getHealth());
+        assertEquals(1, cache.getStats().get("absentCables"));
+        assertEquals(2, queries.size());
+    }
+
+    private static CableTelemetry reading(Long cableId, double health) {
+        return CableTelemetry.builder().cableId(cableId).health(health).timestamp(T0).build();
+    }
+
+    private CableTelemetryRepository repository() {
+        return (CableTelemetryRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{CableTelemetryRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findTopByCableIdOrderByTimestampDescIdDesc" -> {
+                        queries.add("top:" + args[0]);
+                        yield args[0].equals(1L) ? Optional.of(reading(1L, 50.0)) : Optional.empty();
+                    }
+                    case "findLatestByCableIdIn" -> {
+                        Collection<?> ids = (Collection<?>) args[0];
+                        queries.add("in:" + ids);
+                        yield ids.contains(1L) ? List.of(reading(1L, 50.0)) : List.of();
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
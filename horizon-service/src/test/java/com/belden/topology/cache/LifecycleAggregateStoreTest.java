@@ -0,0 +1,136 @@
+package com.belden.topology.cache;
+
+import com.belden.topology.cache.LifecycleAggregate.Metric;
+import com.belden.topology.model.CableTelemetry;
+import com.belden.topology.repository.CableTelemetryBatchRepository;
+import com.belden.topology.repository.CableTelemetryRepository;
+import com.belden.topology.service.TelemetryPartitionService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Incremental updates, rebuilds and checkpoints against a real (embedded) Postgres
+class LifecycleAggregateStoreTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private EmbeddedPostgres postgres;
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private EntityManager entityManager;
+    private JdbcTemplate jdbcTemplate;
+    private CableTelemetryBatchRepository batchRepository;
+    private LifecycleAggregateStore store;
+
+    @BeforeEach
+    void startPostgres() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        new TelemetryPartitionService(jdbcTemplate, transactionManager,
+                TelemetryPartitionService.Interval.DAILY, 0, Duration.ofDays(3650)).init();
+        batchRepository = new CableTelemetryBatchRepository(jdbcTemplate);
+
+        // The Spring Data repository for the first/last queries, without a Spring context
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
+        entityManagerFactory.setPackagesToScan("com.belden.topology.model");
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "none",
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName())); // Boot's default
+        entityManagerFactory.afterPropertiesSet();
+        entityManager = entityManagerFactory.getObject().createEntityManager();
+        CableTelemetryRepository repository = new JpaRepositoryFactory(entityManager)
+                .getRepository(CableTelemetryRepository.class);
+
+        // Every second record is a milestone
+        store = new LifecycleAggregateStore(jdbcTemplate, repository, transactionManager, 2, 100);
+        store.init();
+    }
+
+    @AfterEach
+    void stopPostgres() throws Exception {
+        entityManager.close();
+        entityManagerFactory.destroy();
+        postgres.close();
+    }
+
+    @Test
+    void rebuildPicksTheSameMilestonesAsArrivalOrder() {
+        // Backfilled readings arrive after newer ones
+        save(T0.plusMinutes(3), 97);
+        save(T0.plusMinutes(1), 99);
+        save(T0.plusMinutes(2), 98);
+        save(T0, 100);
+        save(T0.plusMinutes(4), 96);
+        save(T0.plusMinutes(5), 95);
+        Map<Long, Long> incremental = milestoneIds();
+
+        store.rebuild();
+
+        assertEquals(3, incremental.size());
+        assertEquals(incremental, milestoneIds());
+        LifecycleAggregate rebuilt = store.get(1L).orElseThrow();
+        assertEquals(T0, rebuilt.getFirst().getTimestamp());
+        assertEquals(T0.plusMinutes(5), rebuilt.getLast().getTimestamp());
+    }
+
+    @Test
+    void checkpointKeepsRecordsThatRawRetentionDropped() {
+        for (int k = 0; k < 6; k++) save(T0.plusMinutes(k), 100 - k);
+        assertEquals(1, store.checkpoint());
+        assertEquals(0, store.checkpoint()); // Nothing new since
+
+        // Retention drops the raw rows; newer readings keep coming
+        jdbcTemplate.update("DELETE FROM cable_telemetry");
+        for (int k = 6; k < 9; k++) save(T0.plusMinutes(k), 100 - k);
+        LifecycleAggregate live = store.get(1L).orElseThrow();
+        Map<Long, Long> incremental = milestoneIds();
+
+        store.rebuild();
+
+        LifecycleAggregate rebuilt = store.get(1L).orElseThrow();
+        assertEquals(9, rebuilt.getCount());
+        assertEquals(live.getAverage(Metric.HEALTH), rebuilt.getAverage(Metric.HEALTH), 1e-9);
+        assertEquals(92.0, rebuilt.getMin(Metric.HEALTH));
+        assertEquals(100.0, rebuilt.getMax(Metric.HEALTH));
+        assertEquals(T0, rebuilt.getFirst().getTimestamp());
+        assertEquals(T0.plusMinutes(8), rebuilt.getLast().getTimestamp());
+        assertEquals(List.of(2L, 4L, 6L, 8L), List.copyOf(rebuilt.getMilestones().keySet()));
+        assertEquals(incremental, milestoneIds());
+    }
+
+    // Insert, then feed the store the way TelemetryPersistenceService does after commit
+    private void save(LocalDateTime timestamp, double health) {
+        List<CableTelemetry> records = List.of(CableTelemetry.builder().cableId(1L).timestamp(timestamp).health(health)
+                .temperature(30.0).attenuation(1.0).snr(30.0).mse(0.01).load(50.0).rulInDays(300).build());
+        batchRepository.insertAll(records);
+        store.recordAll(records);
+    }
+
+    // Milestone ordinal -> id of the record it points at
+    private Map<Long, Long> milestoneIds() {
+        Map<Long, Long> ids = new LinkedHashMap<>();
+        store.get(1L).orElseThrow().getMilestones().forEach((ordinal, record) -> ids.put(ordinal, record.getId()));
+        return ids;
+    }
+}
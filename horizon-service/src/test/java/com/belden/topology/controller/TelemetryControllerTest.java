@@ -0,0 +1,149 @@
+package com.belden.topology.controller;
+
+import com.belden.topology.kafka.TelemetryProducer;
+import com.belden.topology.model.CableTelemetry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Bulk ingest through the controller and the real producer settings against an embedded broker
+@EmbeddedKafka(partitions = 2, topics = "cable-telemetry")
+class TelemetryControllerTest {
+
+    private final EmbeddedKafkaBroker broker;
+    private DefaultKafkaProducerFactory<String, CableTelemetry> producerFactory;
+    private KafkaTemplate<String, CableTelemetry> kafkaTemplate;
+
+    TelemetryControllerTest(EmbeddedKafkaBroker broker) {
+        this.broker = broker;
+    }
+
+    @BeforeEach
+    void createProducer() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        // Same delivery settings as application.yml
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 10);
+        producerFactory = new DefaultKafkaProducerFactory<>(props);
+        kafkaTemplate = new KafkaTemplate<>(producerFactory);
+    }
+
+    @AfterEach
+    void closeProducer() {
+        producerFactory.destroy();
+    }
+
+    private MockMvc mockMvc(double maxBufferUsage) {
+        TelemetryProducer producer = new TelemetryProducer(kafkaTemplate, maxBufferUsage, Duration.ofSeconds(30));
+        return MockMvcBuilders.standaloneSetup(new TelemetryController(producer, new ObjectMapper(), 100)).build();
+    }
+
+    private static ResultActions dispatch(MockMvc mockMvc, MvcResult started) throws Exception {
+        return mockMvc.perform(asyncDispatch(started));
+    }
+
+    @Test
+    void jsonArrayAndNdjsonAreAckedAndLandOnTheTopic() throws Exception {
+        MockMvc mockMvc = mockMvc(0.8);
+
+        MvcResult array = mockMvc.perform(post("/api/telemetry/bulk").contentType("application/json")
+                .content("[{\"cableId\":1,\"temperature\":30.0},{\"cableId\":2,\"temperature\":31.0},{\"cableId\":1,\"temperature\":32.0}]"))
+                .andReturn();
+        dispatch(mockMvc, array).andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(3))
+                .andExpect(jsonPath("$.acked").value(3))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        MvcResult ndjson = mockMvc.perform(post("/api/telemetry/bulk").contentType("application/x-ndjson")
+                .content("{\"cableId\":3,\"temperature\":40.0}\n{\"cableId\":3,\"temperature\":41.0}\n"))
+                .andReturn();
+        dispatch(mockMvc, ndjson).andExpect(status().isOk())
+                .andExpect(jsonPath("$.acked").value(2));
+
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("ingest-test", "false", broker);
+        consumerProps.put("auto.offset.reset", "earliest");
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(consumerProps,
+                new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, "cable-telemetry");
+            int seen = 0;
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (seen < 5 && System.currentTimeMillis() < deadline) {
+                ConsumerRecords<String, String> records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(2));
+                seen += records.count();
+            }
+            assertEquals(5, seen);
+        }
+    }
+
+    @Test
+    void saturatedBufferIsTurnedAwayWith429() throws Exception {
+        MockMvc mockMvc = mockMvc(0.0); // any usage counts as full
+
+        MvcResult result = mockMvc.perform(post("/api/telemetry/bulk").contentType("application/json")
+                .content("[{\"cableId\":1,\"temperature\":30.0}]")).andReturn();
+        dispatch(mockMvc, result).andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void malformedBodyIsRejectedWith400AndTheCountParsedBeforeIt() throws Exception {
+        MockMvc mockMvc = mockMvc(0.8);
+
+        MvcResult ndjson = mockMvc.perform(post("/api/telemetry/bulk").contentType("application/x-ndjson")
+                .content("{\"cableId\":1,\"temperature\":30.0}\n{\"cableId\":2,\"temperature\":31.0}\n{\"cableId\":3,\"temp\n"))
+                .andReturn();
+        dispatch(mockMvc, ndjson).andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.acked").value(0));
+
+        MvcResult array = mockMvc.perform(post("/api/telemetry/bulk").contentType("application/json")
+                .content("[{\"cableId\":1,\"temperature\":\"hot\"}]"))
+                .andReturn();
+        dispatch(mockMvc, array).andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.received").value(0));
+    }
+
+    @Test
+    void oversizedBatchIsRejected() throws Exception {
+        MockMvc mockMvc = mockMvc(0.8);
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 101; i++) body.append("{\"cableId\":1,\"temperature\":30.0}\n");
+
+        MvcResult result = mockMvc.perform(post("/api/telemetry/bulk").contentType("application/x-ndjson")
+                .content(body.toString())).andReturn();
+        dispatch(mockMvc, result).andExpect(status().isPayloadTooLarge());
+    }
+}
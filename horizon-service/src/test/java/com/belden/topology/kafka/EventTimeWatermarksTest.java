@@ -0,0 +1,55 @@
+package com.belden.topology.kafka;
+
+import com.belden.topology.kafka.EventTimeWatermarks.Lateness;
+import com.belden.topology.model.CableTelemetry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventTimeWatermarksTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    private final EventTimeWatermarks watermarks = new EventTimeWatermarks(Duration.ofMinutes(10), Duration.ofMinutes(1));
+
+    private static CableTelemetry reading(long cableId, LocalDateTime timestamp) {
+        return CableTelemetry.builder().cableId(cableId).timestamp(timestamp).build();
+    }
+
+    @Test
+    void classifiesAgainstTheCablesNewestReading() {
+        assertEquals(Lateness.ON_TIME, watermarks.admit(reading(1, T0), null));
+        assertEquals(Lateness.ON_TIME, watermarks.admit(reading(1, T0.plusMinutes(30)), null));
+        assertEquals(Lateness.LATE, watermarks.admit(reading(1, T0.plusMinutes(25)), null));
+        assertEquals(Lateness.TOO_LATE, watermarks.admit(reading(1, T0.plusMinutes(5)), null));
+
+        // Another cable has its own watermark
+        assertEquals(Lateness.ON_TIME, watermarks.admit(reading(2, T0.plusMinutes(5)), null));
+    }
+
+    @Test
+    void restartSeedsTheWatermarkFromTheLastPersistedReading() {
+        CableTelemetry persisted = reading(3, T0.plusHours(1));
+
+        assertEquals(Lateness.TOO_LATE, watermarks.admit(reading(3, T0), persisted));
+        assertEquals(Lateness.ON_TIME, watermarks.admit(reading(3, T0.plusHours(2)), persisted));
+    }
+
+    @Test
+    void missingOrFarFutureTimestampsBecomeArrivalTime() {
+        CableTelemetry missing = reading(4, null);
+        CableTelemetry future = reading(4, T0.plusHours(3));
+        CableTelemetry slightlyAhead = reading(4, T0.plusSeconds(30));
+
+        watermarks.normalize(missing, T0);
+        watermarks.normalize(future, T0);
+        watermarks.normalize(slightlyAhead, T0);
+
+        assertEquals(T0, missing.getTimestamp());
+        assertEquals(T0, future.getTimestamp());
+        assertEquals(T0.plusSeconds(30), slightlyAhead.getTimestamp());
+    }
+}
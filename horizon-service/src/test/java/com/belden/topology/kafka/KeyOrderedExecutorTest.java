@@ -0,0 +1,66 @@
+package com.belden.topology.kafka;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeyOrderedExecutorTest {
+
+    @Test
+    void eachKeyRunsInSubmissionOrder() {
+        Map<Long, List<Integer>> seen = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+
+        try (KeyOrderedExecutor executor = new KeyOrderedExecutor("test-worker-", 4, 8)) {
+            for (int sequence = 0; sequence < 1000; sequence++) {
+                long key = sequence % 37;
+                int value = sequence;
+                pending.add(executor.submit(executor.workerFor(key), () ->
+                        seen.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>())).add(value)));
+            }
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+        }
+
+        assertEquals(37, seen.size());
+        seen.forEach((key, values) -> {
+            List<Integer> sorted = new ArrayList<>(values);
+            Collections.sort(sorted);
+            assertEquals(sorted, values, "key " + key);
+        });
+    }
+
+    @Test
+    void partitionKeepsOrderWithinEachWorker() {
+        try (KeyOrderedExecutor executor = new KeyOrderedExecutor("test-worker-", 3, 8)) {
+            List<Long> items = List.of(5L, 9L, 5L, 12L, 9L, 5L);
+            List<List<Long>> groups = executor.partition(items, Long::longValue);
+
+            assertEquals(3, groups.size());
+            assertEquals(items.size(), groups.stream().mapToInt(List::size).sum());
+            List<Long> fives = groups.get(executor.workerFor(5L)).stream().filter(k -> k == 5L).toList();
+            assertEquals(3, fives.size());
+        }
+    }
+
+    @Test
+    void taskFailureCompletesTheFutureExceptionally() {
+        try (KeyOrderedExecutor executor = new KeyOrderedExecutor("test-worker-", 2, 8)) {
+            CompletableFuture<Void> failed = executor.submit(0, () -> {
+                throw new IllegalStateException("boom");
+            });
+            assertThrows(CompletionException.class, failed::join);
+
+            // The worker survives and keeps draining its queue
+            executor.submit(0, () -> { }).join();
+        }
+    }
+}
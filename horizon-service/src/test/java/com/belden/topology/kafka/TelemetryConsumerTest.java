@@ -0,0 +1,169 @@
+package com.belden.topology.kafka;
+
+import com.belden.topology.cache.LatestTelemetryCache;
+import com.belden.topology.cache.LifecycleAggregateStore;
+import com.belden.topology.model.CableTelemetry;
+import com.belden.topology.repository.AlertInsertRepository;
+import com.belden.topology.repository.CableTelemetryBatchRepository;
+import com.belden.topology.repository.TelemetryOffsetRepository;
+import com.belden.topology.service.AlertDedupService;
+import com.belden.topology.service.AlertService;
+import com.belden.topology.service.LiveUpdateBroadcaster;
+import com.belden.topology.service.RulEstimator;
+import com.belden.topology.service.RulService;
+import com.belden.topology.service.TelemetryAnomalyDetector;
+import com.belden.topology.service.TelemetryPartitionService;
+import com.belden.topology.service.TelemetryPersistenceService;
+import com.belden.topology.service.TelemetryRollupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Batch consumption on two key-ordered workers against a real (embedded) Postgres
+class TelemetryConsumerTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.now().minusMinutes(5);
+
+    private EmbeddedPostgres postgres;
+    private JdbcTemplate jdbcTemplate;
+    private LiveUpdateBroadcaster broadcaster;
+    private KeyOrderedExecutor workers;
+    private FailingBatchRepository batchRepository;
+    private TelemetryConsumer consumer;
+
+    @BeforeEach
+    void wire() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        new TelemetryPartitionService(jdbcTemplate, transactionManager,
+                TelemetryPartitionService.Interval.DAILY, 0, Duration.ofDays(7)).init();
+        TelemetryOffsetRepository offsetRepository = new TelemetryOffsetRepository(jdbcTemplate);
+        offsetRepository.init();
+        // Never run here, so recordWritten returns at once
+        TelemetryRollupService rollupService = new TelemetryRollupService(
+                jdbcTemplate, Duration.ofMinutes(5), Duration.ofDays(7), Duration.ofDays(30), Duration.ofDays(365));
+
+        // Every cable is already cached, so the Spring Data repository is never needed
+        LatestTelemetryCache latestCache = new LatestTelemetryCache(null);
+        for (long cableId = 1; cableId <= 8; cableId++) {
+            latestCache.put(CableTelemetry.builder().cableId(cableId).health(100.0).snr(30.0).mse(0.01)
+                    .timestamp(T0.minusMinutes(1)).build());
+        }
+        broadcaster = new LiveUpdateBroadcaster(256, 60_000);
+        batchRepository = new FailingBatchRepository(jdbcTemplate);
+        TelemetryPersistenceService persistenceService = new TelemetryPersistenceService(null, batchRepository, latestCache,
+                new LifecycleAggregateStore(jdbcTemplate, null, transactionManager, 10, 100), broadcaster, rollupService);
+        AlertService alertService = new AlertService(null, new AlertInsertRepository(jdbcTemplate), new AlertDedupService(Duration.ofMinutes(5)), broadcaster);
+
+        workers = new KeyOrderedExecutor("test-worker-", 2, 8);
+        consumer = new TelemetryConsumer(new RulService(), new RulEstimator(32, 1.0), latestCache, persistenceService,
+                alertService, new TelemetryAnomalyDetector(true, 0.02, 5.0, 50, 0.01), workers,
+                new EventTimeWatermarks(Duration.ofMinutes(10), Duration.ofMinutes(1)), offsetRepository,
+                transactionManager, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void shutdown() throws Exception {
+        workers.close();
+        broadcaster.shutdown();
+        postgres.close();
+    }
+
+    @Test
+    void redeliveredPollAfterAFailedShareWritesEveryReadingOnce() {
+        // One cable per worker, both on partition 0, offsets interleaved the way the broker delivers them
+        long healthy = cableOnWorker(0);
+        long failing = cableOnWorker(1);
+        batchRepository.failOnceFor = failing;
+
+        assertThrows(CompletionException.class, () -> deliverPoll(healthy, failing));
+        assertEquals(3, rows(healthy));
+        assertEquals(0, rows(failing));
+
+        deliverPoll(healthy, failing); // The listener container redelivers the same offsets
+
+        assertEquals(3, rows(healthy));
+        assertEquals(3, rows(failing));
+        assertEquals(6, jdbcTemplate.queryForObject("SELECT count(*) FROM cable_telemetry", Long.class));
+    }
+
+    @Test
+    void offsetsOfAnotherPartitionAreNotMistakenForRedelivery() {
+        long cable = cableOnWorker(0);
+        consumer.consumeBatch(List.of(reading(cable, 0)), List.of(0), List.of(10L));
+
+        // Same cable after the topic grew: a new partition, lower offsets
+        consumer.consumeBatch(List.of(reading(cable, 1)), List.of(1), List.of(3L));
+
+        assertEquals(2, rows(cable));
+    }
+
+    // Fresh objects each time, like a second deserialization of the same records
+    private void deliverPoll(long first, long second) {
+        List<CableTelemetry> poll = new ArrayList<>();
+        List<Integer> partitions = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            poll.add(reading(first, i));
+            poll.add(reading(second, i));
+        }
+        for (int i = 0; i < poll.size(); i++) {
+            partitions.add(0);
+            offsets.add(100L + i);
+        }
+        consumer.consumeBatch(poll, partitions, offsets);
+    }
+
+    private long cableOnWorker(int worker) {
+        for (long cableId = 1; cableId <= 8; cableId++) {
+            if (workers.workerFor(cableId) == worker) return cableId;
+        }
+        throw new IllegalStateException("No cable maps to worker " + worker);
+    }
+
+    private static CableTelemetry reading(long cableId, int second) {
+        return CableTelemetry.builder().cableId(cableId).temperature(30).attenuation(1).load(50)
+                .timestamp(T0.plusSeconds(second)).build();
+    }
+
+    private long rows(long cableId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM cable_telemetry WHERE cable_id = ?", Long.class, cableId);
+    }
+
+    // Fails the first INSERT that contains the given cable, like a dropped connection would
+    private static final class FailingBatchRepository extends CableTelemetryBatchRepository {
+
+        private volatile Long failOnceFor;
+
+        FailingBatchRepository(JdbcTemplate jdbcTemplate) {
+            super(jdbcTemplate);
+        }
+
+        @Override
+        public int insertAll(List<CableTelemetry> records) {
+            Long failing = failOnceFor;
+            if (failing != null && records.stream().anyMatch(r -> failing.equals(r.getCableId()))) {
+                failOnceFor = null;
+                throw new IllegalStateException("Connection reset");
+            }
+            return super.insertAll(records);
+        }
+    }
+}
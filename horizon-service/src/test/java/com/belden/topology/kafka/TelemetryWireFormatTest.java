@@ -0,0 +1,64 @@
+package com.belden.topology.kafka;
+
+import com.belden.topology.model.CableTelemetry;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TelemetryWireFormatTest {
+
+    @Test
+    void fullReadingRoundTripsExactly() {
+        CableTelemetry reading = CableTelemetry.builder()
+                .id(123_456L).cableId(17L)
+                .attenuation(3.1).temperature(42.5).load(75.0).snr(27.3).mse(0.12)
+                .health(64.2).rulInDays(181.5)
+                .timestamp(LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_456_789))
+                .lastSeen(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 1))
+                .build();
+
+        assertEquals(reading, TelemetryWireFormat.decode(TelemetryWireFormat.encode(reading)));
+    }
+
+    @Test
+    void producerSideReadingIsSixtyBytes() {
+        CableTelemetry reading = CableTelemetry.builder().cableId(1L).temperature(42.5).attenuation(3.1).load(75.0).build();
+
+        byte[] encoded = TelemetryWireFormat.encode(reading);
+        assertEquals(60, encoded.length);
+        assertEquals(reading, TelemetryWireFormat.decode(encoded));
+    }
+
+    @Test
+    void deserializerReadsBothFormats() {
+        TelemetryWireDeserializer deserializer = new TelemetryWireDeserializer();
+        deserializer.configure(Map.of(
+                JsonDeserializer.TRUSTED_PACKAGES, "*",
+                JsonDeserializer.VALUE_DEFAULT_TYPE, CableTelemetry.class.getName()), false);
+
+        CableTelemetry reading = CableTelemetry.builder().cableId(-5L).temperature(30.0).build();
+        byte[] json = "{\"cableId\":-5,\"temperature\":30.0}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(reading, deserializer.deserialize("cable-telemetry", TelemetryWireFormat.encode(reading)));
+        assertEquals(reading, deserializer.deserialize("cable-telemetry", json));
+        deserializer.close();
+    }
+
+    @Test
+    void truncatedOrFutureRecordsAreRejected() {
+        byte[] encoded = TelemetryWireFormat.encode(CableTelemetry.builder().cableId(1L).build());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> TelemetryWireFormat.decode(Arrays.copyOf(encoded, encoded.length - 1)));
+
+        encoded[1] = 2;
+        assertThrows(IllegalArgumentException.class, () -> TelemetryWireFormat.decode(encoded));
+    }
+}
@@ -0,0 +1,124 @@
+package com.belden.topology.service;
+
+import com.belden.topology.model.Alert;
+import com.belden.topology.model.TelemetryAnomaly;
+import com.belden.topology.repository.AlertInsertRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+// One stored alert per cable, severity and degradation episode
+class AlertServiceDedupTest {
+
+    private final RecordingAlertRepository repository = new RecordingAlertRepository();
+    // No re-arm window: a single healthy reading ends the episode
+    private final AlertDedupService dedupService = new AlertDedupService(Duration.ZERO);
+    private final LiveUpdateBroadcaster broadcaster = new LiveUpdateBroadcaster(16, 60_000);
+    // Cables 1-3 resolve their asset names without the topology index
+    private final AlertService alertService = new AlertService(null, repository, dedupService, broadcaster);
+
+    @AfterEach
+    void shutdown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void cableThatStaysDegradedAlertsOncePerSeverity() {
+        for (int tick = 0; tick < 5; tick++) alertService.checkAndAlert(1L, 40.0, 30);
+        for (int tick = 0; tick < 5; tick++) alertService.checkAndAlert(1L, 10.0, 3);
+
+        assertEquals(List.of("WARNING", "CRITICAL"), repository.inserted.stream().map(Alert::getSeverity).toList());
+        assertEquals(8, dedupService.getDedupedCount());
+    }
+
+    @Test
+    void recoveryEndsTheEpisodeSoTheNextDegradationAlertsAgain() {
+        alertService.checkAndAlert(2L, 40.0, 30);
+        alertService.checkAndAlert(2L, 45.0, 30);
+        alertService.checkAndAlert(2L, 80.0, 100);
+        alertService.checkAndAlert(2L, 40.0, 30);
+
+        assertEquals(2, repository.inserted.size());
+        assertNotEquals(repository.inserted.get(0).getEpisode(), repository.inserted.get(1).getEpisode());
+        assertEquals(1, dedupService.getResolvedCount());
+    }
+
+    @Test
+    void cableFlappingAroundTheThresholdAlertsOnceWithinTheRearmWindow() {
+        AlertDedupService rearming = new AlertDedupService(Duration.ofMinutes(5));
+        AlertService flapping = new AlertService(null, repository, rearming, broadcaster);
+
+        for (int tick = 0; tick < 20; tick++) flapping.checkAndAlert(1L, tick % 2 == 0 ? 49.0 : 51.0, 30);
+        flapping.anomalyCleared(2L);
+        flapping.raiseAnomaly(anomaly(2L));
+        flapping.anomalyCleared(2L);
+        flapping.raiseAnomaly(anomaly(2L));
+
+        assertEquals(List.of("WARNING", "ANOMALY"), repository.inserted.stream().map(Alert::getSeverity).toList());
+        assertEquals(0, rearming.getResolvedCount());
+        assertEquals(2, rearming.getOpenEpisodeCount());
+    }
+
+    @Test
+    void rolledBackAlertIsRetriedInTheSameEpisode() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            alertService.checkAndAlert(3L, 40.0, 30);
+        } finally {
+            // Rollback: the row is gone and afterCommit never runs
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Alert rolledBack = repository.inserted.remove(0);
+
+        alertService.checkAndAlert(3L, 40.0, 30);
+
+        assertEquals(1, repository.inserted.size());
+        assertEquals(rolledBack.getEpisode(), repository.inserted.get(0).getEpisode());
+    }
+
+    @Test
+    void anomalyAlertsOnceUntilTelemetryIsNormalAgain() {
+        alertService.raiseAnomaly(anomaly(1L));
+        alertService.raiseAnomaly(anomaly(1L));
+        alertService.anomalyCleared(1L);
+        alertService.raiseAnomaly(anomaly(1L));
+
+        assertEquals(2, repository.inserted.size());
+    }
+
+    private static TelemetryAnomaly anomaly(Long cableId) {
+        return TelemetryAnomaly.builder()
+                .cableId(cableId)
+                .timestamp(LocalDateTime.now())
+                .deviations(List.of(new TelemetryAnomaly.Deviation("temperature", 90.0, 40.0, 8.0)))
+                .build();
+    }
+
+    // The (cable_id, severity, episode) unique constraint, in memory
+    private static final class RecordingAlertRepository extends AlertInsertRepository {
+
+        private final List<Alert> inserted = new ArrayList<>();
+
+        RecordingAlertRepository() {
+            super(null);
+        }
+
+        @Override
+        public Optional<Long> insertIfAbsent(Alert alert) {
+            boolean exists = inserted.stream().anyMatch(a -> a.getCableId().equals(alert.getCableId())
+                    && a.getSeverity().equals(alert.getSeverity()) && a.getEpisode().equals(alert.getEpisode()));
+            if (exists) return Optional.empty();
+            inserted.add(alert);
+            return Optional.of((long) inserted.size());
+        }
+    }
+}
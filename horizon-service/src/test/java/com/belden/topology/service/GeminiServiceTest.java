@@ -0,0 +1,153 @@
+package com.belden.topology.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// GeminiService against a local stub of the generateContent endpoint
+class GeminiServiceTest {
+
+    private static final String RESPONSE =
+            "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"Day 6: nominal\"}]}}]}";
+
+    private HttpServer server;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile long delayMs;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/generate", exchange -> {
+            hits.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = RESPONSE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            try (OutputStream out = exchange.getResponseBody()) {
+                exchange.sendResponseHeaders(200, body.length);
+                out.write(body);
+            } catch (IOException ignored) {
+                // Client gave up (read timeout test)
+            }
+        });
+        server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    private GeminiService service(Duration readTimeout) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/generate?key=";
+        return new GeminiService(new RestTemplateBuilder(), new ObjectMapper(), url, "test",
+                Duration.ofSeconds(1), readTimeout, 10, meterRegistry);
+    }
+
+    @Test
+    void extractsTheGeneratedText() {
+        release.countDown();
+        String summary = service(Duration.ofSeconds(5)).summarize(Map.of("cableId", 1)).join();
+        assertEquals("Day 6: nominal", summary);
+    }
+
+    @Test
+    void concurrentRequestsForOnePayloadShareOneCall() {
+        GeminiService gemini = service(Duration.ofSeconds(5));
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(gemini.summarize(Map.of("cableId", 7)));
+        }
+        release.countDown();
+
+        futures.forEach(future -> assertEquals("Day 6: nominal", future.join()));
+        assertSame(futures.get(0), futures.get(7));
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    void newerPayloadForTheSameCableDoesNotJoinTheRunningCall() {
+        GeminiService gemini = service(Duration.ofSeconds(5));
+
+        CompletableFuture<String> older = gemini.summarize(Map.of("cableId", 7, "finalHealth", 80));
+        CompletableFuture<String> newer = gemini.summarize(Map.of("cableId", 7, "finalHealth", 60));
+        release.countDown();
+        older.join();
+        newer.join();
+
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    void generateFailsWhereSummarizeFallsBack() {
+        release.countDown();
+        delayMs = 1500;
+        GeminiService gemini = service(Duration.ofMillis(200));
+
+        CompletableFuture<String> generated = gemini.generate(Map.of("cableId", 5));
+        CompletableFuture<String> summarized = gemini.summarize(Map.of("cableId", 5)); // joins the same call
+
+        assertThrows(CompletionException.class, generated::join);
+        assertEquals(GeminiService.FALLBACK_SUMMARY, summarized.join());
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    void repeatedPayloadIsServedFromCache() {
+        release.countDown();
+        GeminiService gemini = service(Duration.ofSeconds(5));
+
+        gemini.summarize(Map.of("cableId", 3)).join();
+        assertEquals("Day 6: nominal", gemini.summarize(Map.of("cableId", 3)).join());
+        assertEquals(1, hits.get());
+
+        gemini.summarize(Map.of("cableId", 3, "finalHealth", 40)).join(); // new data, new call
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    void readTimeoutFallsBackAndIsNotCached() {
+        release.countDown();
+        delayMs = 1500;
+        GeminiService gemini = service(Duration.ofMillis(200));
+
+        assertEquals(GeminiService.FALLBACK_SUMMARY, gemini.summarize(Map.of("cableId", 4)).join());
+
+        delayMs = 0;
+        assertEquals("Day 6: nominal", gemini.summarize(Map.of("cableId", 4)).join());
+        assertEquals(2, hits.get());
+
+        assertEquals(1, meterRegistry.get("horizon.gemini.call").tag("outcome", "error").timer().count());
+        assertEquals(1, meterRegistry.get("horizon.gemini.call").tag("outcome", "success").timer().count());
+    }
+}
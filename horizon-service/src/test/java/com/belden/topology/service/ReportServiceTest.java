@@ -0,0 +1,73 @@
+package com.belden.topology.service;
+
+import com.belden.topology.cache.LifecycleAggregateStore;
+import com.belden.topology.model.CableLifecycleReport;
+import com.belden.topology.model.CableTelemetry;
+import com.belden.topology.model.ReportJob;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    // Every reading is a milestone; only record() is used, so no database is needed
+    private final LifecycleAggregateStore aggregateStore = new LifecycleAggregateStore(null, null, null, 1, 100);
+    // Nothing listens on port 1, so every Gemini call fails fast
+    private final GeminiService unreachableGemini = new GeminiService(new RestTemplateBuilder(), new ObjectMapper(),
+            "http://127.0.0.1:1/generate?key=", "test", Duration.ofSeconds(1), Duration.ofSeconds(1), 10,
+            new SimpleMeterRegistry());
+    private final ReportService reportService = new ReportService(aggregateStore, unreachableGemini,
+            new SustainabilityService(), new RulEstimator(32, 1.0), Duration.ZERO);
+
+    @AfterEach
+    void shutdown() {
+        unreachableGemini.shutdown();
+    }
+
+    private void record(LocalDateTime timestamp, double health) {
+        aggregateStore.record(CableTelemetry.builder().cableId(7L).timestamp(timestamp).health(health)
+                .temperature(30.0).attenuation(1.0).snr(30.0).mse(0.01).load(50.0).build());
+    }
+
+    @Test
+    void milestonesOnTheSameDayAreAllKept() {
+        record(T0, 100);
+        record(T0.plusHours(1), 99);
+        record(T0.plusHours(2), 98);
+        record(T0.plusDays(3), 90);
+
+        List<CableLifecycleReport.Milestone> milestones = reportService.buildReport(7L).orElseThrow().getDegradationMilestones();
+
+        assertEquals(List.of("Day 0", "Day 0", "Day 0", "Day 3", "Final Status (Day 3)"),
+                milestones.stream().map(CableLifecycleReport.Milestone::getLabel).toList());
+        assertEquals(List.of(100.0, 99.0, 98.0, 90.0, 90.0),
+                milestones.stream().map(m -> m.getReading().getHealth()).toList());
+    }
+
+    @Test
+    void failedSummaryMarksTheJobFailedAndTheSweepEvictsIt() {
+        record(T0, 100);
+
+        ReportJob job = reportService.submit(7L);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (job.getStatus() == ReportJob.Status.PENDING && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        assertEquals(ReportJob.Status.FAILED, job.getStatus());
+        assertEquals(GeminiService.FALLBACK_SUMMARY, job.getAiExecutiveSummary());
+        assertEquals(1, reportService.evictExpiredJobs()); // Zero retention: gone on the first sweep
+        assertTrue(reportService.getJob(job.getId()).isEmpty());
+    }
+}
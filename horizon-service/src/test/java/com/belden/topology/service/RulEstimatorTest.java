@@ -0,0 +1,109 @@
+package com.belden.topology.service;
+
+import com.belden.topology.model.CableTelemetry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RulEstimatorTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private final RulEstimator estimator = new RulEstimator(32, 1.0); // real time: one reading per day below
+
+    private static CableTelemetry reading(long cableId, int day, double health) {
+        return CableTelemetry.builder().cableId(cableId).timestamp(T0.plusDays(day)).health(health).build();
+    }
+
+    @Test
+    void straightLineGivesExactRemainingLife() {
+        double rul = 0;
+        for (int day = 0; day < 50; day++) {
+            rul = estimator.estimate(reading(1, day, 100 - day), null); // -1 health per day
+        }
+        assertEquals(51.0, rul, 1e-6); // health 51 at day 49
+    }
+
+    @Test
+    void singleOutlierBarelyMovesTheEstimate() {
+        for (int day = 0; day < 40; day++) estimator.estimate(reading(1, day, 100 - 0.5 * day), null);
+
+        double before = estimator.estimate(reading(1, 40, 80), null);
+        double afterDip = estimator.estimate(reading(1, 41, 70), null); // one noisy 10-point dip
+
+        assertEquals(160.0, before, 1e-6);
+        assertTrue(Math.abs(afterDip - before) < 0.25 * before, "RUL " + before + " -> " + afterDip);
+        // A two-point delta would read the dip as 10 points a day and call it 70 / 10 = 7 days
+        assertTrue(afterDip > 10 * 7.0, "RUL after dip " + afterDip);
+    }
+
+    @Test
+    void runningSumsMatchAFreshFitAfterManyLaps() {
+        SplittableRandom random = new SplittableRandom(3);
+        double[] health = new double[1_000];
+        double rul = 0;
+        for (int day = 0; day < health.length; day++) {
+            health[day] = 100 - 0.05 * day + random.nextGaussian();
+            rul = estimator.estimate(reading(1, day, health[day]), null);
+        }
+
+        // Ordinary least squares over the last 32 readings, from scratch
+        int n = 32, from = health.length - n;
+        double sx = 0, sy = 0, sxx = 0, sxy = 0;
+        for (int day = from; day < health.length; day++) {
+            sx += day; sy += health[day]; sxx += (double) day * day; sxy += day * health[day];
+        }
+        double slope = (sxy - sx * sy / n) / (sxx - sx * sx / n);
+        double intercept = (sy - slope * sx) / n;
+        double expected = slope >= 0 ? RulService.DEMO_LIFESPAN_DAYS
+                : (intercept + slope * (health.length - 1)) / -slope;
+
+        assertEquals(expected, rul, 1e-6 * Math.abs(expected));
+    }
+
+    @Test
+    void simulatedSourceUsesItsOwnTimeScale() {
+        // 5 days of wear every 2 s, like the audit: -1 health per tick is -0.2 per day of wear
+        double scale = 5 * 86_400_000.0 / 2000;
+        double rul = 0;
+        for (int tick = 0; tick < 10; tick++) {
+            CableTelemetry audited = CableTelemetry.builder().cableId(3L).health(100 - tick)
+                    .timestamp(T0.plusSeconds(2L * tick)).build();
+            rul = estimator.estimate(audited, null, scale);
+        }
+        assertEquals(91 / 0.2, rul, 1e-6);
+        assertEquals(45.0, estimator.elapsedDays(3L, T0, T0.plusSeconds(18)), 1e-9);
+
+        // A real-time reading for the same cable starts a new trend instead of mixing the scales
+        assertEquals(RulService.DEMO_LIFESPAN_DAYS, estimator.estimate(reading(3, 1, 90), null), 1e-9);
+        assertEquals(1.0, estimator.elapsedDays(3L, T0, T0.plusDays(1)), 1e-9);
+    }
+
+    @Test
+    void previousReadingSeedsTheTrendAfterRestart() {
+        CableTelemetry cached = reading(2, 0, 90);
+        double rul = estimator.estimate(reading(2, 10, 80), cached); // -1 per day from the cached point
+        assertEquals(80.0, rul, 1e-6);
+    }
+
+    @Test
+    void checkpointUndoesReadingsThatWereNotStored() {
+        for (int day = 0; day < 10; day++) estimator.estimate(reading(1, day, 100 - day), null);
+        Runnable rollback = estimator.checkpoint(List.of(1L, 4L));
+
+        // A steep drop, and a first reading for a new cable, both rolled back
+        estimator.estimate(reading(1, 10, 40), null);
+        estimator.estimate(reading(4, 0, 90), null);
+        rollback.run();
+
+        assertEquals(91.0, estimator.current(1L, 91), 1e-6);
+        assertEquals(RulService.DEMO_LIFESPAN_DAYS, estimator.current(4L, 90), 1e-9);
+        // The next stored reading continues the trend as if the rolled-back ones never happened
+        assertEquals(90.0, estimator.estimate(reading(1, 10, 90), null), 1e-6);
+    }
+}
@@ -0,0 +1,81 @@
+package com.belden.topology.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// The batch kernels must agree with the scalar formulas, including every branch boundary
+class RulServiceBatchTest {
+
+    private static final int N = 10_003; // not a multiple of any vector length, so the scalar tail runs too
+
+    private static final double[] attenuation = new double[N];
+    private static final double[] temp = new double[N];
+    private static final double[] load = new double[N];
+    private static final double[] snr = new double[N];
+    private static final double[] mse = new double[N];
+    private static final double[] age = new double[N];
+
+    private final RulService rulService = new RulService();
+
+    @BeforeAll
+    static void generateReadings() {
+        SplittableRandom random = new SplittableRandom(7);
+        double[] tempEdges = {25.0, 60.0, Math.nextUp(25.0), Math.nextUp(60.0), -10.0, 200.0};
+        double[] snrEdges = {30.0, Math.nextDown(30.0), 0.0, 45.0};
+        for (int i = 0; i < N; i++) {
+            attenuation[i] = random.nextDouble(0, 40);
+            temp[i] = i % 5 == 0 ? tempEdges[i % tempEdges.length] : random.nextDouble(0, 100);
+            load[i] = random.nextDouble(0, 200);
+            snr[i] = i % 7 == 0 ? snrEdges[i % snrEdges.length] : random.nextDouble(0, 50);
+            mse[i] = random.nextDouble(0, 3);
+            age[i] = random.nextInt(0, 20);
+        }
+    }
+
+    @Test
+    void vectorKernelIsUsedWhenBuiltWithTheVectorProfile() {
+        // -P vector compiles the kernel and runs Surefire with --add-modules jdk.incubator.vector (see pom.xml)
+        assumeTrue(vectorKernelBuilt());
+        assertTrue(rulService.getBatchKernelName().startsWith("vector"), rulService.getBatchKernelName());
+    }
+
+    @Test
+    void scalarKernelIsUsedOtherwise() {
+        assumeFalse(vectorKernelBuilt());
+        assertEquals("scalar", rulService.getBatchKernelName());
+    }
+
+    @Test
+    void scalarKernelMatchesScalarFormulas() {
+        assertKernelMatchesScalar(new ScalarHealthScoringKernel());
+    }
+
+    @Test
+    void vectorKernelMatchesScalarFormulas() {
+        assumeTrue(vectorKernelBuilt());
+        assertKernelMatchesScalar(RulService.selectKernel());
+    }
+
+    private static boolean vectorKernelBuilt() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+                && RulServiceBatchTest.class.getClassLoader()
+                        .getResource("com/belden/topology/service/VectorHealthScoringKernel.class") != null;
+    }
+
+    private void assertKernelMatchesScalar(HealthScoringKernel kernel) {
+        double[] health = new double[N];
+        kernel.health(attenuation, temp, load, snr, mse, age, health, N);
+
+        for (int i = 0; i < N; i++) {
+            double expectedHealth = rulService.calculateHealth(attenuation[i], temp[i], load[i], snr[i], mse[i], (int) age[i]);
+            assertEquals(expectedHealth, health[i], 1e-12, "health at " + i);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.belden.topology.service;
+
+import com.belden.topology.model.CableTelemetry;
+import com.belden.topology.model.TelemetryAnomaly;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryAnomalyDetectorTest {
+
+    private final TelemetryAnomalyDetector detector = new TelemetryAnomalyDetector(true, 0.02, 5.0, 50, 0.01);
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    private CableTelemetry reading(long cableId, double temperature) {
+        return CableTelemetry.builder()
+                .cableId(cableId)
+                .temperature(temperature)
+                .attenuation(1.5 + random.nextDouble() * 0.1)
+                .snr(30 + random.nextDouble())
+                .mse(0.01 + random.nextDouble() * 0.001)
+                .build();
+    }
+
+    @Test
+    void steadyNoiseIsNotFlagged() {
+        for (int i = 0; i < 20_000; i++) {
+            assertNull(detector.observe(reading(1, 25 + random.nextGaussian() * 0.5)), "reading " + i);
+        }
+    }
+
+    @Test
+    void temperatureSpikeIsFlaggedOnItsOwnCable() {
+        for (int i = 0; i < 200; i++) {
+            detector.observe(reading(1, 25 + random.nextDouble()));
+            detector.observe(reading(2, 70 + random.nextDouble()));
+        }
+
+        TelemetryAnomaly anomaly = detector.observe(reading(1, 85));
+        assertNotNull(anomaly);
+        assertEquals(1L, anomaly.getCableId());
+        assertEquals(1, anomaly.getDeviations().size());
+        assertEquals("temperature", anomaly.getDeviations().get(0).getMetric());
+        assertTrue(anomaly.getDeviations().get(0).getZScore() > 5.0);
+
+        // 70 °C is normal for cable 2
+        assertNull(detector.observe(reading(2, 70.5)));
+    }
+
+    @Test
+    void nothingIsFlaggedDuringWarmup() {
+        for (int i = 0; i < 49; i++) {
+            assertNull(detector.observe(reading(3, i % 2 == 0 ? 25 : 140)));
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.belden.topology.service;
+
+import com.belden.topology.model.CableTelemetry;
+import com.belden.topology.model.TelemetryPage;
+import com.belden.topology.model.TelemetryPoint;
+import com.belden.topology.repository.CableTelemetryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// History reads against a real (embedded) Postgres; the rollups stay empty unless a test rolls up, so most points come from raw rows
+class TelemetryHistoryServiceTest {
+
+    // Midnight is a multiple of every bucket size used here, so buckets line up with whole minutes
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private EmbeddedPostgres postgres;
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private EntityManager entityManager;
+    private JdbcTemplate jdbcTemplate;
+    private TelemetryRollupService rollupService;
+    private TelemetryHistoryService historyService;
+
+    @BeforeEach
+    void startPostgres() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        new TelemetryPartitionService(jdbcTemplate, transactionManager,
+                TelemetryPartitionService.Interval.DAILY, 0, Duration.ofDays(3650)).init();
+        rollupService = new TelemetryRollupService(jdbcTemplate,
+                Duration.ofMinutes(5), Duration.ofDays(7), Duration.ofDays(30), Duration.ofDays(365));
+        rollupService.init();
+
+        // The Spring Data repository for the keyset pages, without a Spring context
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
+        entityManagerFactory.setPackagesToScan("com.belden.topology.model");
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "none",
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName())); // Boot's default
+        entityManagerFactory.afterPropertiesSet();
+        entityManager = entityManagerFactory.getObject().createEntityManager();
+        CableTelemetryRepository repository = new JpaRepositoryFactory(entityManager)
+                .getRepository(CableTelemetryRepository.class);
+
+        historyService = new TelemetryHistoryService(jdbcTemplate, dataSource, transactionManager,
+                new ObjectMapper(), rollupService, repository);
+    }
+
+    @AfterEach
+    void stopPostgres() throws Exception {
+        entityManager.close();
+        entityManagerFactory.destroy();
+        postgres.close();
+    }
+
+    @Test
+    void foldsEachTimeBucketIntoOnePointNewestFirst() {
+        // Minute k: health 100 - k, temperature k
+        for (int k = 0; k < 100; k++) insertReading(1L, T0.plusMinutes(k), 100 - k, k);
+        insertReading(2L, T0.plusMinutes(5), 0, 500); // Another cable, never mixed in
+
+        // 100 minutes into 10 points: 10-minute buckets of 10 readings each
+        List<TelemetryPoint> points = historyService.getDownsampledHistory(1L, T0, T0.plusMinutes(100), 10);
+
+        assertEquals(10, points.size());
+        TelemetryPoint newest = points.get(0);
+        assertEquals(T0.plusMinutes(99), newest.getTimestamp());
+        assertEquals(10, newest.getSamples());
+        assertEquals(1.0, newest.getHealth());
+        assertEquals(1.0, newest.getMinHealth());
+        assertEquals(10.0, newest.getMaxHealth());
+        assertEquals(94.5, newest.getTemperature(), 1e-9);
+
+        TelemetryPoint oldest = points.get(9);
+        assertEquals(T0.plusMinutes(9), oldest.getTimestamp());
+        assertEquals(91.0, oldest.getHealth());
+        assertEquals(4.5, oldest.getTemperature(), 1e-9);
+        assertEquals(100, points.stream().mapToLong(TelemetryPoint::getSamples).sum());
+    }
+
+    @Test
+    void lastValueOfABucketBreaksTimestampTiesById() {
+        insertReading(1L, T0, 80, 30);
+        insertReading(1L, T0.plusMinutes(1), 70, 30);
+        insertReading(1L, T0.plusMinutes(1), 60, 30); // Same instant, inserted later: the last reading
+
+        List<TelemetryPoint> points = historyService.getDownsampledHistory(1L, T0, T0.plusMinutes(2), 1);
+
+        assertEquals(1, points.size());
+        assertEquals(3, points.get(0).getSamples());
+        assertEquals(60.0, points.get(0).getHealth());
+        assertEquals(80.0, points.get(0).getMaxHealth());
+    }
+
+    @Test
+    void openRangeResolvesToTheCablesOwnReadings() {
+        for (int k = 0; k < 30; k++) insertReading(1L, T0.plusSeconds(10L * k), 100, 30);
+
+        List<TelemetryPoint> points = historyService.getDownsampledHistory(1L, null, null, 1000);
+
+        // 290 s over 1000 points: buckets of 0.29 s, at most one reading each
+        assertEquals(30, points.size());
+        assertTrue(points.stream().allMatch(p -> p.getSamples() == 1));
+        assertTrue(historyService.getDownsampledHistory(42L, null, null, 10).isEmpty());
+    }
+
+    @Test
+    void rangesOffBucketBoundariesMixRollupsAndRawRowsWithoutGaps() {
+        // Three closed hours of readings every 10 s, rolled up into minutes and hours
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(3);
+        for (int k = 0; k < 3 * 360; k++) insertReading(1L, base.plusSeconds(10L * k), 100 - k * 0.05, 30);
+        rollupService.rollUp();
+
+        // Neither end on a minute, let alone an hour
+        LocalDateTime from = base.plusMinutes(30).plusSeconds(25);
+        LocalDateTime to = base.plusHours(2).plusMinutes(45).plusSeconds(35);
+        Map<String, Object> raw = jdbcTemplate.queryForMap("""
+                SELECT count(*) AS samples, min(health) AS min_health, max(health) AS max_health
+                FROM cable_telemetry WHERE cable_id = 1 AND timestamp >= ? AND timestamp <= ?
+                """, Timestamp.valueOf(from), Timestamp.valueOf(to));
+
+        // One point reads the 1h rollup with minute and raw edges; seven points read the 1m rollup
+        for (int points : new int[]{1, 7}) {
+            List<TelemetryPoint> history = historyService.getDownsampledHistory(1L, from, to, points);
+
+            assertTrue(history.size() <= points);
+            assertEquals(((Number) raw.get("samples")).longValue(),
+                    history.stream().mapToLong(TelemetryPoint::getSamples).sum());
+            assertEquals((Double) raw.get("min_health"),
+                    history.stream().mapToDouble(TelemetryPoint::getMinHealth).min().orElseThrow(), 1e-9);
+            assertEquals((Double) raw.get("max_health"),
+                    history.stream().mapToDouble(TelemetryPoint::getMaxHealth).max().orElseThrow(), 1e-9);
+            assertEquals(to.minusSeconds(5), history.get(0).getTimestamp());
+        }
+    }
+
+    @Test
+    void lateWriteOlderThanRawRetentionLeavesCompleteRollupsAlone() {
+        LocalDateTime expired = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusDays(10);
+        for (int k = 0; k < 6; k++) insertReading(1L, expired.plusSeconds(10L * k), 90 - k, 30);
+        rollupService.rollUp();
+        // Raw retention (7 days) drops the rows; the rollups keep them
+        jdbcTemplate.update("DELETE FROM cable_telemetry");
+
+        // A device reports one reading from that minute, and one from inside retention
+        LocalDateTime kept = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusDays(2);
+        insertReading(1L, expired.plusSeconds(55), 10, 30);
+        insertReading(1L, kept, 80, 30);
+        rollupService.recordWritten(expired.plusSeconds(55));
+        rollupService.rollUp();
+
+        assertEquals(6, samples("cable_telemetry_1m", expired));
+        assertEquals(6, samples("cable_telemetry_1h", expired.truncatedTo(ChronoUnit.HOURS)));
+        assertEquals(1, samples("cable_telemetry_1m", kept));
+    }
+
+    @Test
+    void keysetPagesWalkTheHistoryOnceAcrossEqualTimestamps() {
+        // Five readings share one instant, so pages have to split a timestamp by id
+        insertReading(1L, T0, 100, 30);
+        for (int i = 0; i < 5; i++) insertReading(1L, T0.plusMinutes(1), 90 - i, 30);
+        insertReading(1L, T0.plusMinutes(2), 80, 30);
+        insertReading(2L, T0.plusMinutes(1), 50, 30);
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM cable_telemetry WHERE cable_id = 1 ORDER BY timestamp, id", Long.class);
+
+        List<Long> oldestFirst = walk(false);
+        List<Long> newestFirst = walk(true);
+
+        assertEquals(ids, oldestFirst);
+        assertEquals(ids.stream().sorted(Comparator.reverseOrder()).toList(), newestFirst);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        insertReading(1L, T0, 100, 30);
+        insertReading(1L, T0, 99, 30);
+
+        TelemetryPage page = historyService.getRawPage(1L, true, null, null, 2);
+
+        assertEquals(2, page.getRecords().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextTimestamp());
+        assertNull(page.getNextId());
+    }
+
+    // Every id of cable 1, two per page, following the cursors
+    private List<Long> walk(boolean newestFirst) {
+        List<Long> ids = new ArrayList<>();
+        TelemetryPage page = historyService.getRawPage(1L, newestFirst, null, null, 2);
+        while (true) {
+            page.getRecords().stream().map(CableTelemetry::getId).forEach(ids::add);
+            if (!page.isHasMore()) return ids;
+            assertEquals(2, page.getRecords().size());
+            page = historyService.getRawPage(1L, newestFirst, page.getNextTimestamp(), page.getNextId(), 2);
+        }
+    }
+
+    private long samples(String rollup, LocalDateTime bucket) {
+        return jdbcTemplate.queryForObject("SELECT samples FROM " + rollup + " WHERE cable_id = 1 AND bucket = ?",
+                Long.class, Timestamp.valueOf(bucket));
+    }
+
+    private void insertReading(Long cableId, LocalDateTime timestamp, double health, double temperature) {
+        jdbcTemplate.update("""
+                INSERT INTO cable_telemetry (cable_id, attenuation, temperature, load, snr, mse, health, rul_in_days, timestamp)
+                VALUES (?, 0.5, ?, 50, 30, 0.01, ?, 300, ?)
+                """, cableId, temperature, health, Timestamp.valueOf(timestamp));
+    }
+}
@@ -0,0 +1,162 @@
+package com.belden.topology.service;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Partition maintenance against a real (embedded) Postgres
+class TelemetryPartitionServiceTest {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private EmbeddedPostgres postgres;
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void startPostgres() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        dataSource = postgres.getPostgresDatabase();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void stopPostgres() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void initCreatesThePartitionedTableAndPremakesUpcomingPartitions() {
+        service(Duration.ofDays(7)).init();
+
+        LocalDate today = LocalDate.now();
+        assertTrue(tableExists("cable_telemetry_default"));
+        for (int i = 0; i <= 2; i++) assertTrue(tableExists(partitionOf(today.plusDays(i))));
+        assertFalse(tableExists(partitionOf(today.plusDays(3))));
+    }
+
+    @Test
+    void rowsAlreadyInTheDefaultPartitionAreMovedIntoTheirNewPartition() {
+        TelemetryPartitionService service = service(Duration.ofDays(7));
+        service.init();
+        LocalDateTime backfilled = LocalDate.now().minusDays(3).atTime(10, 0);
+        insertReading(1L, backfilled);
+        insertReading(2L, backfilled.plusHours(1));
+        assertEquals(2, count("cable_telemetry_default"));
+
+        service.maintain();
+
+        String partition = partitionOf(backfilled.toLocalDate());
+        assertEquals(2, count(partition));
+        assertEquals(0, count("cable_telemetry_default"));
+        assertEquals(2, count("cable_telemetry"));
+        assertTrue(service.getPartitions().stream().map(p -> p.get("name")).anyMatch(partition::equals));
+        // Attached with the parent's indexes, so the read path still uses them
+        assertTrue(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_indexes WHERE tablename = ?", Long.class, partition) >= 2);
+    }
+
+    @Test
+    void retentionDropsExpiredPartitionsAndOldDefaultRowsOnly() {
+        service(Duration.ofDays(30)).init();
+        LocalDateTime tenDaysAgo = LocalDate.now().minusDays(10).atTime(12, 0);
+        insertReading(1L, tenDaysAgo);
+        service(Duration.ofDays(30)).maintain();
+        assertTrue(tableExists(partitionOf(tenDaysAgo.toLocalDate())));
+
+        insertReading(1L, LocalDateTime.now().minusDays(40)); // Default partition, already past retention
+        insertReading(1L, LocalDateTime.now());               // Today's premade partition
+        service(Duration.ofDays(7)).maintain();
+
+        assertFalse(tableExists(partitionOf(tenDaysAgo.toLocalDate())));
+        assertEquals(0, count("cable_telemetry_default"));
+        assertEquals(1, count("cable_telemetry"));
+    }
+
+    @Test
+    void legacyTableIsMigratedWithEveryRowAndKept() {
+        createLegacyTable();
+        LocalDateTime yesterday = LocalDate.now().minusDays(1).atTime(9, 0);
+        insertReading(1L, LocalDateTime.now().minusDays(400));
+        insertReading(1L, LocalDateTime.now().minusDays(40));
+        insertReading(1L, yesterday);
+
+        service(Duration.ofDays(7)).init();
+
+        // Nothing is deleted by the migration itself: the old table stays as it was
+        assertEquals(3, count("cable_telemetry_legacy"));
+        assertEquals(1, count(partitionOf(yesterday.toLocalDate())));
+        // Rows past retention were copied, then expired by the regular retention pass
+        assertEquals(1, count("cable_telemetry"));
+        // New rows continue after the old ids
+        insertReading(2L, LocalDateTime.now());
+        assertTrue(jdbcTemplate.queryForObject("SELECT max(id) FROM cable_telemetry", Long.class) > 3);
+    }
+
+    @Test
+    void everyLegacyRowIsCopiedWhateverItsAge() {
+        createLegacyTable();
+        insertReading(1L, LocalDateTime.now().minusDays(400));
+        insertReading(1L, LocalDateTime.now().minusDays(40));
+        jdbcTemplate.update("INSERT INTO cable_telemetry (cable_id, attenuation, temperature, load, snr, mse, health, rul_in_days) "
+                + "VALUES (1, 0.5, 30, 50, 30, 0.01, 100, 300)"); // No timestamp at all
+
+        service(Duration.ofDays(3650)).init();
+
+        assertEquals(3, count("cable_telemetry"));
+        assertEquals(3, count("cable_telemetry_legacy"));
+    }
+
+    private TelemetryPartitionService service(Duration rawRetention) {
+        return new TelemetryPartitionService(jdbcTemplate,
+                new DataSourceTransactionManager(dataSource),
+                TelemetryPartitionService.Interval.DAILY, 2, rawRetention);
+    }
+
+    // The plain table Hibernate creates on a fresh database
+    private void createLegacyTable() {
+        jdbcTemplate.execute("""
+                CREATE TABLE cable_telemetry (
+                    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    cable_id bigint, attenuation double precision NOT NULL, temperature double precision NOT NULL,
+                    load double precision NOT NULL, snr double precision NOT NULL, mse double precision NOT NULL,
+                    health double precision NOT NULL, rul_in_days double precision NOT NULL,
+                    timestamp timestamp(6), last_seen timestamp(6)
+                )
+                """);
+        jdbcTemplate.execute("CREATE INDEX idx_cable_telemetry_cable_ts ON cable_telemetry (cable_id, timestamp, id)");
+    }
+
+    private void insertReading(Long cableId, LocalDateTime timestamp) {
+        jdbcTemplate.update("""
+                INSERT INTO cable_telemetry (cable_id, attenuation, temperature, load, snr, mse, health, rul_in_days, timestamp)
+                VALUES (?, 0.5, 30, 50, 30, 0.01, 100, 300, ?)
+                """, cableId, Timestamp.valueOf(timestamp));
+    }
+
+    private boolean tableExists(String name) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class);
+    }
+
+    private static String partitionOf(LocalDate day) {
+        return "cable_telemetry_p" + SUFFIX.format(day);
+    }
+}
@@ -0,0 +1,56 @@
+package com.belden.topology.simulation;
+
+import com.belden.topology.model.CableTelemetry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadingGeneratorTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    void backfillStampsEachCablesReadingsAtFixedIntervalsInRoundRobin() {
+        ReadingGenerator generator = new ReadingGenerator(3, 100, DegradationProfile.STEADY,
+                START, Duration.ofMinutes(5), 1, 7);
+
+        // Batches don't have to line up with the fleet size
+        List<CableTelemetry> first = generator.nextBatch(4);
+        List<CableTelemetry> second = generator.nextBatch(5);
+
+        assertEquals(List.of(100L, 101L, 102L, 100L), first.stream().map(CableTelemetry::getCableId).toList());
+        assertEquals(List.of(101L, 102L, 100L, 101L, 102L), second.stream().map(CableTelemetry::getCableId).toList());
+        assertEquals(START, first.get(0).getTimestamp());
+        assertEquals(START.plusMinutes(5), first.get(3).getTimestamp());
+        assertEquals(START.plusMinutes(10), second.get(4).getTimestamp());
+        assertEquals(3, generator.getTick());
+    }
+
+    @Test
+    void linearProfileDriftsAtTheAuditRates() {
+        ReadingGenerator generator = new ReadingGenerator(1, 1, DegradationProfile.LINEAR,
+                START, Duration.ofDays(5), 5, 7);
+
+        List<CableTelemetry> readings = generator.nextBatch(11);
+        CableTelemetry first = readings.get(0);
+        CableTelemetry last = readings.get(10);
+
+        // 10 steps of 5 days, same as 10 passes of HealthAuditScheduler's decay
+        assertEquals(30.0 + 5.0, last.getTemperature(), 1e-9);
+        assertEquals(0.5 + 1.0, last.getAttenuation(), 1e-9);
+        assertEquals(30.0 - 5.0, last.getSnr(), 1e-9);
+        assertEquals(first.getMse() + 0.545, last.getMse(), 1e-9);
+        assertEquals(START.plusDays(50), last.getTimestamp());
+    }
+
+    @Test
+    void mixedProfileSpreadsCablesOverTheConcreteProfiles() {
+        assertEquals(DegradationProfile.LINEAR, DegradationProfile.MIXED.forCable(1));
+        assertEquals(DegradationProfile.STEADY, DegradationProfile.MIXED.forCable(5));
+        assertEquals(DegradationProfile.THERMAL, DegradationProfile.THERMAL.forCable(5));
+    }
+}
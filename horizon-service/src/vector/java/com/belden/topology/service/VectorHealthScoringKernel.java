@@ -0,0 +1,57 @@
+package com.belden.topology.service;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD version of the scoring formulas (JDK incubator Vector API).
+ * Only referenced by name from {@link RulService}, so the class is never loaded when the
+ * jdk.incubator.vector module is missing. Branches become lane masks; the subtractions happen
+ * in the same order as the scalar code, so results are identical, not just close.
+ * Keep in step with {@link RulService#health}.
+ */
+final class VectorHealthScoringKernel implements HealthScoringKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void health(double[] attenuation, double[] temp, double[] load, double[] snr, double[] mse,
+                       double[] ageYears, double[] healthOut, int count) {
+        int bound = SPECIES.loopBound(count);
+        DoubleVector zero = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector t = DoubleVector.fromArray(SPECIES, temp, i);
+            DoubleVector s = DoubleVector.fromArray(SPECIES, snr, i);
+
+            DoubleVector health = DoubleVector.broadcast(SPECIES, 100.0);
+
+            // Heat: 0.15 per degree over 25, 0.8 once past 60
+            VectorMask<Double> hot = t.compare(VectorOperators.GT, 25.0);
+            VectorMask<Double> extreme = t.compare(VectorOperators.GT, 60.0);
+            DoubleVector rate = DoubleVector.broadcast(SPECIES, 0.15).blend(0.8, extreme);
+            DoubleVector heatPenalty = t.sub(25.0).mul(rate);
+            health = health.sub(heatPenalty, hot);
+
+            health = health.sub(DoubleVector.fromArray(SPECIES, attenuation, i).mul(2.5));
+
+            VectorMask<Double> noisy = s.compare(VectorOperators.LT, 30.0);
+            DoubleVector snrPenalty = DoubleVector.broadcast(SPECIES, 30.0).sub(s).mul(0.4);
+            health = health.sub(snrPenalty, noisy);
+
+            health = health.sub(DoubleVector.fromArray(SPECIES, mse, i).mul(20.0));
+            health = health.sub(DoubleVector.fromArray(SPECIES, load, i).mul(0.02));
+            health = health.sub(DoubleVector.fromArray(SPECIES, ageYears, i).mul(1.0));
+
+            health.min(100.0).max(zero).intoArray(healthOut, i);
+        }
+        ScalarHealthScoringKernel.healthRange(attenuation, temp, load, snr, mse, ageYears, healthOut, i, count);
+    }
+
+    @Override
+    public String name() {
+        return "vector-" + SPECIES.length() + "x64";
+    }
+}